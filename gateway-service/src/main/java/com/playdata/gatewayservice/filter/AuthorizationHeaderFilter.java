@@ -46,8 +46,13 @@ public class AuthorizationHeaderFilter extends AbstractGatewayFilterFactory {
 
             if (isAllowed || path.startsWith("/actuator")) {
                 // 허용 url이 맞다면 그냥 통과~
+                // 단, 클라이언트가 임의로 넣은 회원 id 헤더는 믿을 수 없으니 제거.
                 log.info("gateway filter 통과!");
-                return chain.filter(exchange);
+                ServerHttpRequest request = exchange.getRequest()
+                        .mutate()
+                        .headers(headers -> headers.remove("X-User-Id"))
+                        .build();
+                return chain.filter(exchange.mutate().request(request).build());
             }
 
             // 토큰이 필요한 요청은 Header에 Authorization 이라는 이름으로 Bearer ~~~가 전달됨.
@@ -73,10 +78,16 @@ public class AuthorizationHeaderFilter extends AbstractGatewayFilterFactory {
             }
 
             // 사용자 정보를 클레임에서 꺼내서 헤더에 담자
+            // userId 클레임이 없는 예전 토큰이면 X-User-Id는 보내지 않는다. (클라이언트가 넣은 값도 제거)
+            Object userId = claims.get("userId");
             ServerHttpRequest request = exchange.getRequest()
                     .mutate()
                     .header("X-User-Email", claims.getSubject())
                     .header("X-User-Role", claims.get("role", String.class))
+                    .headers(headers -> {
+                        headers.remove("X-User-Id");
+                        if (userId != null) headers.set("X-User-Id", String.valueOf(userId));
+                    })
                     .build();
 
             // 새롭게 만든 (토큰 정보를 헤더에 담은) request를 exchange에 갈아끼워서 보내자.
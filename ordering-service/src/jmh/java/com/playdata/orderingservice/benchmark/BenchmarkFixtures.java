@@ -0,0 +1,77 @@
+package com.playdata.orderingservice.benchmark;
+
+import com.playdata.orderingservice.ordering.dto.OrderingSaveReqDto;
+import com.playdata.orderingservice.ordering.dto.ProductResDto;
+import com.playdata.orderingservice.ordering.entity.OrderDetail;
+import com.playdata.orderingservice.ordering.entity.OrderDetailStatus;
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 벤치마크용 주문 데이터
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<OrderingSaveReqDto> orderRequest(int lines) {
+        List<OrderingSaveReqDto> request = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            request.add(new OrderingSaveReqDto(1000L + i, 1 + i % 5));
+        }
+        return request;
+    }
+
+    // legacy: true면 상품명/단가가 저장되지 않은 예전 주문 형태
+    static List<Ordering> orderPage(int orders, int lines, boolean legacy) {
+        List<Ordering> page = new ArrayList<>();
+        for (int o = 0; o < orders; o++) {
+            Ordering ordering = Ordering.builder()
+                    .id(10_000L + o)
+                    .userId(1L)
+                    .userEmail("user@test.com")
+                    .orderStatus(OrderStatus.ORDERED)
+                    .orderDetails(new ArrayList<>())
+                    .build();
+            for (int i = 0; i < lines; i++) {
+                ordering.getOrderDetails().add(OrderDetail.builder()
+                        .id(100_000L + o * 100L + i)
+                        .ordering(ordering)
+                        .productId(1000L + i)
+                        .productName(legacy ? null : "상품 " + i)
+                        .price(legacy ? null : 1000 * (i + 1))
+                        .quantity(1 + i % 5)
+                        .status(legacy ? null : OrderDetailStatus.DEDUCTED)
+                        .build());
+            }
+            page.add(ordering);
+        }
+        return page;
+    }
+
+    static Map<Long, String> productNameMap(int lines) {
+        Map<Long, String> map = new HashMap<>();
+        for (int i = 0; i < lines; i++) {
+            map.put(1000L + i, "상품 " + i);
+        }
+        return map;
+    }
+
+    static List<ProductResDto> products(int lines) {
+        List<ProductResDto> products = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            products.add(ProductResDto.builder()
+                    .id(1000L + i)
+                    .name("상품 " + i)
+                    .price(1000 * (i + 1))
+                    .stockQuantity(100)
+                    .build());
+        }
+        return products;
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.playdata.orderingservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.orderingservice.ordering.dto.OrderingSaveReqDto;
+import com.playdata.orderingservice.ordering.service.OrderRequestCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 주문 원본(예전 originalRequestJson) 직렬화/역직렬화 왕복 비용
+// - smile: 현재 저장 방식 (OrderRequestCodec)
+// - json: 예전 JSON 문자열 방식 (비교용)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class OrderRequestCodecBenchmark {
+
+    @Param({"1", "5", "30"})
+    public int lines;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private OrderRequestCodec codec;
+    private List<OrderingSaveReqDto> request;
+    private byte[] encoded;
+    private String json;
+
+    @Setup
+    public void setUp() throws IOException {
+        codec = new OrderRequestCodec(objectMapper);
+        request = BenchmarkFixtures.orderRequest(lines);
+        encoded = codec.encode(request);
+        json = objectMapper.writeValueAsString(request);
+    }
+
+    @Benchmark
+    public byte[] smileEncode() {
+        return codec.encode(request);
+    }
+
+    @Benchmark
+    public List<OrderingSaveReqDto> smileDecode() throws IOException {
+        return codec.decode(encoded);
+    }
+
+    @Benchmark
+    public List<OrderingSaveReqDto> smileRoundTrip() throws IOException {
+        return codec.decode(codec.encode(request));
+    }
+
+    @Benchmark
+    public List<OrderingSaveReqDto> jsonRoundTrip() throws IOException {
+        return codec.decodeLegacyJson(objectMapper.writeValueAsString(request));
+    }
+
+    @Benchmark
+    public List<OrderingSaveReqDto> jsonDecode() throws IOException {
+        return codec.decodeLegacyJson(json);
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.playdata.orderingservice.benchmark;
+
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// 주문 상태 분류 비용 (보류 여부 판단, 재처리 대상 상태 목록 만들기)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class OrderStatusBenchmark {
+
+    private final OrderStatus[] statuses = OrderStatus.values();
+
+    @Benchmark
+    public void isPending(Blackhole blackhole) {
+        for (OrderStatus status : statuses) {
+            blackhole.consume(status.isPending());
+        }
+    }
+
+    // OrderRetryScheduler가 매 회차 재처리 대상 상태를 고르는 방식
+    @Benchmark
+    public List<OrderStatus> pendingStatuses() {
+        return Arrays.stream(OrderStatus.values())
+                .filter(OrderStatus::isPending)
+                .collect(Collectors.toList());
+    }
+
+}
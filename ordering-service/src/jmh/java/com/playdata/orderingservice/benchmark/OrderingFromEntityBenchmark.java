@@ -0,0 +1,54 @@
+package com.playdata.orderingservice.benchmark;
+
+import com.playdata.orderingservice.ordering.dto.OrderingListResDto;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// 주문 목록 조회에서 엔터티 -> DTO 변환 비용 (Ordering.fromEntity, OrderDetail.fromEntity)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class OrderingFromEntityBenchmark {
+
+    // 주문 한 건의 상세 라인 수
+    @Param({"1", "5", "30"})
+    public int lines;
+
+    // 한 페이지의 주문 수 (/order/my-order 기본 20건)
+    @Param({"20"})
+    public int orders;
+
+    private List<Ordering> page;
+    private Ordering single;
+    private Map<Long, String> productNames;
+
+    @Setup
+    public void setUp() {
+        page = BenchmarkFixtures.orderPage(orders, lines, false);
+        single = page.get(0);
+        productNames = BenchmarkFixtures.productNameMap(lines);
+    }
+
+    @Benchmark
+    public OrderingListResDto singleOrder() {
+        return single.fromEntity("user@test.com", productNames);
+    }
+
+    @Benchmark
+    public List<OrderingListResDto> orderPage() {
+        return page.stream()
+                .map(ordering -> ordering.fromEntity("user@test.com", productNames))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public OrderingListResDto.OrderDetailDto singleDetail() {
+        return single.getOrderDetails().get(0).fromEntity(productNames);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.playdata.orderingservice.benchmark;
+
+import com.playdata.orderingservice.ordering.dto.ProductResDto;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// myOrder에서 상품명 조회 대상 id를 모으고 productIdToNameMap을 만드는 비용
+// (상품명이 저장되지 않은 예전 주문 기준 -> 모든 라인이 조회 대상)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ProductNameMapBenchmark {
+
+    @Param({"5", "30"})
+    public int lines;
+
+    @Param({"20"})
+    public int orders;
+
+    private List<Ordering> page;
+    private List<ProductResDto> products;
+
+    @Setup
+    public void setUp() {
+        page = BenchmarkFixtures.orderPage(orders, lines, true);
+        products = BenchmarkFixtures.products(lines);
+    }
+
+    @Benchmark
+    public List<Long> collectProductIds() {
+        return page.stream()
+                .flatMap(ordering -> ordering.getOrderDetails().stream())
+                .filter(orderDetail -> orderDetail.getProductName() == null)
+                .map(orderDetail -> orderDetail.getProductId())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Map<Long, String> buildNameMap() {
+        Map<Long, String> productIdToNameMap = new HashMap<>();
+        products.forEach(dto -> productIdToNameMap.put(dto.getId(), dto.getName()));
+        return productIdToNameMap;
+    }
+
+}
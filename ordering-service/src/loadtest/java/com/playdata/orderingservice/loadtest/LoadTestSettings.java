@@ -0,0 +1,63 @@
+package com.playdata.orderingservice.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 부하 테스트 설정 (-Dloadtest.xxx=값 으로 변경)
+final class LoadTestSettings {
+
+    // 드라이버
+    final int requests = intProp("loadtest.requests", 5000);
+    final int warmupRequests = intProp("loadtest.warmup-requests", 200);
+    final int concurrency = intProp("loadtest.concurrency", 32);
+    final int linesPerOrder = intProp("loadtest.lines-per-order", 3);
+    final int productCount = intProp("loadtest.product-count", 100);
+    final long requestTimeoutMs = intProp("loadtest.request-timeout-ms", 10000);
+    final String endpoint = System.getProperty("loadtest.endpoint", "/order/create");
+
+    // user-service 대역
+    final StubServiceServer.Behavior user = behavior("loadtest.user.");
+
+    // product-service 대역
+    final StubServiceServer.Behavior product = behavior("loadtest.product.");
+
+    // ordering-service -> 대역 서비스 호출 타임아웃 (Feign)
+    final int feignConnectTimeoutMs = intProp("loadtest.feign.connect-timeout-ms", 1000);
+    final int feignReadTimeoutMs = intProp("loadtest.feign.read-timeout-ms", 3000);
+
+    // -Dloadtest.app.<스프링 프로퍼티>=값 -> ordering-service에 그대로 전달 (resilience4j 설정 튜닝용)
+    // 예) -Dloadtest.app.resilience4j.circuitbreaker.instances.productService.failure-rate-threshold=30
+    Map<String, Object> appOverrides() {
+        Map<String, Object> overrides = new LinkedHashMap<>();
+        System.getProperties().forEach((key, value) -> {
+            String name = key.toString();
+            if (name.startsWith("loadtest.app.")) {
+                overrides.put(name.substring("loadtest.app.".length()), value);
+            }
+        });
+        return overrides;
+    }
+
+    private static StubServiceServer.Behavior behavior(String prefix) {
+        return new StubServiceServer.Behavior(
+                intProp(prefix + "latency-ms", 5),
+                intProp(prefix + "latency-jitter-ms", 5),
+                Double.parseDouble(System.getProperty(prefix + "error-rate", "0")),
+                intProp(prefix + "threads", 200)
+        );
+    }
+
+    private static int intProp(String name, int defaultValue) {
+        return Integer.parseInt(System.getProperty(name, String.valueOf(defaultValue)));
+    }
+
+    @Override
+    public String toString() {
+        return "requests=" + requests + ", warmup=" + warmupRequests + ", concurrency=" + concurrency
+                + ", linesPerOrder=" + linesPerOrder + ", endpoint=" + endpoint
+                + ", user=" + user + ", product=" + product
+                + ", feignTimeouts=" + feignConnectTimeoutMs + "/" + feignReadTimeoutMs + "ms"
+                + ", overrides=" + appOverrides();
+    }
+
+}
@@ -0,0 +1,278 @@
+package com.playdata.orderingservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.playdata.orderingservice.OrderingServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ 주문 생성 부하 테스트 (./gradlew loadTest -Dloadtest.concurrency=64 ...)
+ - ordering-service를 H2(MySQL 모드) + 프로세스 내 user/product 대역 서버에 붙여서 띄운다.
+ - 동시에 /order/create 를 호출하고 지연 시간(p50/p99/p999), 처리량, 응답 코드, 최종 주문 상태 분포를 출력.
+ - Redis는 로컬에 떠 있어야 한다. (멱등성 키, 캐시 등에 사용 / -Dloadtest.redis.host, -Dloadtest.redis.port)
+ */
+public class OrderLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = new LoadTestSettings();
+        System.out.println("[loadtest] " + settings);
+
+        try (StubServiceServer userStub = userService(settings).start();
+             StubServiceServer productStub = productService(settings).start();
+             ConfigurableApplicationContext context = startOrderingService(settings, userStub, productStub)) {
+
+            String port = context.getEnvironment().getProperty("local.server.port");
+            URI target = URI.create("http://localhost:" + port + settings.endpoint);
+            HttpClient client = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(Executors.newFixedThreadPool(settings.concurrency))
+                    .build();
+
+            // 워밍업 (JIT, 커넥션 풀, 서킷 브레이커 윈도우 채우기) - 결과는 버림
+            run(client, target, settings, settings.warmupRequests);
+            // 주문 id는 시간순으로 증가하므로 워밍업 이후 주문만 집계
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            Long warmupMaxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM ordering", Long.class);
+
+            Result result = run(client, target, settings, settings.requests);
+            report(result, jdbcTemplate, warmupMaxId, userStub, productStub);
+        }
+        // HttpClient 워커 스레드가 남아 있어도 종료
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startOrderingService(
+            LoadTestSettings settings, StubServiceServer userStub, StubServiceServer productStub) {
+        Map<String, Object> props = new LinkedHashMap<>();
+        props.put("spring.cloud.config.enabled", false);
+        props.put("spring.cloud.bootstrap.enabled", false);
+        props.put("eureka.client.enabled", false);
+        props.put("spring.cloud.discovery.client.simple.instances.user-service[0].uri", userStub.baseUrl());
+        props.put("spring.cloud.discovery.client.simple.instances.product-service[0].uri", productStub.baseUrl());
+        props.put("spring.datasource.url",
+                "jdbc:h2:mem:orders;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORE_UNKNOWN_SETTINGS=TRUE;DB_CLOSE_DELAY=-1");
+        props.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        props.put("spring.datasource.username", "sa");
+        props.put("spring.datasource.password", "");
+        props.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        props.put("spring.jpa.show-sql", false);
+        props.put("spring.data.redis.host", System.getProperty("loadtest.redis.host", "localhost"));
+        props.put("spring.data.redis.port", System.getProperty("loadtest.redis.port", "6379"));
+        props.put("server.port", 0);
+        // 노드 번호를 고정해서 Redis 노드 등록을 건너뛰고, 아카이브(MySQL 파티션 DDL)는 이동과 조회 모두 끈다.
+        props.put("order.id.node-id", 0);
+        props.put("order.archive.enabled", false);
+        props.put("order.archive.read-enabled", false);
+        props.put("spring.cloud.openfeign.client.config.default.connect-timeout", settings.feignConnectTimeoutMs);
+        props.put("spring.cloud.openfeign.client.config.default.read-timeout", settings.feignReadTimeoutMs);
+        props.put("logging.level.root", "WARN");
+        props.putAll(settings.appOverrides());
+
+        return new SpringApplicationBuilder(OrderingServiceApplication.class)
+                .properties(props)
+                .run();
+    }
+
+    private static StubServiceServer userService(LoadTestSettings settings) throws Exception {
+        return new StubServiceServer("user-service", settings.user)
+                .route("GET /user/findByEmail", request -> {
+                    String email = request.query() == null ? "" : request.query().replace("email=", "");
+                    Map<String, Object> user = new LinkedHashMap<>();
+                    user.put("id", Math.abs((long) email.hashCode()));
+                    user.put("email", email);
+                    user.put("name", "loadtest");
+                    user.put("role", "USER");
+                    user.put("address", Map.of("city", "서울", "street", "테스트로 1", "zipCode", "00000"));
+                    return user;
+                });
+    }
+
+    private static StubServiceServer productService(LoadTestSettings settings) throws Exception {
+        return new StubServiceServer("product-service", settings.product)
+                // 재고는 넉넉하다고 가정하고 모든 라인을 성공 처리
+                .route("POST /product/reserve", request -> {
+                    List<Map<String, Object>> results = new ArrayList<>();
+                    for (JsonNode line : request.body()) {
+                        long productId = line.path("productId").asLong();
+                        int quantity = line.path("productQuantity").asInt();
+                        Map<String, Object> result = product(productId);
+                        result.put("productId", productId);
+                        result.put("quantity", quantity);
+                        result.put("success", true);
+                        results.add(result);
+                    }
+                    return results;
+                })
+                .route("POST /product/products", request -> {
+                    List<Map<String, Object>> products = new ArrayList<>();
+                    request.body().forEach(id -> products.add(product(id.asLong())));
+                    return products;
+                })
+                .route("PUT /product/stock", request -> {
+                    Map<String, Object> result = product(request.body().path("productId").asLong());
+                    result.put("productId", request.body().path("productId").asLong());
+                    result.put("success", true);
+                    return result;
+                })
+                .route("PUT /product/updateQuantity", request -> null)
+                .route("PUT /product/cancel", request -> null)
+                .route("GET /product/", request ->
+                        product(Long.parseLong(request.path().substring("/product/".length()))));
+    }
+
+    private static Map<String, Object> product(long productId) {
+        Map<String, Object> product = new LinkedHashMap<>();
+        product.put("id", productId);
+        product.put("name", "상품" + productId);
+        product.put("category", "loadtest");
+        product.put("price", 1000 + (int) (productId % 100) * 100);
+        product.put("stockQuantity", 1_000_000);
+        product.put("productName", "상품" + productId);
+        return product;
+    }
+
+    private static Result run(HttpClient client, URI target, LoadTestSettings settings, int requests)
+            throws InterruptedException {
+        Result result = new Result(requests);
+        if (requests <= 0) return result;
+
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(settings.concurrency);
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency);
+        long start = System.nanoTime();
+
+        // 동시 사용자 수만큼 워커를 띄우고, 각 워커는 응답을 받으면 바로 다음 요청 (closed loop)
+        for (int w = 0; w < settings.concurrency; w++) {
+            workers.execute(() -> {
+                try {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        result.record(i, send(client, target, settings, i));
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        result.elapsedNanos = System.nanoTime() - start;
+        workers.shutdown();
+        return result;
+    }
+
+    // 응답 코드와 지연 시간(ns)을 돌려준다. 타임아웃/연결 오류는 코드 -1.
+    private static long[] send(HttpClient client, URI target, LoadTestSettings settings, int seq) {
+        int userNo = seq % 1000;
+        HttpRequest request = HttpRequest.newBuilder(target)
+                .timeout(Duration.ofMillis(settings.requestTimeoutMs))
+                .header("Content-Type", "application/json")
+                .header("X-User-Email", "user" + userNo + "@loadtest.local")
+                .header("X-User-Role", "USER")
+                .header("X-User-Id", String.valueOf(userNo + 1))
+                .POST(HttpRequest.BodyPublishers.ofString(orderBody(settings)))
+                .build();
+
+        long begin = System.nanoTime();
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = -1;
+        } catch (Exception e) {
+            status = -1;
+        }
+        return new long[]{status, System.nanoTime() - begin};
+    }
+
+    private static String orderBody(LoadTestSettings settings) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < settings.linesPerOrder; i++) {
+            if (i > 0) body.append(',');
+            body.append("{\"productId\":").append(random.nextInt(settings.productCount) + 1)
+                    .append(",\"productQuantity\":").append(random.nextInt(3) + 1).append('}');
+        }
+        return body.append(']').toString();
+    }
+
+    private static void report(Result result, JdbcTemplate jdbcTemplate, long afterId,
+                               StubServiceServer... stubs) {
+        if (result.latencies.length == 0) return;
+        long[] latencies = Arrays.copyOf(result.latencies, result.latencies.length);
+        Arrays.sort(latencies);
+        double seconds = result.elapsedNanos / 1_000_000_000.0;
+
+        System.out.println();
+        System.out.println("========== order load test ==========");
+        System.out.printf("requests     : %d in %.2fs -> %.1f req/s%n",
+                latencies.length, seconds, latencies.length / seconds);
+        System.out.printf("latency (ms) : p50=%.2f p99=%.2f p999=%.2f max=%.2f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), latencies[latencies.length - 1] / 1_000_000.0);
+        System.out.println("http status  : " + new TreeMap<>(result.statusCounts()));
+
+        Map<String, Long> orderStatus = new TreeMap<>();
+        jdbcTemplate.query("SELECT order_status, COUNT(*) FROM ordering WHERE id > ? GROUP BY order_status",
+                rs -> {
+                    orderStatus.put(rs.getString(1), rs.getLong(2));
+                }, afterId);
+        System.out.println("order status : " + orderStatus);
+
+        for (StubServiceServer stub : stubs) {
+            Map<String, Long> calls = new TreeMap<>();
+            stub.calls().forEach((route, count) -> calls.put(route, count.sum()));
+            System.out.printf("%-13s: calls=%s, injected errors=%d%n",
+                    stub.name(), calls, stub.injectedErrors());
+        }
+        System.out.println("=====================================");
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    private static class Result {
+        private final long[] latencies;
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private long elapsedNanos;
+
+        Result(int requests) {
+            this.latencies = new long[Math.max(requests, 0)];
+        }
+
+        // 요청마다 자기 인덱스에만 쓰므로 배열은 잠금 없이 기록
+        void record(int index, long[] statusAndLatency) {
+            statuses.computeIfAbsent((int) statusAndLatency[0], code -> new LongAdder()).increment();
+            latencies[index] = statusAndLatency[1];
+        }
+
+        Map<Integer, Long> statusCounts() {
+            Map<Integer, Long> counts = new LinkedHashMap<>();
+            statuses.forEach((code, count) -> counts.put(code, count.sum()));
+            return counts;
+        }
+    }
+
+}
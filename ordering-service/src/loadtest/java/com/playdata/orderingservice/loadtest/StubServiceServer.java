@@ -0,0 +1,141 @@
+package com.playdata.orderingservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// user-service, product-service를 흉내 내는 프로세스 내 HTTP 서버.
+// 응답 지연(latency + jitter)과 장애율(500 응답)을 설정할 수 있다.
+final class StubServiceServer implements AutoCloseable {
+
+    record Behavior(int latencyMs, int latencyJitterMs, double errorRate, int threads) {
+    }
+
+    // 요청 본문(JSON, 없으면 null)과 경로를 받아 CommonResDto의 result에 들어갈 값을 만든다.
+    interface Route extends Function<RouteRequest, Object> {
+    }
+
+    record RouteRequest(String method, String path, String query, JsonNode body) {
+    }
+
+    private final String name;
+    private final Behavior behavior;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Route> routes = new LinkedHashMap<>();
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final LongAdder injectedErrors = new LongAdder();
+
+    StubServiceServer(String name, Behavior behavior) throws IOException {
+        this.name = name;
+        this.behavior = behavior;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        this.executor = Executors.newFixedThreadPool(behavior.threads());
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    // "GET /user/findByEmail" 처럼 메서드 + 경로 접두사로 등록
+    StubServiceServer route(String methodAndPathPrefix, Route route) {
+        routes.put(methodAndPathPrefix, route);
+        return this;
+    }
+
+    StubServiceServer start() {
+        server.start();
+        return this;
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    String name() {
+        return name;
+    }
+
+    Map<String, LongAdder> calls() {
+        return calls;
+    }
+
+    long injectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        try (exchange) {
+            Map.Entry<String, Route> matched = routes.entrySet().stream()
+                    .filter(entry -> (method + " " + path).startsWith(entry.getKey()))
+                    .findFirst()
+                    .orElse(null);
+            if (matched == null) {
+                respond(exchange, 404, Map.of("statusCode", 404, "statusMessage", "no stub route"));
+                return;
+            }
+            calls.computeIfAbsent(matched.getKey(), key -> new LongAdder()).increment();
+
+            sleepLatency();
+            if (ThreadLocalRandom.current().nextDouble() < behavior.errorRate()) {
+                injectedErrors.increment();
+                respond(exchange, 500, Map.of("statusCode", 500, "statusMessage", "injected failure"));
+                return;
+            }
+
+            byte[] requestBody = exchange.getRequestBody().readAllBytes();
+            JsonNode body = requestBody.length > 0 ? objectMapper.readTree(requestBody) : null;
+            Object result = matched.getValue().apply(
+                    new RouteRequest(method, path, exchange.getRequestURI().getQuery(), body));
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("statusCode", 200);
+            response.put("statusMessage", "stub");
+            response.put("result", result);
+            respond(exchange, 200, response);
+        }
+    }
+
+    private void sleepLatency() {
+        int jitter = behavior.latencyJitterMs() > 0
+                ? ThreadLocalRandom.current().nextInt(behavior.latencyJitterMs() + 1) : 0;
+        long sleep = behavior.latencyMs() + jitter;
+        if (sleep <= 0) return;
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+}
@@ -1,12 +1,14 @@
 package com.playdata.orderingservice;
 
+import com.playdata.orderingservice.client.PooledFeignConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableFeignClients // Feign Client를 사용하는 서비스에 추가
+// Feign Client를 사용하는 서비스에 추가 (모든 클라이언트에 커넥션 풀 + 압축 설정 적용)
+@EnableFeignClients(defaultConfiguration = PooledFeignConfiguration.class)
 @EnableScheduling
 public class OrderingServiceApplication {
 
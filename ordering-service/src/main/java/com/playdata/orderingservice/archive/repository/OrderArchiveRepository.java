@@ -0,0 +1,236 @@
+package com.playdata.orderingservice.archive.repository;
+
+import com.playdata.orderingservice.ordering.dto.OrderExportRowDto;
+import com.playdata.orderingservice.ordering.entity.OrderDetail;
+import com.playdata.orderingservice.ordering.entity.OrderDetailStatus;
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/*
+ 오래된 주문 보관용 테이블 (ordering_archive, order_detail_archive) 접근.
+ - 주문 생성 월 기준으로 RANGE 파티셔닝 -> 월 단위로 데이터가 나뉘어 있어 오래된 달은 버퍼 풀에 올라오지 않는다.
+ - JPA 엔터티로 매핑하지 않은 테이블이라 JdbcTemplate으로 직접 다룬다.
+ - 조회 결과는 기존 조회 로직(Ordering.fromEntity)을 그대로 쓰도록 저장되지 않는 Ordering/OrderDetail 객체로 만들어 준다.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiveRepository {
+
+    private static final String ORDERING_ARCHIVE = "ordering_archive";
+    private static final String ORDER_DETAIL_ARCHIVE = "order_detail_archive";
+    private static final String MAX_PARTITION = "p_max";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    // 생성 시각이 없는 아주 예전 주문은 첫 번째 파티션으로 보낸다.
+    private static final String NO_CREATE_TIME = "'1970-01-01 00:00:00'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // MySQL 파티션 테이블은 모든 유니크 키(PK 포함)에 파티션 컬럼이 들어가야 한다. -> PK (id, 생성 시각)
+    public void createTablesIfAbsent() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + ORDERING_ARCHIVE + " (" +
+                "id BIGINT NOT NULL, " +
+                "user_id BIGINT, " +
+                "user_email VARCHAR(255), " +
+                "order_status VARCHAR(32), " +
+                "create_time DATETIME(6) NOT NULL, " +
+                "update_time DATETIME(6), " +
+                "archived_at DATETIME(6) NOT NULL, " +
+                "PRIMARY KEY (id, create_time), " +
+                "KEY idx_ordering_archive_id (id), " +
+                "KEY idx_ordering_archive_user (user_id, id)" +
+                ") PARTITION BY RANGE COLUMNS (create_time) " +
+                "(PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + ORDER_DETAIL_ARCHIVE + " (" +
+                "id BIGINT NOT NULL, " +
+                "ordering_id BIGINT NOT NULL, " +
+                "order_create_time DATETIME(6) NOT NULL, " +
+                "product_id BIGINT, " +
+                "product_name VARCHAR(255), " +
+                "price INT, " +
+                "quantity INT NOT NULL, " +
+                "status VARCHAR(32), " +
+                "PRIMARY KEY (id, order_create_time), " +
+                "KEY idx_order_detail_archive_ordering (ordering_id)" +
+                ") PARTITION BY RANGE COLUMNS (order_create_time) " +
+                "(PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+    }
+
+    // from ~ to 월의 파티션이 없으면 만든다. (비어 있는 p_max를 쪼개는 방식이라 데이터 이동 없음)
+    // 이미 있는 가장 늦은 월 이후만 추가 가능 -> 그보다 이른 달은 첫 번째 파티션에 함께 들어간다.
+    public void ensureMonthlyPartitions(YearMonth from, YearMonth to) {
+        for (String table : List.of(ORDERING_ARCHIVE, ORDER_DETAIL_ARCHIVE)) {
+            YearMonth latest = jdbcTemplate.queryForList(
+                            "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME <> ?",
+                            String.class, table, MAX_PARTITION).stream()
+                    .map(name -> YearMonth.parse(name, PARTITION_NAME))
+                    .max(YearMonth::compareTo)
+                    .orElse(from.minusMonths(1));
+
+            for (YearMonth month = latest.plusMonths(1); !month.isAfter(to); month = month.plusMonths(1)) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" +
+                        "PARTITION " + month.format(PARTITION_NAME) +
+                        " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "'), " +
+                        "PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+                log.info("보관 테이블 파티션 추가: {}.{}", table, month.format(PARTITION_NAME));
+            }
+        }
+    }
+
+    // 보관 대상 주문 id (확정/취소 후 before 이전에 생성됐고, 판매 집계에도 이미 반영된 주문)
+    // 다른 인스턴스가 옮기고 있는 행은 건너뛴다. (SKIP LOCKED)
+    public List<Long> lockArchivableIds(LocalDateTime before, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM ordering " +
+                        "WHERE order_status IN ('ORDERED', 'CANCELED') AND create_time < ? " +
+                        "AND rolled_up_status = order_status " +
+                        "ORDER BY create_time LIMIT ? FOR UPDATE SKIP LOCKED",
+                Long.class, before, limit);
+    }
+
+    // 주문/주문 상세를 보관 테이블로 복사한 뒤 원본 테이블에서 삭제 (호출하는 쪽 트랜잭션 안에서 한 번에)
+    public void moveToArchive(List<Long> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+
+        namedParameterJdbcTemplate.update(
+                "INSERT INTO " + ORDERING_ARCHIVE +
+                        " (id, user_id, user_email, order_status, create_time, update_time, archived_at) " +
+                        "SELECT id, user_id, user_email, order_status, COALESCE(create_time, " + NO_CREATE_TIME + "), " +
+                        "update_time, NOW(6) FROM ordering WHERE id IN (:ids)", params);
+        namedParameterJdbcTemplate.update(
+                "INSERT INTO " + ORDER_DETAIL_ARCHIVE +
+                        " (id, ordering_id, order_create_time, product_id, product_name, price, quantity, status) " +
+                        "SELECT d.id, d.ordering_id, COALESCE(o.create_time, " + NO_CREATE_TIME + "), " +
+                        "d.product_id, d.product_name, d.price, d.quantity, d.status " +
+                        "FROM order_detail d JOIN ordering o ON o.id = d.ordering_id " +
+                        "WHERE d.ordering_id IN (:ids)", params);
+
+        namedParameterJdbcTemplate.update("DELETE FROM order_detail WHERE ordering_id IN (:ids)", params);
+        namedParameterJdbcTemplate.update("DELETE FROM order_request_snapshot WHERE ordering_id IN (:ids)", params);
+        namedParameterJdbcTemplate.update("DELETE FROM ordering WHERE id IN (:ids)", params);
+    }
+
+    // 회원의 보관된 주문을 최신순으로 (afterId < id < cursor), 상세 내역 포함
+    public List<Ordering> findByUserIdBetween(Long userId, Long afterId, Long cursor, int limit) {
+        Map<Long, Ordering> orders = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, user_id, user_email, order_status FROM " + ORDERING_ARCHIVE +
+                        " WHERE user_id = ? AND id > ? AND id < ? ORDER BY id DESC LIMIT ?",
+                rs -> {
+                    Ordering ordering = toOrdering(rs);
+                    orders.put(ordering.getId(), ordering);
+                },
+                userId, afterId, cursor, limit);
+        if (orders.isEmpty()) return new ArrayList<>();
+
+        namedParameterJdbcTemplate.query(
+                "SELECT id, ordering_id, product_id, product_name, price, quantity, status FROM " +
+                        ORDER_DETAIL_ARCHIVE + " WHERE ordering_id IN (:ids) ORDER BY id",
+                new MapSqlParameterSource("ids", orders.keySet()),
+                rs -> {
+                    Ordering ordering = orders.get(rs.getLong("ordering_id"));
+                    ordering.getOrderDetails().add(toOrderDetail(rs, ordering));
+                });
+        return new ArrayList<>(orders.values());
+    }
+
+    public Optional<Ordering> findById(Long id) {
+        return jdbcTemplate.query(
+                "SELECT id, user_id, user_email, order_status FROM " + ORDERING_ARCHIVE + " WHERE id = ?",
+                (rs, rowNum) -> toOrdering(rs), id).stream().findFirst();
+    }
+
+    // 주문 내보내기용: 보관된 주문을 주문 상세와 한 줄씩 (주문 id 순)
+    // 운영 테이블 내보내기와 마찬가지로 드라이버가 결과를 한 줄씩 넘겨주도록 fetch size를 MIN_VALUE로 준다. (MySQL 스트리밍)
+    // 돌려준 Stream을 닫아야 커넥션의 결과 셋이 정리된다.
+    public Stream<OrderExportRowDto> streamForExport(OrderStatus status, LocalDateTime from, LocalDateTime to) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT o.id, o.user_id, o.user_email, o.order_status, o.create_time, " +
+                        "d.id AS detail_id, d.product_id, d.product_name, d.price, d.quantity " +
+                        "FROM " + ORDERING_ARCHIVE + " o LEFT JOIN " + ORDER_DETAIL_ARCHIVE + " d " +
+                        "ON d.ordering_id = o.id AND d.order_create_time = o.create_time WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        // 생성 시각 조건은 그대로 파티션 조건이 된다. (해당 월 파티션만 읽음)
+        if (status != null) {
+            sql.append(" AND o.order_status = ?");
+            args.add(status.name());
+        }
+        if (from != null) {
+            sql.append(" AND o.create_time >= ?");
+            args.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND o.create_time < ?");
+            args.add(to);
+        }
+        sql.append(" ORDER BY o.id, d.id");
+
+        return jdbcTemplate.queryForStream(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, (rs, rowNum) -> OrderExportRowDto.builder()
+                .orderId(rs.getLong("id"))
+                .userId(rs.getObject("user_id", Long.class))
+                .userEmail(rs.getString("user_email"))
+                .orderStatus(OrderStatus.valueOf(rs.getString("order_status")))
+                .createTime(rs.getObject("create_time", LocalDateTime.class))
+                .detailId(rs.getObject("detail_id", Long.class))
+                .productId(rs.getObject("product_id", Long.class))
+                .productName(rs.getString("product_name"))
+                .price(rs.getObject("price", Integer.class))
+                .quantity(rs.getObject("quantity", Integer.class))
+                .build());
+    }
+
+    private Ordering toOrdering(ResultSet rs) throws SQLException {
+        return Ordering.builder()
+                .id(rs.getLong("id"))
+                .userId(rs.getObject("user_id", Long.class))
+                .userEmail(rs.getString("user_email"))
+                .orderStatus(OrderStatus.valueOf(rs.getString("order_status")))
+                .orderDetails(new ArrayList<>())
+                .build();
+    }
+
+    private OrderDetail toOrderDetail(ResultSet rs, Ordering ordering) throws SQLException {
+        String status = rs.getString("status");
+        return OrderDetail.builder()
+                .id(rs.getLong("id"))
+                .ordering(ordering)
+                .productId(rs.getObject("product_id", Long.class))
+                .productName(rs.getString("product_name"))
+                .price(rs.getObject("price", Integer.class))
+                .quantity(rs.getInt("quantity"))
+                .status(status != null ? OrderDetailStatus.valueOf(status) : null)
+                .build();
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.playdata.orderingservice.archive.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiveScheduler {
+
+    private final OrderArchiveService orderArchiveService;
+
+    // 보관 테이블로 옮기는 작업만 켜고 끈다. (조회는 order.archive.read-enabled)
+    @Value("${order.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.archive.read-enabled:true}")
+    private boolean readEnabled;
+
+    // 생성된 지 이 기간이 지난 확정/취소 주문을 보관 테이블로 옮긴다.
+    @Value("${order.archive.after-days:180}")
+    private long afterDays;
+
+    @Value("${order.archive.batch-size:500}")
+    private int batchSize;
+
+    // 한 번 실행할 때 최대 몇 묶음까지 옮길지 (운영 DB 부하 제한)
+    @Value("${order.archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    // 미리 만들어 둘 월 파티션 수 (이번 달 이후)
+    @Value("${order.archive.partitions-ahead:2}")
+    private int partitionsAhead;
+
+    // 조회 쪽이 보관 테이블을 함께 읽기 때문에, 이동 작업을 멈춰 둔 상태라도 조회가 켜져 있으면 테이블부터 만들어 둔다.
+    @PostConstruct
+    public void init() {
+        if (enabled || readEnabled) preparePartitions();
+    }
+
+    @Scheduled(fixedDelayString = "${order.archive.interval-ms:600000}")
+    public void archiveOldOrders() {
+        if (!enabled) return;
+
+        LocalDateTime before = LocalDateTime.now().minusDays(afterDays);
+        int archived = 0;
+        try {
+            preparePartitions();
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int moved = orderArchiveService.archiveBatch(before, batchSize);
+                archived += moved;
+                if (moved < batchSize) break;
+            }
+        } catch (Exception e) {
+            log.error("주문 보관 처리 실패: {}", e.getMessage());
+        }
+        if (archived > 0) {
+            log.info("보관 테이블로 옮긴 주문: {}건 ({} 이전 생성)", archived, before);
+        }
+    }
+
+    // 보관 대상이 될 가장 이른 달 ~ 몇 달 뒤까지의 파티션 준비
+    private void preparePartitions() {
+        YearMonth now = YearMonth.now();
+        orderArchiveService.prepare(
+                YearMonth.from(LocalDateTime.now().minusDays(afterDays)), now.plusMonths(partitionsAhead));
+    }
+
+}
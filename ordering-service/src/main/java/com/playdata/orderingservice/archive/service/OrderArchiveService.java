@@ -0,0 +1,76 @@
+package com.playdata.orderingservice.archive.service;
+
+import com.playdata.orderingservice.archive.repository.OrderArchiveRepository;
+import com.playdata.orderingservice.ordering.dto.OrderExportRowDto;
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/*
+ 오래된 주문 보관(archive).
+ 확정/취소된 지 오래된 주문을 월별 파티션 보관 테이블로 옮겨서 운영 테이블(ordering, order_detail)을 작게 유지한다.
+ 조회 쪽(내 주문 목록, 주문 상태)은 운영 테이블에 없으면 보관 테이블에서 찾는다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class OrderArchiveService {
+
+    private final OrderArchiveRepository orderArchiveRepository;
+
+    // false면 주문 조회 시 보관 테이블을 읽지 않는다. (MySQL 파티셔닝을 지원하지 않는 DB로 띄울 때 등)
+    // 이동 작업(order.archive.enabled)과 따로 둔다 -> 이동만 잠시 멈춰도 이미 옮겨진 주문은 계속 조회된다.
+    @Value("${order.archive.read-enabled:true}")
+    private boolean readEnabled;
+
+    // 보관 테이블과 앞으로 쓸 월 파티션 준비 (DDL은 MySQL에서 바로 커밋되므로 트랜잭션 밖에서 실행)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void prepare(YearMonth from, YearMonth to) {
+        orderArchiveRepository.createTablesIfAbsent();
+        orderArchiveRepository.ensureMonthlyPartitions(from, to);
+    }
+
+    // before 이전에 생성된 확정/취소 주문을 최대 batchSize건 옮기고, 옮긴 건수를 리턴.
+    // 복사와 삭제가 한 트랜잭션이라 중간에 실패해도 주문이 양쪽에 다 있거나 사라지는 일이 없다.
+    public int archiveBatch(LocalDateTime before, int batchSize) {
+        List<Long> ids = orderArchiveRepository.lockArchivableIds(before, batchSize);
+        if (ids.isEmpty()) return 0;
+
+        orderArchiveRepository.moveToArchive(ids);
+        return ids.size();
+    }
+
+    // 회원의 보관된 주문 (afterId < id < cursor, 최신순)
+    @Transactional(readOnly = true)
+    public List<Ordering> findUserOrders(Long userId, Long afterId, Long cursor, int limit) {
+        if (!readEnabled) return new ArrayList<>();
+        return orderArchiveRepository.findByUserIdBetween(userId, afterId, cursor, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Ordering> findOrder(Long id) {
+        if (!readEnabled) return Optional.empty();
+        return orderArchiveRepository.findById(id);
+    }
+
+    // 주문 내보내기의 보관 테이블 부분 (호출하는 쪽 트랜잭션에서 읽고, 다 쓴 뒤 Stream을 닫아야 함)
+    @Transactional(readOnly = true)
+    public Stream<OrderExportRowDto> streamForExport(OrderStatus status, LocalDateTime from, LocalDateTime to) {
+        if (!readEnabled) return Stream.empty();
+        return orderArchiveRepository.streamForExport(status, from, to);
+    }
+
+}
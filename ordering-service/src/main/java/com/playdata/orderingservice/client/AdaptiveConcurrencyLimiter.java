@@ -0,0 +1,152 @@
+package com.playdata.orderingservice.client;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/*
+ 하위 서비스 호출의 동시 실행 수를 응답 시간에 맞춰 조절하는 리미터 (TCP Vegas 방식).
+ - 가장 빠른 응답 시간(minRtt)을 '대기 없는 상태'로 보고, 현재 응답 시간과 비교해서 상대 서버에 쌓인 대기열 크기를 추정.
+   queue = limit * (1 - minRtt / rtt)
+ - 대기열이 alpha보다 작으면 limit 증가, beta보다 크면 감소. 호출이 실패하면 크게 줄인다.
+ - 한도를 넘는 호출은 기다리지 않고 바로 ConcurrencyLimitExceededException -> 호출한 쪽에서 주문 보류로 처리.
+ 상대 서버가 느려지면 한도가 줄어서, Tomcat 스레드가 전부 느린 호출에 묶이는 일을 막는다.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final int probeInterval; // 이 횟수만큼 측정할 때마다 minRtt를 다시 잰다. (상대 서버의 기본 응답 시간이 바뀐 경우 대비)
+    private final Predicate<Throwable> isDrop; // 한도를 줄일 실패인지 (과부하 신호: 타임아웃, IO 오류, 5xx 등)
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    // 아래 값들은 update()에서만 바꾼다. (synchronized)
+    private volatile double limit;
+    private volatile long minRttNanos = Long.MAX_VALUE;
+    private volatile long lastRttNanos;
+    private long samplesUntilProbe;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, int probeInterval, Predicate<Throwable> isDrop) {
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.probeInterval = probeInterval;
+        this.isDrop = isDrop;
+        this.samplesUntilProbe = nextProbe();
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        int current = inflight.incrementAndGet();
+        if (current > (int) limit) {
+            inflight.decrementAndGet();
+            rejected.increment();
+            throw new ConcurrencyLimitExceededException(name + " 동시 호출 한도 초과 (limit: " + (int) limit + ")");
+        }
+        accepted.increment();
+
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            onSuccess(System.nanoTime() - start, current);
+            return result;
+        } catch (RuntimeException e) {
+            // 그 외의 예외(4xx 응답, 서킷 브레이커가 막은 호출 등)는 한도 조절에 반영하지 않는다.
+            if (isDrop.test(e)) {
+                onDropped();
+            }
+            throw e;
+        } finally {
+            inflight.decrementAndGet();
+        }
+    }
+
+    private synchronized void onSuccess(long rttNanos, int inflightAtStart) {
+        lastRttNanos = rttNanos;
+        if (--samplesUntilProbe <= 0) {
+            // 기준값을 새로 측정 (다음 샘플이 새 minRtt가 됨)
+            samplesUntilProbe = nextProbe();
+            minRttNanos = rttNanos;
+            return;
+        }
+        if (rttNanos < minRttNanos) {
+            minRttNanos = rttNanos;
+        }
+
+        double currentLimit = limit;
+        double step = Math.max(1.0, Math.log10(currentLimit));
+        double alpha = 3 * step;
+        double beta = 6 * step;
+        double queue = Math.ceil(currentLimit * (1 - (double) minRttNanos / rttNanos));
+
+        double newLimit;
+        if (queue <= alpha) {
+            // 호출이 한도의 절반도 안 쓰는 상황에서는 늘리지 않는다. (한도만 끝없이 커지는 것 방지)
+            if (inflightAtStart * 2 < currentLimit) return;
+            newLimit = currentLimit + step;
+        } else if (queue >= beta) {
+            newLimit = currentLimit - step;
+        } else {
+            return;
+        }
+        limit = clamp(newLimit);
+    }
+
+    private synchronized void onDropped() {
+        dropped.increment();
+        limit = clamp(limit * backoffRatio);
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    private long nextProbe() {
+        // 여러 인스턴스가 동시에 측정하지 않도록 흔들어 준다.
+        return probeInterval + ThreadLocalRandom.current().nextInt(Math.max(1, probeInterval / 2));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public double getMinRttMillis() {
+        long min = minRttNanos;
+        return min == Long.MAX_VALUE ? 0 : min / 1_000_000.0;
+    }
+
+    public double getLastRttMillis() {
+        return lastRttNanos / 1_000_000.0;
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.playdata.orderingservice.client;
+
+// 하위 서비스 동시 호출 한도를 넘어서 호출하지 않고 바로 거절된 경우
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+
+}
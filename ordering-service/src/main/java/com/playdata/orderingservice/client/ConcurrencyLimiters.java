@@ -0,0 +1,89 @@
+package com.playdata.orderingservice.client;
+
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/*
+ 하위 서비스 호출별 동시 실행 한도 (AdaptiveConcurrencyLimiter) 모음.
+ 이름은 서킷 브레이커 인스턴스 이름과 같게 쓴다. (userService, productService, productServiceUpdate)
+ - 설정: order.concurrency-limit.* (기본값), order.concurrency-limit.instances.{이름}.* (덮어쓰기)
+ - 상태: /actuator/concurrencylimits, 메트릭 order.concurrency.*
+ */
+@Component
+@RequiredArgsConstructor
+public class ConcurrencyLimiters {
+
+    private static final String PREFIX = "order.concurrency-limit.";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public <T> T execute(String name, Supplier<T> call) {
+        if (!environment.getProperty(PREFIX + "enabled", Boolean.class, true)) {
+            return call.get();
+        }
+        return limiters.computeIfAbsent(name, this::create).execute(call);
+    }
+
+    public Collection<AdaptiveConcurrencyLimiter> getAll() {
+        return limiters.values();
+    }
+
+    private AdaptiveConcurrencyLimiter create(String name) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                name,
+                property(name, "initial-limit", Integer.class, 20),
+                property(name, "min-limit", Integer.class, 4),
+                property(name, "max-limit", Integer.class, 200),
+                property(name, "backoff-ratio", Double.class, 0.9),
+                property(name, "probe-interval", Integer.class, 1000),
+                ConcurrencyLimiters::isDrop
+        );
+
+        Gauge.builder("order.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("name", name).register(meterRegistry);
+        Gauge.builder("order.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                .tag("name", name).register(meterRegistry);
+        FunctionCounter.builder("order.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                .tag("name", name).register(meterRegistry);
+        return limiter;
+    }
+
+    // 상대 서버가 과부하일 때 나타나는 실패만 한도를 줄이는 신호로 본다: 타임아웃, 연결/IO 오류, 5xx 응답.
+    // 4xx(없는 상품 등)는 정상적으로 처리된 응답이고, 서킷 브레이커가 막은 호출은 아예 보내지 않은 것이라 제외.
+    // (서킷 브레이커/Feign이 원인 예외를 감싸서 던지므로 원인 체인을 따라가며 확인)
+    static boolean isDrop(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof CallNotPermittedException) return false;
+            if (t instanceof TimeoutException || t instanceof IOException || t instanceof RetryableException) {
+                return true;
+            }
+            if (t instanceof FeignException feignException && feignException.status() >= 500) return true;
+            if (t instanceof HttpServerErrorException) return true;
+        }
+        return false;
+    }
+
+    private <T> T property(String name, String key, Class<T> type, T defaultValue) {
+        T common = environment.getProperty(PREFIX + key, type, defaultValue);
+        return environment.getProperty(PREFIX + "instances." + name + "." + key, type, common);
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.playdata.orderingservice.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// GET /actuator/concurrencylimits : 하위 서비스 호출별 현재 동시 실행 한도와 상태
+@Component
+@Endpoint(id = "concurrencylimits")
+@RequiredArgsConstructor
+public class ConcurrencyLimitsEndpoint {
+
+    private final ConcurrencyLimiters concurrencyLimiters;
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> limits() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        for (AdaptiveConcurrencyLimiter limiter : concurrencyLimiters.getAll()) {
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("limit", limiter.getLimit());
+            state.put("inflight", limiter.getInflight());
+            state.put("minRttMs", limiter.getMinRttMillis());
+            state.put("lastRttMs", limiter.getLastRttMillis());
+            state.put("accepted", limiter.getAccepted());
+            state.put("rejected", limiter.getRejected());
+            state.put("dropped", limiter.getDropped());
+            result.put(limiter.getName(), state);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.playdata.orderingservice.client;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+// 일정 크기 이상의 요청 본문을 gzip으로 압축해서 보낸다. (Content-Encoding: gzip)
+// 스프링 클라우드의 compression.request 설정은 헤더만 붙이고 본문은 압축하지 않기 때문에 직접 처리.
+// 받는 쪽(product-service)에서 GzipRequestFilter로 압축을 풀어준다.
+class GzipRequestInterceptor implements RequestInterceptor {
+
+    private final int minRequestSize;
+
+    GzipRequestInterceptor(int minRequestSize) {
+        this.minRequestSize = minRequestSize;
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+        byte[] body = template.body();
+        if (body == null || body.length < minRequestSize) return;
+        if (template.headers().containsKey("Content-Encoding")) return;
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        template.body(compressed.toByteArray(), template.requestCharset());
+        template.header("Content-Encoding", "gzip");
+    }
+
+}
@@ -0,0 +1,356 @@
+package com.playdata.orderingservice.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.playdata.orderingservice.common.dto.CommonResDto;
+import com.playdata.orderingservice.ordering.dto.ProductResDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+ product-service 읽기 요청(상품 조회)의 헤징.
+ - 로드밸런서가 고른 인스턴스로 먼저 요청하고, delay 안에 응답이 없으면 다른 인스턴스로 같은 요청을 한 번 더 보낸다.
+ - 먼저 성공한 응답을 쓰고 나머지 요청은 연결을 끊어서 취소.
+ - delay는 고정값 또는 최근 응답 시간의 p95 (느린 5%만 헤지 대상)
+ - 헤지 요청은 전체 요청의 budget-percent 이하로만 보낸다. (장애 상황에서 부하를 두 배로 키우지 않도록)
+ 읽기 전용이라 두 번 실행돼도 안전한 요청에만 사용한다. (재고 차감 X)
+ 인스턴스가 하나뿐이거나 꺼져 있으면 기존 Feign 호출을 그대로 사용.
+ 헤지 경로는 Feign을 거치지 않으므로 본문 형식(order.product.transport)을 여기서 Feign 설정과 똑같이 맞춘다.
+ (smile이면 Smile로 보내고 Accept도 같게, 응답은 Content-Type을 보고 JSON/Smile 중 맞는 쪽으로 읽음)
+ 대신 요청마다 Feign과 같은 읽기 타임아웃을 걸어서, 응답 없는 인스턴스에 스레드가 묶이지 않게 한다.
+ */
+@Component
+@Slf4j
+public class HedgedProductReader {
+
+    private static final String SERVICE = "product-service";
+    private static final ContentType SMILE_TYPE = ContentType.create(ProductFeignConfiguration.SMILE);
+
+    private static final TypeReference<CommonResDto<ProductResDto>> PRODUCT_TYPE = new TypeReference<>() {};
+    private static final TypeReference<CommonResDto<List<ProductResDto>>> PRODUCTS_TYPE = new TypeReference<>() {};
+
+    private final ProductServiceClient productServiceClient;
+    private final LoadBalancerClient loadBalancerClient;
+    private final DiscoveryClient discoveryClient;
+    private final InterServiceHttpClients httpClients;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper smileMapper; // transport: smile일 때만 (아니면 null)
+    private final ExecutorService productHedgeExecutor;
+
+    private final boolean enabled;
+    private final long fixedDelayMs;
+    private final long minDelayMs;
+    private final LatencyTracker latencyTracker;
+    private final HedgeBudget budget;
+    private final RequestConfig requestConfig;
+
+    private final Counter requests;
+    private final Counter hedged;
+    private final Counter hedgeWins;
+    private final Counter budgetExhausted;
+
+    public HedgedProductReader(ProductServiceClient productServiceClient,
+                               LoadBalancerClient loadBalancerClient,
+                               DiscoveryClient discoveryClient,
+                               InterServiceHttpClients httpClients,
+                               ObjectMapper objectMapper,
+                               Jackson2ObjectMapperBuilder objectMapperBuilder,
+                               ExecutorService productHedgeExecutor,
+                               MeterRegistry meterRegistry,
+                               @Value("${order.product.hedge.enabled:false}") boolean enabled,
+                               @Value("${order.product.hedge.delay-ms:0}") long fixedDelayMs,
+                               @Value("${order.product.hedge.min-delay-ms:20}") long minDelayMs,
+                               @Value("${order.product.hedge.delay-percentile:0.95}") double delayPercentile,
+                               @Value("${order.product.hedge.budget-percent:10}") double budgetPercent,
+                               @Value("${order.product.hedge.max-burst:20}") int maxBurst,
+                               @Value("${order.product.transport:json}") String transport,
+                               @Value("${spring.cloud.openfeign.client.config.product-service.read-timeout:"
+                                       + "${spring.cloud.openfeign.client.config.default.read-timeout:3000}}")
+                               long readTimeoutMs) {
+        this.productServiceClient = productServiceClient;
+        this.loadBalancerClient = loadBalancerClient;
+        this.discoveryClient = discoveryClient;
+        this.httpClients = httpClients;
+        this.objectMapper = objectMapper;
+        // Feign의 Smile 컨버터(ProductFeignConfiguration)와 같은 방식으로 만든 매퍼
+        this.smileMapper = "smile".equals(transport)
+                ? objectMapperBuilder.factory(new SmileFactory()).build()
+                : null;
+        this.productHedgeExecutor = productHedgeExecutor;
+        this.enabled = enabled;
+        this.fixedDelayMs = fixedDelayMs;
+        this.minDelayMs = minDelayMs;
+        this.latencyTracker = new LatencyTracker(delayPercentile);
+        this.budget = new HedgeBudget(budgetPercent / 100.0, maxBurst);
+        // 연결 타임아웃은 클라이언트 풀 설정(InterServiceHttpClients)을 따르고, 응답 대기 시간만 요청마다 지정
+        this.requestConfig = RequestConfig.custom()
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build();
+
+        this.requests = meterRegistry.counter("order.product.hedge.requests");
+        this.hedged = meterRegistry.counter("order.product.hedge.sent");
+        this.hedgeWins = meterRegistry.counter("order.product.hedge.wins");
+        this.budgetExhausted = meterRegistry.counter("order.product.hedge.budget-exhausted");
+    }
+
+    public CommonResDto<ProductResDto> findById(Long productId) {
+        return hedge(
+                instance -> new HttpGet(instance.getUri().resolve("/product/" + productId)),
+                PRODUCT_TYPE,
+                () -> productServiceClient.findById(productId)
+        );
+    }
+
+    public CommonResDto<List<ProductResDto>> getProducts(List<Long> productIds) {
+        byte[] body = writeBody(productIds);
+        ContentType contentType = smileMapper != null ? SMILE_TYPE : ContentType.APPLICATION_JSON;
+        return hedge(
+                instance -> {
+                    HttpPost post = new HttpPost(instance.getUri().resolve("/product/products"));
+                    post.setEntity(new ByteArrayEntity(body, contentType));
+                    return post;
+                },
+                PRODUCTS_TYPE,
+                () -> productServiceClient.getProducts(productIds)
+        );
+    }
+
+    private <T> T hedge(Function<ServiceInstance, HttpUriRequestBase> requestFactory,
+                        TypeReference<T> type, Supplier<T> feignCall) {
+        if (!enabled) return feignCall.get();
+
+        ServiceInstance primary = loadBalancerClient.choose(SERVICE);
+        ServiceInstance secondary = primary == null ? null : pickOther(primary);
+        if (secondary == null) return feignCall.get();
+
+        requests.increment();
+        budget.deposit();
+
+        long start = System.nanoTime();
+        Attempt<T> first;
+        try {
+            first = send(primary, requestFactory, type);
+        } catch (RejectedExecutionException e) {
+            return feignCall.get();
+        }
+        Attempt<T> second = null;
+        try {
+            try {
+                T result = first.future.get(hedgeDelayMs(), TimeUnit.MILLISECONDS);
+                latencyTracker.record(System.nanoTime() - start);
+                return result;
+            } catch (TimeoutException e) {
+                // 아래에서 헤지 요청
+            }
+
+            if (!budget.tryWithdraw()) {
+                budgetExhausted.increment();
+                T result = first.future.get();
+                latencyTracker.record(System.nanoTime() - start);
+                return result;
+            }
+            try {
+                second = send(secondary, requestFactory, type);
+                hedged.increment();
+            } catch (RejectedExecutionException e) {
+                return first.future.get();
+            }
+
+            T result = firstSuccessful(first.future, second.future).get();
+            latencyTracker.record(System.nanoTime() - start);
+            return result;
+
+        } catch (InterruptedException e) {
+            // 서킷 브레이커 타임리미터가 취소한 경우
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("상품 조회가 취소되었습니다.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            // 진 쪽(또는 아직 진행 중인) 요청은 연결을 끊어서 정리
+            first.cancel();
+            if (second != null) second.cancel();
+        }
+    }
+
+    private <T> Attempt<T> send(ServiceInstance instance, Function<ServiceInstance, HttpUriRequestBase> requestFactory,
+                                TypeReference<T> type) {
+        HttpUriRequestBase request = requestFactory.apply(instance);
+        request.setHeader("Accept", smileMapper != null
+                ? ProductFeignConfiguration.SMILE + ", application/json;q=0.9"
+                : "application/json");
+        request.setConfig(requestConfig);
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> execute(request, type), productHedgeExecutor);
+        return new Attempt<>(request, future);
+    }
+
+    private <T> T execute(HttpUriRequestBase request, TypeReference<T> type) {
+        try {
+            return httpClients.get(SERVICE).execute(request, response -> {
+                byte[] body = response.getEntity() == null ? new byte[0] : EntityUtils.toByteArray(response.getEntity());
+                // 상태 코드별 예외로 구분 -> 동시 호출 한도(ConcurrencyLimiters)는 5xx만 과부하 신호로 본다.
+                String message = "product-service 응답 오류: " + response.getCode() + " " + request.getRequestUri();
+                if (response.getCode() >= 500) {
+                    throw new HttpServerErrorException(HttpStatusCode.valueOf(response.getCode()), message);
+                }
+                if (response.getCode() >= 400) {
+                    throw new HttpClientErrorException(HttpStatusCode.valueOf(response.getCode()), message);
+                }
+                return readerFor(response.getEntity() == null ? null : response.getEntity().getContentType())
+                        .readValue(body, type);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 둘 중 먼저 성공한 결과. 둘 다 실패하면 나중에 실패한 쪽의 예외.
+    private <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> primary, CompletableFuture<T> hedge) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(2);
+        for (CompletableFuture<T> future : List.of(primary, hedge)) {
+            future.whenComplete((result, e) -> {
+                if (e == null) {
+                    if (winner.complete(result) && future == hedge) {
+                        hedgeWins.increment();
+                    }
+                } else if (remaining.decrementAndGet() == 0) {
+                    winner.completeExceptionally(e instanceof CompletionException && e.getCause() != null
+                            ? e.getCause() : e);
+                }
+            });
+        }
+        return winner;
+    }
+
+    // 첫 요청과 다른 인스턴스 중 무작위 하나
+    private ServiceInstance pickOther(ServiceInstance primary) {
+        List<ServiceInstance> others = discoveryClient.getInstances(SERVICE).stream()
+                .filter(instance -> !(instance.getHost().equals(primary.getHost())
+                        && instance.getPort() == primary.getPort()))
+                .toList();
+        if (others.isEmpty()) return null;
+        return others.get(ThreadLocalRandom.current().nextInt(others.size()));
+    }
+
+    private long hedgeDelayMs() {
+        if (fixedDelayMs > 0) return fixedDelayMs;
+        return Math.max(minDelayMs, latencyTracker.percentileMillis());
+    }
+
+    // 응답 Content-Type이 Smile이면 Smile로, 아니면 JSON으로 읽는다. (Smile을 모르는 인스턴스는 JSON으로 응답)
+    private ObjectMapper readerFor(String contentType) {
+        if (smileMapper != null && contentType != null && contentType.startsWith(ProductFeignConfiguration.SMILE)) {
+            return smileMapper;
+        }
+        return objectMapper;
+    }
+
+    private byte[] writeBody(Object value) {
+        try {
+            return (smileMapper != null ? smileMapper : objectMapper).writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Attempt<T>(HttpUriRequestBase request, CompletableFuture<T> future) {
+        void cancel() {
+            if (!future.isDone()) {
+                request.cancel();
+                future.cancel(false);
+            }
+        }
+    }
+
+    // 최근 응답 시간 표본에서 지정한 백분위 값 (표본이 쌓일 때마다 주기적으로 다시 계산)
+    private static class LatencyTracker {
+        private static final int SIZE = 1000;
+        private static final int RECOMPUTE_EVERY = 100;
+
+        private final double percentile;
+        private final long[] samples = new long[SIZE];
+        private int count;
+        private int index;
+        private volatile long percentileMillis;
+
+        LatencyTracker(double percentile) {
+            this.percentile = percentile;
+        }
+
+        synchronized void record(long nanos) {
+            samples[index] = nanos;
+            index = (index + 1) % SIZE;
+            count = Math.min(count + 1, SIZE);
+            if (index % RECOMPUTE_EVERY == 0) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                percentileMillis = TimeUnit.NANOSECONDS.toMillis(
+                        sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)]);
+            }
+        }
+
+        long percentileMillis() {
+            return percentileMillis;
+        }
+    }
+
+    // 헤지 예산: 요청마다 ratio만큼 쌓이고, 헤지 요청 하나에 1을 쓴다. (최대 maxBurst까지 저축)
+    private static class HedgeBudget {
+        private final double ratio;
+        private final double maxTokens;
+        private double tokens;
+
+        HedgeBudget(double ratio, int maxBurst) {
+            this.ratio = ratio;
+            this.maxTokens = maxBurst;
+        }
+
+        synchronized void deposit() {
+            tokens = Math.min(maxTokens, tokens + ratio);
+        }
+
+        synchronized boolean tryWithdraw() {
+            if (tokens < 1) return false;
+            tokens -= 1;
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.playdata.orderingservice.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ 서비스 간 호출에 쓰는 HTTP 클라이언트 (Apache HttpClient 5, 커넥션 풀).
+ - 호출 대상(Feign 클라이언트 이름)마다 풀을 따로 둬서, 한 서비스가 느려져도 다른 서비스 호출용 커넥션을 뺏지 않는다.
+ - keep-alive로 커넥션을 재사용 (매 요청마다 TCP 연결 X)
+ - 응답 gzip 해제는 HttpClient가 자동 처리 (Accept-Encoding: gzip 전송)
+ - 설정: order.http-client.* (기본값), order.http-client.clients.{이름}.* (클라이언트별 덮어쓰기)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InterServiceHttpClients implements DisposableBean {
+
+    private static final String PREFIX = "order.http-client.";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, CloseableHttpClient> clients = new ConcurrentHashMap<>();
+
+    public CloseableHttpClient get(String clientName) {
+        return clients.computeIfAbsent(clientName, this::create);
+    }
+
+    private CloseableHttpClient create(String clientName) {
+        int maxTotal = property(clientName, "max-total", 200);
+        int maxPerRoute = property(clientName, "max-per-route", 50);
+        int connectTimeoutMs = property(clientName, "connect-timeout-ms", 1000);
+        // 상대 서버(Tomcat 기본 keep-alive 20초)보다 먼저 닫아야, 서버가 닫은 커넥션에 요청을 보내는 일이 없다.
+        int keepAliveSeconds = property(clientName, "keep-alive-seconds", 15);
+        int idleEvictSeconds = property(clientName, "idle-evict-seconds", 30);
+        int timeToLiveSeconds = property(clientName, "time-to-live-seconds", 300);
+
+        MeteredConnectionManager connectionManager = new MeteredConnectionManager(clientName, meterRegistry);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                // 인스턴스가 교체돼도 오래된 커넥션에 묶여 있지 않도록 수명 제한
+                .setTimeToLive(TimeValue.ofSeconds(timeToLiveSeconds))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, clientName)
+                .bindTo(meterRegistry);
+
+        TimeValue keepAlive = TimeValue.ofSeconds(keepAliveSeconds);
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                // 서버가 Keep-Alive 헤더로 더 짧은 시간을 알려주면 그걸 따른다.
+                .setKeepAliveStrategy((response, context) -> {
+                    TimeValue fromServer = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return TimeValue.isPositive(fromServer) && fromServer.compareTo(keepAlive) < 0
+                            ? fromServer : keepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+                .build();
+
+        log.info("서비스 간 HTTP 클라이언트 생성 - {}: maxTotal={}, maxPerRoute={}, keepAlive={}s",
+                clientName, maxTotal, maxPerRoute, keepAliveSeconds);
+        return httpClient;
+    }
+
+    private int property(String clientName, String key, int defaultValue) {
+        Integer common = environment.getProperty(PREFIX + key, Integer.class, defaultValue);
+        return environment.getProperty(PREFIX + "clients." + clientName + "." + key, Integer.class, common);
+    }
+
+    @Override
+    public void destroy() {
+        clients.values().forEach(client -> client.close(CloseMode.GRACEFUL));
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.playdata.orderingservice.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// 커넥션 풀에서 커넥션을 빌리기까지 기다린 시간(lease)과 새 커넥션 연결 시간(connect)을 기록하는 풀.
+// (풀 크기 · 사용 중 · 대기 수는 PoolingHttpClientConnectionManagerMetricsBinder가 따로 기록)
+class MeteredConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final Timer leaseTimer;
+    private final Timer connectTimer;
+
+    MeteredConnectionManager(String clientName, MeterRegistry meterRegistry) {
+        this.leaseTimer = Timer.builder("http.client.pool.lease")
+                .description("커넥션 풀에서 커넥션을 얻기까지 대기한 시간")
+                .tag("client", clientName)
+                .register(meterRegistry);
+        this.connectTimer = Timer.builder("http.client.connect")
+                .description("새 커넥션 연결(TCP, TLS)에 걸린 시간")
+                .tag("client", clientName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest delegate = super.lease(id, route, requestTimeout, state);
+        long start = System.nanoTime();
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                try {
+                    return delegate.get(timeout);
+                } finally {
+                    leaseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return delegate.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void connect(ConnectionEndpoint endpoint, TimeValue timeout, HttpContext context) throws IOException {
+        long start = System.nanoTime();
+        try {
+            super.connect(endpoint, timeout, context);
+        } finally {
+            connectTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.playdata.orderingservice.client;
+
+import feign.Client;
+import feign.RequestInterceptor;
+import feign.hc5.ApacheHttp5Client;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.LoadBalancerFeignRequestTransformer;
+import org.springframework.context.annotation.Bean;
+
+/*
+ 모든 Feign 클라이언트에 적용되는 설정 (@EnableFeignClients의 defaultConfiguration).
+ Feign 클라이언트마다 만들어지는 자식 컨텍스트에서 읽히므로 @Configuration을 붙이지 않는다.
+ (붙이면 컴포넌트 스캔으로 부모 컨텍스트에 등록돼서 모든 클라이언트가 같은 빈을 공유하게 됨)
+ */
+public class PooledFeignConfiguration {
+
+    // 클라이언트 이름(user-service, product-service)별 커넥션 풀을 쓰는 HTTP 클라이언트 + 로드밸런싱
+    @Bean
+    public Client feignClient(
+            @Value("${spring.cloud.openfeign.client.name}") String clientName,
+            InterServiceHttpClients httpClients,
+            LoadBalancerClient loadBalancerClient,
+            LoadBalancerClientFactory loadBalancerClientFactory,
+            ObjectProvider<LoadBalancerFeignRequestTransformer> transformers
+    ) {
+        return new FeignBlockingLoadBalancerClient(
+                new ApacheHttp5Client(httpClients.get(clientName)),
+                loadBalancerClient, loadBalancerClientFactory,
+                transformers.orderedStream().toList()
+        );
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "order.http-client.compression.request-enabled", havingValue = "true", matchIfMissing = true)
+    public RequestInterceptor gzipRequestInterceptor(
+            @Value("${order.http-client.compression.min-request-size:2048}") int minRequestSize
+    ) {
+        return new GzipRequestInterceptor(minRequestSize);
+    }
+
+}
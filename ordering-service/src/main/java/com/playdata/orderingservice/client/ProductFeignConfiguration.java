@@ -0,0 +1,70 @@
+package com.playdata.orderingservice.client;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import feign.RequestInterceptor;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import feign.optionals.OptionalDecoder;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ product-service 호출 전용 설정 (ProductServiceClient의 configuration).
+ order.product.transport: smile 이면 요청/응답 본문을 JSON 대신 바이너리 JSON(Smile)으로 주고받는다.
+ - DTO는 그대로 (Smile은 JSON과 같은 데이터 모델이라 별도 스키마 파일이 필요 없음)
+ - Accept에 JSON도 같이 보내므로, 아직 Smile을 모르는 product-service 인스턴스는 JSON으로 응답한다.
+   (요청 본문은 Smile로 보내기 때문에 product-service를 먼저 배포한 뒤에 켜야 함)
+ */
+public class ProductFeignConfiguration {
+
+    static final String SMILE = "application/x-jackson-smile";
+
+    @Bean
+    @ConditionalOnProperty(name = "order.product.transport", havingValue = "smile")
+    public Encoder feignEncoder(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new SpringEncoder(smileConverters(objectMapperBuilder));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "order.product.transport", havingValue = "smile")
+    public Decoder feignDecoder(Jackson2ObjectMapperBuilder objectMapperBuilder,
+                                ObjectProvider<HttpMessageConverterCustomizer> customizers) {
+        return new OptionalDecoder(new ResponseEntityDecoder(
+                new SpringDecoder(smileConverters(objectMapperBuilder), customizers)));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "order.product.transport", havingValue = "smile")
+    public RequestInterceptor smileAcceptInterceptor() {
+        return template -> template.header("Accept", SMILE + ", application/json;q=0.9");
+    }
+
+    // Smile을 맨 앞에 둬서 요청 본문은 Smile로 쓰고, 응답은 Content-Type에 맞는 컨버터로 읽는다. (기본 컨버터는 뒤에 그대로)
+    // new HttpMessageConverters(추가 컨버터)는 같은 종류의 기본 컨버터 자리(JSON 뒤)에 끼워 넣기 때문에
+    // 그대로 쓰면 본문이 JSON 컨버터로 써진다. -> 기본 Smile 컨버터를 빼고 직접 맨 앞에 둔다.
+    private static ObjectFactory<HttpMessageConverters> smileConverters(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        List<HttpMessageConverter<?>> ordered = new ArrayList<>();
+        ordered.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.factory(new SmileFactory()).build()));
+        new HttpMessageConverters().getConverters().stream()
+                .filter(converter -> !(converter instanceof MappingJackson2SmileHttpMessageConverter))
+                .forEach(ordered::add);
+
+        HttpMessageConverters converters = new HttpMessageConverters(false, ordered);
+        return () -> converters;
+    }
+
+}
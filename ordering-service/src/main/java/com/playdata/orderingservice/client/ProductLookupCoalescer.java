@@ -0,0 +1,83 @@
+package com.playdata.orderingservice.client;
+
+import com.playdata.orderingservice.ordering.dto.ProductResDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/*
+ 같은 상품을 동시에 조회하는 요청을 한 번의 원격 호출로 합친다. (single-flight)
+ - 먼저 온 요청이 product-service를 호출하고, 그동안 들어온 같은 상품 조회는 그 결과(또는 예외)를 함께 받는다.
+ - 호출이 끝나면 바로 비우기 때문에 캐시가 아님 -> 끝난 뒤에 온 요청은 새로 조회한다. (재고 값이 오래되지 않음)
+ - 결과 객체를 여러 주문이 같이 보므로 꺼내 쓰기만 해야 한다. (수정 X)
+ 인기 상품에 주문이 몰릴 때 product-service 조회 부하가 동시 요청 수만큼 줄어든다.
+ */
+@Component
+public class ProductLookupCoalescer {
+
+    private final Map<Long, CompletableFuture<ProductResDto>> inFlight = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final Counter remoteCalls;
+    private final Counter coalescedCalls;
+
+    public ProductLookupCoalescer(MeterRegistry meterRegistry,
+                                  @Value("${order.product.lookup.coalesce:true}") boolean enabled) {
+        this.enabled = enabled;
+        // 합친 비율 = coalesced / (remote + coalesced)
+        this.remoteCalls = Counter.builder("order.product.lookup.calls")
+                .description("상품 조회 요청 수 (remote: 직접 호출, coalesced: 진행 중인 호출 결과를 함께 받음)")
+                .tag("type", "remote")
+                .register(meterRegistry);
+        this.coalescedCalls = Counter.builder("order.product.lookup.calls")
+                .description("상품 조회 요청 수 (remote: 직접 호출, coalesced: 진행 중인 호출 결과를 함께 받음)")
+                .tag("type", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("order.product.lookup.in-flight", inFlight, Map::size)
+                .description("현재 조회 중인 상품 수")
+                .register(meterRegistry);
+    }
+
+    public ProductResDto lookup(Long productId, Supplier<ProductResDto> remoteCall) {
+        if (!enabled) return remoteCall.get();
+
+        CompletableFuture<ProductResDto> mine = new CompletableFuture<>();
+        CompletableFuture<ProductResDto> running = inFlight.putIfAbsent(productId, mine);
+        if (running != null) {
+            coalescedCalls.increment();
+            return await(running);
+        }
+
+        remoteCalls.increment();
+        try {
+            ProductResDto result = remoteCall.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(productId, mine);
+        }
+    }
+
+    // 먼저 시작된 호출의 결과를 기다린다. 실패했다면 같은 예외를 그대로 던짐.
+    private ProductResDto await(CompletableFuture<ProductResDto> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+}
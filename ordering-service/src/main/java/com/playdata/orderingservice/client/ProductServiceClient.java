@@ -2,6 +2,9 @@ package com.playdata.orderingservice.client;
 
 import com.playdata.orderingservice.common.dto.CommonResDto;
 import com.playdata.orderingservice.ordering.dto.ProductResDto;
+import com.playdata.orderingservice.ordering.dto.StockChangeReqDto;
+import com.playdata.orderingservice.ordering.dto.StockReserveReqDto;
+import com.playdata.orderingservice.ordering.dto.StockResultDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -9,7 +12,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.Map;
 
-@FeignClient(name = "product-service")
+@FeignClient(name = "product-service", configuration = ProductFeignConfiguration.class)
 public interface ProductServiceClient {
 
     @GetMapping("/product/{prodId}")
@@ -18,6 +21,15 @@ public interface ProductServiceClient {
     @PutMapping("/product/updateQuantity")
     ResponseEntity<?> updateQuantity(@RequestBody ProductResDto productResDto);
 
+    // 재고를 변화량만큼 조건부로 변경 (재고가 부족하면 success: false)
+    @PutMapping("/product/stock")
+    CommonResDto<StockResultDto> changeStock(@RequestBody StockChangeReqDto dto);
+
+    // 주문 한 건의 재고를 한 번에 확인 및 차감 (라인별 결과 리턴)
+    // 라인 id(requestId)로 이미 차감된 라인은 다시 차감하지 않고 성공으로 돌려준다.
+    @PostMapping("/product/reserve")
+    CommonResDto<List<StockResultDto>> reserveStock(@RequestBody List<StockReserveReqDto> dtoList);
+
     @PostMapping("/product/products")
     CommonResDto<List<ProductResDto>> getProducts(@RequestBody List<Long> productIds);
 
@@ -0,0 +1,128 @@
+package com.playdata.orderingservice.common.configs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@Slf4j
+public class AsyncConfig {
+
+    @Value("${order.intake.core-pool-size:8}")
+    private int corePoolSize;
+
+    @Value("${order.intake.max-pool-size:16}")
+    private int maxPoolSize;
+
+    @Value("${order.intake.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${order.retry.parallelism:4}")
+    private int retryParallelism;
+
+    @Value("${order.product.lookup.pool-size:32}")
+    private int lookupPoolSize;
+
+    @Value("${order.product.lookup.queue-capacity:200}")
+    private int lookupQueueCapacity;
+
+    @Value("${order.product.lookup.virtual-threads:false}")
+    private boolean lookupVirtualThreads;
+
+    @Value("${order.product.hedge.pool-size:64}")
+    private int hedgePoolSize;
+
+    // 비동기로 접수된 주문을 처리하는 워커 스레드 풀.
+    // 대기열 크기를 제한해서, 하위 서비스가 느려져도 처리 대기 작업이 메모리에 끝없이 쌓이지 않게 한다.
+    // 대기열이 꽉 차면 TaskRejectedException -> 주문은 ACCEPTED로 남아 있다가 복구 스케줄러가 다시 넣어준다.
+    @Bean
+    public ThreadPoolTaskExecutor orderIntakeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-intake-");
+        // 서버 종료 시 진행 중인 주문은 마무리하고 내려가도록
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // 보류 주문 재처리용 스레드 풀. 동시에 재처리하는 주문 수 = parallelism
+    // (스케줄러가 한 페이지씩 넣고 다 끝날 때까지 기다리므로 대기열이 페이지 크기 이상 쌓이지 않는다.)
+    @Bean
+    public ThreadPoolTaskExecutor orderRetryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(retryParallelism);
+        executor.setMaxPoolSize(retryParallelism);
+        executor.setThreadNamePrefix("order-retry-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // 주문 라인별 상품 조회를 동시에 보내기 위한 스레드 풀.
+    // pool-size가 서버 전체에서 동시에 나갈 수 있는 상품 조회 수의 상한. (주문 한 건당 상한은 OrderingService에서)
+    // 대기열까지 꽉 차면 요청 스레드가 직접 실행 -> 느려질 뿐 주문이 실패하지는 않는다.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService productLookupExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                lookupPoolSize, lookupPoolSize,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(lookupQueueCapacity),
+                lookupThreadFactory(),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // 상품 조회 헤징(HedgedProductReader)용 스레드 풀. 첫 요청과 헤지 요청이 여기서 실행된다.
+    // 대기열을 두지 않고, 꽉 차면 거절 -> 첫 요청은 기존 Feign 호출로, 헤지 요청은 보내지 않는 것으로 처리.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService productHedgeExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                hedgePoolSize, hedgePoolSize,
+                60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                new CustomizableThreadFactory("product-hedge-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // 처리 중인 Idempotency-Key 표시의 TTL 연장용. (연장 작업은 Redis 명령 하나라 스레드 하나로 충분)
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService idempotencyRenewalScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("idempotency-renew-"));
+    }
+
+    // virtual-threads: true이고 JDK 21 이상에서 실행 중이면 가상 스레드로 실행.
+    // (툴체인은 17이라 컴파일 시점에는 API가 없으므로 리플렉션으로 꺼내 쓴다.)
+    private ThreadFactory lookupThreadFactory() {
+        if (lookupVirtualThreads) {
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                return (ThreadFactory) Class.forName("java.lang.Thread$Builder")
+                        .getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                log.warn("가상 스레드를 지원하지 않는 JDK입니다. 플랫폼 스레드로 상품 조회를 실행합니다.");
+            }
+        }
+        return new CustomizableThreadFactory("product-lookup-");
+    }
+
+}
\ No newline at end of file
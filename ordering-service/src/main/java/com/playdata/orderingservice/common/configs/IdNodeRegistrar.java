@@ -0,0 +1,140 @@
+package com.playdata.orderingservice.common.configs;
+
+import com.playdata.orderingservice.common.entity.TimeSortedIdGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/*
+ TimeSortedIdGenerator가 사용할 노드 번호를 인스턴스마다 겹치지 않게 할당한다.
+ - order.id.node-id를 지정하면 그 값을 그대로 사용
+ - 지정하지 않으면 Redis에서 비어 있는 번호를 선점(SETNX + TTL)하고, 주기적으로 TTL을 연장한다.
+   인스턴스가 죽으면 TTL이 지나 번호가 풀리고 다른 인스턴스가 가져갈 수 있다.
+ - 마지막으로 선점/연장에 성공한 시각 + TTL이 지나면 생성기가 id 발급을 멈춘다. (Redis 장애로 연장을 못 한 경우)
+   다른 인스턴스가 같은 번호를 가져가 중복 id가 생기는 것보다 주문 저장 실패가 낫다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdNodeRegistrar {
+
+    private static final String NODE_KEY_PREFIX = "order:id:node:";
+
+    // 내가 선점한 번호일 때만 TTL 연장 / 삭제
+    private static final RedisScript<Long> RENEW_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final String owner = System.getenv().getOrDefault("HOSTNAME", "ordering")
+            + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    @Value("${order.id.node-id:-1}")
+    private int configuredNodeId;
+
+    @Value("${order.id.node-lease-seconds:60}")
+    private long nodeLeaseSeconds;
+
+    private int nodeId = -1;
+    private long leaseExpiresAt;
+
+    @PostConstruct
+    public void init() {
+        if (configuredNodeId >= 0) {
+            TimeSortedIdGenerator.assignNode(configuredNodeId);
+            log.info("id 노드 번호 (설정값): {}", configuredNodeId);
+            return;
+        }
+        claim();
+    }
+
+    // TTL의 1/3마다 연장. 연장에 실패했다면(Redis 장애 후 키 유실 등) 새 번호를 다시 선점한다.
+    @Scheduled(fixedDelayString = "#{${order.id.node-lease-seconds:60} * 1000 / 3}")
+    public void renew() {
+        if (configuredNodeId >= 0) return;
+        try {
+            if (nodeId < 0) {
+                claim();
+                return;
+            }
+            // 요청을 보내기 전 시각 기준으로 만료를 잡는다. (Redis가 실제로 TTL을 거는 시각보다 항상 이르다)
+            long requestedAt = System.currentTimeMillis();
+            Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT, List.of(NODE_KEY_PREFIX + nodeId),
+                    owner, String.valueOf(leaseMillis()));
+            if (renewed == null || renewed == 0) {
+                // 다른 인스턴스가 이미 가져갔을 수 있으니 새 번호를 선점할 때까지 id 발급을 멈춘다.
+                log.warn("id 노드 번호 {}의 선점이 풀림 -> 다시 선점", nodeId);
+                unassign();
+                claim();
+                return;
+            }
+            leaseExpiresAt = requestedAt + leaseMillis();
+            TimeSortedIdGenerator.extendLease(leaseExpiresAt);
+        } catch (Exception e) {
+            // 연장 실패 시 마지막으로 연장한 TTL이 남아 있는 동안만 같은 번호 사용 (만료 후에는 생성기가 발급 거절)
+            log.warn("id 노드 번호 연장 실패: {}", e.getMessage());
+            if (nodeId >= 0 && System.currentTimeMillis() >= leaseExpiresAt) {
+                log.error("id 노드 번호 {}의 선점 기간 만료 -> 다시 선점할 때까지 id 발급 중단", nodeId);
+                unassign();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        if (configuredNodeId >= 0 || nodeId < 0) return;
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(NODE_KEY_PREFIX + nodeId), owner);
+        } catch (Exception e) {
+            log.warn("id 노드 번호 반납 실패 (TTL 후 자동 해제): {}", e.getMessage());
+        }
+    }
+
+    private void claim() {
+        for (int candidate = 0; candidate <= TimeSortedIdGenerator.MAX_NODE_ID; candidate++) {
+            long requestedAt = System.currentTimeMillis();
+            Boolean claimed = stringRedisTemplate.opsForValue().setIfAbsent(
+                    NODE_KEY_PREFIX + candidate, owner, Duration.ofMillis(leaseMillis()));
+            if (Boolean.TRUE.equals(claimed)) {
+                nodeId = candidate;
+                leaseExpiresAt = requestedAt + leaseMillis();
+                TimeSortedIdGenerator.assignNode(candidate, leaseExpiresAt);
+                log.info("id 노드 번호 선점: {} ({})", candidate, owner);
+                return;
+            }
+        }
+        throw new IllegalStateException("사용 가능한 id 노드 번호가 없습니다. (최대 "
+                + (TimeSortedIdGenerator.MAX_NODE_ID + 1) + "개 인스턴스)");
+    }
+
+    private void unassign() {
+        nodeId = -1;
+        TimeSortedIdGenerator.unassignNode();
+    }
+
+    private long leaseMillis() {
+        return Duration.ofSeconds(nodeLeaseSeconds).toMillis();
+    }
+
+}
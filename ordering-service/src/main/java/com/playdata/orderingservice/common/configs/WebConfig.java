@@ -1,18 +1,21 @@
 package com.playdata.orderingservice.common.configs;
 
+import com.playdata.orderingservice.client.InterServiceHttpClients;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class WebConfig {
 
     // 타 서버로 요청 보낼 수 있게 도와주는 도구.
+    // Feign 클라이언트와 같은 방식의 커넥션 풀(keep-alive, 메트릭)을 사용한다.
     @Bean
     @LoadBalanced // 유레카에 등록된 서비스명으로 요청할 수 있게 해 주는 아노테이션.
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(InterServiceHttpClients httpClients) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClients.get("rest-template")));
     }
 
 }
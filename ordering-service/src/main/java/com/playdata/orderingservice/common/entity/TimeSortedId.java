@@ -0,0 +1,16 @@
+package com.playdata.orderingservice.common.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// @Id 필드에 붙이면 TimeSortedIdGenerator가 시간순으로 정렬되는 id를 애플리케이션에서 직접 만들어 넣는다.
+// IDENTITY와 달리 INSERT 전에 id를 알 수 있어서 Hibernate가 INSERT를 배치로 묶어 보낼 수 있다.
+@IdGeneratorType(TimeSortedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeSortedId {
+}
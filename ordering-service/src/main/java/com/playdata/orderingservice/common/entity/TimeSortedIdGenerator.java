@@ -0,0 +1,92 @@
+package com.playdata.orderingservice.common.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+/*
+ 시간순 64비트 id 생성기 (Snowflake/TSID 방식)
+ | 41비트: 2024-01-01 이후 경과 ms | 5비트: 노드 번호 | 7비트: 같은 ms 안의 순번 |
+ - 전체 53비트라 프론트(JavaScript Number)에서도 정밀도 손실 없이 다룰 수 있다.
+ - 노드당 ms마다 128개, 최대 32개 인스턴스까지 겹치지 않음. (노드 번호는 IdNodeRegistrar가 할당)
+ - 기존 AUTO_INCREMENT 값보다 항상 크고 시간순으로 증가하므로 id 기준 keyset 페이징이 그대로 동작한다.
+ */
+public class TimeSortedIdGenerator implements IdentifierGenerator {
+
+    static final int NODE_BITS = 5;
+    static final int SEQUENCE_BITS = 7;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    // Ordering, OrderDetail이 생성기 인스턴스를 따로 가져도 같은 시계/순번을 공유하도록 static으로 관리
+    private static volatile int nodeId = -1;
+    // 노드 번호 선점이 끝나는 시각 (epoch ms). 이 시각이 지나면 다른 인스턴스가 같은 번호를 가져갈 수 있으므로 id를 만들지 않는다.
+    private static volatile long leaseExpiresAt = Long.MAX_VALUE;
+    private static long lastTimestamp = -1;
+    private static int sequence = 0;
+
+    // 현재 시각 (테스트에서 시계가 뒤로 가는 상황을 만들 때만 바꾼다)
+    static volatile LongSupplier clock = System::currentTimeMillis;
+
+    public TimeSortedIdGenerator(TimeSortedId config) {
+    }
+
+    // 설정으로 고정한 노드 번호 (만료 없음)
+    public static void assignNode(int nodeId) {
+        assignNode(nodeId, Long.MAX_VALUE);
+    }
+
+    // Redis에서 선점한 노드 번호. leaseExpiresAt까지만 사용할 수 있다.
+    public static synchronized void assignNode(int nodeId, long leaseExpiresAt) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("노드 번호는 0 ~ " + MAX_NODE_ID + " 사이여야 합니다: " + nodeId);
+        }
+        TimeSortedIdGenerator.nodeId = nodeId;
+        TimeSortedIdGenerator.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    // 선점 연장에 성공했을 때 만료 시각을 늦춘다.
+    public static void extendLease(long leaseExpiresAt) {
+        TimeSortedIdGenerator.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    // 선점이 풀린 노드 번호 -> 다시 선점할 때까지 id 발급 중단
+    public static synchronized void unassignNode() {
+        nodeId = -1;
+        leaseExpiresAt = Long.MAX_VALUE;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return nextId();
+    }
+
+    public static synchronized long nextId() {
+        if (nodeId < 0) {
+            throw new IllegalStateException("id 노드 번호가 아직 할당되지 않았습니다.");
+        }
+        long currentMillis = clock.getAsLong();
+        if (currentMillis >= leaseExpiresAt) {
+            // 연장하지 못한 채 TTL이 지났다 -> 다른 인스턴스가 같은 번호로 id를 만들고 있을 수 있다.
+            throw new IllegalStateException("id 노드 번호 " + nodeId + "의 선점 기간이 끝났습니다. (다시 선점 전까지 id 발급 불가)");
+        }
+
+        // 시계가 뒤로 가더라도 마지막 시각을 그대로 써서 id가 줄어들지 않게 한다.
+        long now = Math.max(currentMillis - EPOCH, lastTimestamp);
+        if (now == lastTimestamp) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                now++; // 이번 ms의 순번을 다 썼으면 다음 ms 값을 미리 당겨 쓴다.
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = now;
+
+        return (now << (NODE_BITS + SEQUENCE_BITS)) | ((long) nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+}
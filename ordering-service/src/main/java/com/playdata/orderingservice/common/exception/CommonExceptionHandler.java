@@ -1,6 +1,8 @@
 package com.playdata.orderingservice.common.exception;
 
 import com.playdata.orderingservice.common.dto.CommonErrorDto;
+import com.playdata.orderingservice.ordering.service.DuplicateRequestInProgressException;
+import com.playdata.orderingservice.ordering.service.IdempotencyKeyReusedException;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -33,6 +35,24 @@ public class CommonExceptionHandler {
         return new ResponseEntity<>(errorDto, HttpStatus.NOT_FOUND);
     }
 
+    // 같은 Idempotency-Key의 주문 요청이 아직 처리 중일 때
+    @ExceptionHandler(DuplicateRequestInProgressException.class)
+    public ResponseEntity<?> duplicateRequestHandler(DuplicateRequestInProgressException e) {
+        e.printStackTrace();
+        CommonErrorDto errorDto
+                = new CommonErrorDto(HttpStatus.CONFLICT, e.getMessage());
+        return new ResponseEntity<>(errorDto, HttpStatus.CONFLICT);
+    }
+
+    // 이미 사용한 Idempotency-Key로 다른 주문 내용을 보냈을 때
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<?> idempotencyKeyReusedHandler(IdempotencyKeyReusedException e) {
+        e.printStackTrace();
+        CommonErrorDto errorDto
+                = new CommonErrorDto(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        return new ResponseEntity<>(errorDto, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
     // 특정 권한을 가지지 못한 사용자가 요청을 보냈을 때 내쫓는 메서드
     @ExceptionHandler(AuthorizationDeniedException.class)
     public ResponseEntity<?> authDeniedHandler(AuthorizationDeniedException e) {
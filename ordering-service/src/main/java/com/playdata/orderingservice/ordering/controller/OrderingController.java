@@ -2,17 +2,29 @@ package com.playdata.orderingservice.ordering.controller;
 
 import com.playdata.orderingservice.common.auth.TokenUserInfo;
 import com.playdata.orderingservice.common.dto.CommonResDto;
+import com.playdata.orderingservice.ordering.dto.OrderIdempotencyRecord;
+import com.playdata.orderingservice.ordering.dto.OrderStatusResDto;
 import com.playdata.orderingservice.ordering.dto.OrderingListResDto;
 import com.playdata.orderingservice.ordering.dto.OrderingSaveReqDto;
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
 import com.playdata.orderingservice.ordering.entity.Ordering;
+import com.playdata.orderingservice.ordering.service.OrderExportService;
+import com.playdata.orderingservice.ordering.service.OrderIdempotencyService;
+import com.playdata.orderingservice.ordering.service.OrderIntakeService;
 import com.playdata.orderingservice.ordering.service.OrderingService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -22,17 +34,30 @@ import java.util.List;
 public class OrderingController {
 
     private final OrderingService orderingService;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final OrderExportService orderExportService;
 
     @PostMapping("/create")
     public ResponseEntity<?>  createOrder(
             // 전역 인증 정보를 담아놓는 ContextHolder에서 메서드 호출시에
             // 사용자 인증 정보를 전달해 주는 아노테이션
             @AuthenticationPrincipal TokenUserInfo userInfo,
+            // 클라이언트가 재시도해도 같은 주문으로 처리되도록 요청마다 고유한 키를 보낼 수 있다. (선택)
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody List<OrderingSaveReqDto> dtoList
     ) {
         log.info("/order/create: POST, userInfo: {}", userInfo);
         log.info("dtoList: {}", dtoList);
 
+        if (idempotencyKey != null) {
+            OrderIdempotencyRecord record = orderIdempotencyService.execute(
+                    userInfo.getEmail(), idempotencyKey, dtoList, HttpStatus.CREATED,
+                    () -> orderingService.createOrder(dtoList, userInfo)
+            );
+            return idempotentResponse(record, "정상 주문 완료");
+        }
+
         Ordering ordering = orderingService.createOrder(dtoList, userInfo);
 
         CommonResDto resDto
@@ -41,11 +66,50 @@ public class OrderingController {
         return new ResponseEntity<>(resDto, HttpStatus.CREATED);
     }
 
+    // 비동기 주문 접수: 주문을 저장만 하고 바로 202 응답.
+    // 처리 결과는 /order/{id}/status 로 조회. (ORDERED, PENDING_*, REJECTED)
+    @PostMapping("/create-async")
+    public ResponseEntity<?> createOrderAsync(
+            @AuthenticationPrincipal TokenUserInfo userInfo,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody List<OrderingSaveReqDto> dtoList
+    ) {
+        log.info("/order/create-async: POST, userInfo: {}", userInfo);
+
+        if (idempotencyKey != null) {
+            OrderIdempotencyRecord record = orderIdempotencyService.execute(
+                    userInfo.getEmail(), idempotencyKey, dtoList, HttpStatus.ACCEPTED,
+                    () -> orderIntakeService.submit(dtoList, userInfo)
+            );
+            return idempotentResponse(record, "주문 접수 완료");
+        }
+
+        Ordering ordering = orderIntakeService.submit(dtoList, userInfo);
+
+        CommonResDto resDto
+                = new CommonResDto(HttpStatus.ACCEPTED, "주문 접수 완료", ordering.getId());
+        return new ResponseEntity<>(resDto, HttpStatus.ACCEPTED);
+    }
+
+    // 주문 처리 상태 조회
+    @GetMapping("/{id}/status")
+    public ResponseEntity<?> orderStatus(
+            @AuthenticationPrincipal TokenUserInfo userInfo,
+            @PathVariable long id) {
+        OrderStatusResDto dto = orderingService.getOrderStatus(id, userInfo);
+        CommonResDto<OrderStatusResDto> resDto
+                = new CommonResDto<>(HttpStatus.OK, "정상 조회 완료", dto);
+        return ResponseEntity.ok().body(resDto);
+    }
+
     // 내 주문만 볼 수 있는 MyOrders
+    // 최신순 keyset 페이징: /order/my-order?cursor=마지막으로 받은 주문 id&size=20 (첫 페이지는 cursor 생략)
     @GetMapping("/my-order")
     public ResponseEntity<?> myOrder(
-            @AuthenticationPrincipal TokenUserInfo userInfo) {
-        List<OrderingListResDto> dtos = orderingService.myOrder(userInfo);
+            @AuthenticationPrincipal TokenUserInfo userInfo,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        List<OrderingListResDto> dtos = orderingService.myOrder(userInfo, cursor, size);
         CommonResDto<List<OrderingListResDto>> resDto
                 = new CommonResDto<>(HttpStatus.OK, "정상 조회 완료", dtos);
         return ResponseEntity.ok().body(resDto);
@@ -60,6 +124,42 @@ public class OrderingController {
         return ResponseEntity.ok().body(resDto);
     }
 
+    // Idempotency-Key로 처리된 주문의 응답. 중복 요청이면 Idempotent-Replayed: true
+    private ResponseEntity<?> idempotentResponse(OrderIdempotencyRecord record, String message) {
+        HttpStatus status = HttpStatus.valueOf(record.getHttpStatus());
+        CommonResDto resDto
+                = new CommonResDto(status, message, record.getOrderId());
+        return ResponseEntity.status(status)
+                .header("Idempotent-Replayed", String.valueOf(record.isReplayed()))
+                .body(resDto);
+    }
+
     // 전체 회원의 주문 조회 (ADMIN 전용)
+    // 전체 주문을 메모리에 올리지 않고 DB에서 읽는 대로 응답에 바로 써서 내려준다.
+    // /order/admin/export?format=csv|ndjson&status=ORDERED&from=2024-01-01&to=2024-01-31
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/admin/export")
+    public void exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        log.info("/order/admin/export: GET, format: {}, status: {}, from: {}, to: {}", format, status, from, to);
+        if (!format.equals("csv") && !format.equals("ndjson")) {
+            throw new IllegalArgumentException("지원하지 않는 형식입니다: " + format);
+        }
+
+        response.setCharacterEncoding("UTF-8");
+        response.setContentType(format.equals("csv") ? "text/csv" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + format + "\"");
+
+        orderExportService.export(
+                format, status,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null, // to 날짜 당일까지 포함
+                response.getOutputStream()
+        );
+    }
 
 }
\ No newline at end of file
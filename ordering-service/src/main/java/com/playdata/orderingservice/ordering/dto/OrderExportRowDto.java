@@ -0,0 +1,27 @@
+package com.playdata.orderingservice.ordering.dto;
+
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// 주문 내보내기용 한 줄 (주문 + 주문 상세 하나). 엔터티가 아니라서 영속성 컨텍스트에 쌓이지 않는다.
+@Getter @Setter @ToString
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OrderExportRowDto {
+
+    private Long orderId;
+    private Long userId;
+    private String userEmail;
+    private OrderStatus orderStatus;
+    private LocalDateTime createTime;
+
+    // 상세 내역이 없는 주문이면 아래는 전부 null
+    private Long detailId;
+    private Long productId;
+    private String productName;
+    private Integer price;
+    private Integer quantity;
+
+}
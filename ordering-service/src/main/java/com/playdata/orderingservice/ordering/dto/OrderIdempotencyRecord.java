@@ -0,0 +1,19 @@
+package com.playdata.orderingservice.ordering.dto;
+
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import lombok.*;
+
+// Idempotency-Key 별로 Redis에 저장하는 주문 요청 처리 결과
+@Getter @Setter @ToString
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OrderIdempotencyRecord {
+
+    private boolean done; // false: 처리 중, true: 처리 완료
+    private Long orderId;
+    private OrderStatus orderStatus;
+    private int httpStatus;
+    private boolean replayed; // 저장된 결과를 그대로 돌려준 경우 true
+    private String requestHash; // 요청 본문의 해시 (같은 키로 다른 주문을 보냈는지 확인)
+
+}
@@ -0,0 +1,15 @@
+package com.playdata.orderingservice.ordering.dto;
+
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import lombok.*;
+
+@Getter @Setter @ToString
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OrderStatusResDto {
+
+    // 비동기 접수 주문의 처리 결과 조회용
+    private Long id;
+    private OrderStatus orderStatus;
+
+}
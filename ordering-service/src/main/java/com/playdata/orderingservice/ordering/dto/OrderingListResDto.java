@@ -14,6 +14,7 @@ public class OrderingListResDto {
     private Long id;
     private String userEmail;
     private OrderStatus orderStatus;
+    private Integer totalPrice; // 주문 총액 (단가가 저장되지 않은 예전 주문은 null)
     private List<OrderDetailDto> orderDetails;
 
     // 주문 상세 내용
@@ -23,6 +24,7 @@ public class OrderingListResDto {
     public static class OrderDetailDto {
         private Long id;
         private String productName;
+        private Integer price; // 주문 당시 단가
         private int count;
     }
 
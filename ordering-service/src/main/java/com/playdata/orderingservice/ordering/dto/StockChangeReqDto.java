@@ -0,0 +1,15 @@
+package com.playdata.orderingservice.ordering.dto;
+
+import lombok.*;
+
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockChangeReqDto {
+
+    private Long productId;
+    private int delta; // 음수: 차감, 양수: 증가
+    private Long requestId; // 주문 라인(OrderDetail) id -> 재시도해도 한 번만 반영
+
+}
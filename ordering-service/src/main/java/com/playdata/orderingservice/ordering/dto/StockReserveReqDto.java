@@ -0,0 +1,16 @@
+package com.playdata.orderingservice.ordering.dto;
+
+import lombok.*;
+
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReserveReqDto {
+
+    private Long productId;
+    private int productQuantity;
+    // 주문 라인(OrderDetail) id. 응답을 못 받아 다시 보내도 product-service가 한 번만 차감한다.
+    private Long requestId;
+
+}
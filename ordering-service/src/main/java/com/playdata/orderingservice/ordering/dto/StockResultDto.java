@@ -0,0 +1,26 @@
+package com.playdata.orderingservice.ordering.dto;
+
+import lombok.*;
+
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockResultDto {
+
+    // product-service의 재고 처리 결과 (주문 라인 하나당 하나씩 전달됨)
+    private Long productId;
+    private String productName;
+    private int price;
+    private int quantity;
+    private int stockQuantity;
+    private boolean success;
+    private FailReason failReason;
+
+    public enum FailReason {
+        NOT_FOUND, // 존재하지 않는 상품
+        INSUFFICIENT_STOCK, // 재고 부족
+        NOT_ATTEMPTED // 이 라인은 문제가 없지만 다른 라인이 실패해서 처리하지 않음 (all or nothing)
+    }
+
+}
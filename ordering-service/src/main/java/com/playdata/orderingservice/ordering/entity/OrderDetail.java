@@ -1,6 +1,9 @@
 package com.playdata.orderingservice.ordering.entity;
 
+import com.playdata.orderingservice.common.entity.TimeSortedId;
 import com.playdata.orderingservice.ordering.dto.OrderingListResDto;
+import com.playdata.orderingservice.ordering.dto.OrderingSaveReqDto;
+import com.playdata.orderingservice.ordering.dto.StockReserveReqDto;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,7 +20,7 @@ import java.util.Map;
 public class OrderDetail {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeSortedId // 시간순 id를 미리 만들어 넣음 -> 주문/상세 INSERT를 배치로 묶을 수 있다. (IDENTITY는 불가)
     private Long id;
 
     private int quantity;
@@ -29,13 +32,52 @@ public class OrderDetail {
     @JoinColumn(name = "ordering_id")
     private Ordering ordering;
 
+    // 주문 당시의 상품명과 단가 (주문 내역 조회 시 product-service를 거치지 않기 위해 저장)
+    // 이 컬럼이 생기기 전에 저장된 주문은 null
+    private String productName;
+
+    private Integer price;
+
+    // 라인별 처리 상태 (이 컬럼이 생기기 전에 저장된 주문은 null)
+    @Enumerated(EnumType.STRING)
+    private OrderDetailStatus status;
+
+    public void updateStatus(OrderDetailStatus status) {
+        this.status = status;
+    }
+
+    // 재고 확인 시점에 받아온 상품 정보를 기록
+    public void recordProduct(String productName, int price) {
+        this.productName = productName;
+        this.price = price;
+    }
+
+    // 재고 요청을 보내기 위해 주문 요청 형태로 변환
+    public OrderingSaveReqDto toSaveReqDto() {
+        return OrderingSaveReqDto.builder()
+                .productId(productId)
+                .productQuantity(quantity)
+                .build();
+    }
+
+    // 재고 차감 요청으로 변환. 라인 id를 요청 id로 보내서 재시도 시 중복 차감을 막는다.
+    public StockReserveReqDto toReserveReqDto() {
+        return StockReserveReqDto.builder()
+                .productId(productId)
+                .productQuantity(quantity)
+                .requestId(id)
+                .build();
+    }
+
     // 엔터티를 dto로 변환하는 메서드
     // 내부 클래스이기 때문에 OrderingListResDto 이름으로 참조하는 모습
+    // 상품명은 저장된 값을 쓰고, 상품명이 저장되지 않은 예전 주문만 전달받은 map에서 찾는다.
     public OrderingListResDto.OrderDetailDto fromEntity(Map<Long, String> map) {
 
         return OrderingListResDto.OrderDetailDto.builder()
                 .id(id)
-                .productName(map.get(productId))
+                .productName(productName != null ? productName : map.get(productId))
+                .price(price)
                 .count(quantity)
                 .build();
     }
@@ -0,0 +1,9 @@
+package com.playdata.orderingservice.ordering.entity;
+
+// 주문 상세(라인)별 처리 진행 상태. 재처리 시 완료되지 않은 라인만 다시 처리하기 위해 사용.
+public enum OrderDetailStatus {
+    PENDING, // 아직 처리 전
+    RESERVED, // 재고 확인 완료 (차감 전) -> 재처리 시 조회는 건너뛰고 차감만 다시 시도
+    DEDUCTED, // 재고 차감 완료
+    FAILED // 마지막 시도에서 상품 조회 실패 -> 재처리 시 처음부터 다시 시도
+}
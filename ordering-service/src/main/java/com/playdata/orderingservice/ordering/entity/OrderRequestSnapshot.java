@@ -0,0 +1,51 @@
+package com.playdata.orderingservice.ordering.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+/*
+ 보류/접수 주문을 다시 처리할 때 필요한 주문 원본(List<OrderingSaveReqDto>).
+ 재처리 경로에서만 읽기 때문에 Ordering 테이블에서 분리해 별도 테이블에 둔다.
+ -> 주문 목록 조회 등에서는 아예 읽히지 않고, Ordering 행도 작아진다.
+ payload는 OrderRequestCodec이 Smile(바이너리 JSON)로 인코딩한 값.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+public class OrderRequestSnapshot implements Persistable<Long> {
+
+    // 주문 id를 그대로 사용 (주문 한 건당 하나)
+    @Id
+    private Long orderingId;
+
+    @Column(columnDefinition = "BLOB")
+    private byte[] payload;
+
+    // id를 직접 넣는 엔터티라 save() 시 merge(SELECT 후 INSERT)가 되지 않도록 새 엔터티임을 알려준다.
+    @Transient
+    private boolean newEntity = true;
+
+    public OrderRequestSnapshot(Long orderingId, byte[] payload) {
+        this.orderingId = orderingId;
+        this.payload = payload;
+    }
+
+    @Override
+    public Long getId() {
+        return orderingId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
+}
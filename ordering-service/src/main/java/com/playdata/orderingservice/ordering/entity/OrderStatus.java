@@ -1,9 +1,30 @@
 package com.playdata.orderingservice.ordering.entity;
 
 public enum OrderStatus {
+    ACCEPTED, // 주문 접수 (비동기 접수 후 아직 처리 전)
     ORDERED, // 주문 완료
     PENDING_USER_FAILURE, // 주문 보류 (user-service의 장애)
     PENDING_PROD_NOT_FOUND, // 주문 보류 (product-service의 상품 조회 장애)
     PENDING_PROD_STOCK_UPDATE, // 주문 보류 (product-service의 재고 감소 장애)
-    CANCELED // 주문 취소
+    PENDING_STOCK_RESTORE, // 거절될 주문이지만 차감된 재고를 아직 되돌리지 못함 (복구 후 REJECTED)
+    REJECTED, // 주문 거절 (비동기 처리 중 재고 부족 등 클라이언트 사유로 실패)
+    CANCELED; // 주문 취소
+
+    // 재처리 대상인 보류 상태인지
+    public boolean isPending() {
+        return this == PENDING_USER_FAILURE
+                || this == PENDING_PROD_NOT_FOUND
+                || this == PENDING_PROD_STOCK_UPDATE
+                || this == PENDING_STOCK_RESTORE;
+    }
+
+    // 사용자가 취소할 수 있는 상태인지
+    // 거절/취소된 주문은 대상이 아니고, 복구 대기(PENDING_STOCK_RESTORE)는 재처리 스케줄러가 재고를 되돌리는 중이라 제외.
+    public boolean isCancellable() {
+        return this == ACCEPTED
+                || this == ORDERED
+                || this == PENDING_USER_FAILURE
+                || this == PENDING_PROD_NOT_FOUND
+                || this == PENDING_PROD_STOCK_UPDATE;
+    }
 }
@@ -1,9 +1,12 @@
 package com.playdata.orderingservice.ordering.entity;
 
+import com.playdata.orderingservice.common.entity.BaseTimeEntity;
+import com.playdata.orderingservice.common.entity.TimeSortedId;
 import com.playdata.orderingservice.ordering.dto.OrderingListResDto;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -14,10 +17,20 @@ import java.util.Map;
 @Builder
 
 @Entity
-public class Ordering {
+@Table(indexes = {
+        // 재처리 스케줄러가 '보류 상태 + 다음 시도 시각이 지난 주문'을 찾을 때 사용하는 인덱스
+        @Index(name = "idx_ordering_status_next_attempt", columnList = "orderStatus, nextAttemptAt"),
+        // 내 주문 조회 (회원별 최신순 keyset 페이징)
+        @Index(name = "idx_ordering_user", columnList = "userId"),
+        // 판매 집계 보정 스캔 (워터마크 이후 변경된 주문 조회)
+        @Index(name = "idx_ordering_update_time", columnList = "updateTime"),
+        // 보관 대상(확정/취소 후 오래된 주문) 조회
+        @Index(name = "idx_ordering_status_create_time", columnList = "orderStatus, createTime")
+})
+public class Ordering extends BaseTimeEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeSortedId // 시간순 id를 미리 만들어 넣음 -> 주문/상세 INSERT를 배치로 묶을 수 있다. (IDENTITY는 불가)
     private Long id;
 
     /*
@@ -40,20 +53,38 @@ public class Ordering {
     /*
     주문 과정에서 장애가 발생할 경우, 일단 주문을 보류 시켜놓고 나중에 재처리 한다고 했습니다.
     재처리를 할 때 원본 주문 내역이 무엇인지를 알아야 하잖아요.
-    엔터티는 주문 내역을 List<OrderDetail>로 관리하고 있는데, DB에는 저 형태로 저장이 불가능.
-    그래서 리스트 안에 객체가 있다는 형태를 JSON 문자열로 변환해서 DB에 저장을 하기 위한 필드를 추가.
+    원본 주문 내역은 재처리할 때만 필요하기 때문에 OrderRequestSnapshot 테이블에 따로 저장합니다.
+    (예전 주문은 original_request_json 컬럼에 JSON 문자열로 남아 있음 -> 재처리 시에만 LegacyOrderRequestRepository로 읽음)
     */
-    @Column(columnDefinition = "TEXT") // TEXT 타입은 일반적인 VARCHAR보다 더 큰 문자열을 저장할 수 있는 타입
-    @Setter
-    private String originalRequestJson;
 
     @Enumerated(EnumType.STRING)
     @Builder.Default
     private OrderStatus orderStatus = OrderStatus.ORDERED;
 
+    // 보류 주문 재처리 횟수와 다음 재처리 시각 (null이면 바로 재처리 대상)
+    @Builder.Default
+    private int retryCount = 0;
+
+    private LocalDateTime nextAttemptAt;
+
+    // 재처리 리스(임대): 여러 인스턴스가 같은 보류 주문을 동시에 재처리하지 않도록
+    // 주문을 집어간 인스턴스와 만료 시각을 기록. 만료되면 다른 인스턴스가 다시 집어갈 수 있다.
+    @Column(length = 64)
+    private String leaseOwner;
+
+    private LocalDateTime leaseExpiresAt;
+
+    // 판매 집계(ProductDailySales)에 어떤 상태로 반영됐는지 (null: 아직 반영 안 됨)
+    // 집계 쪽에서 조건부 UPDATE로만 바꾸는 값이라 엔터티 변경 감지로는 절대 덮어쓰지 않는다.
+    // (다른 트랜잭션이 들고 있던 예전 값이 주문 취소 등의 UPDATE에 실려 다시 써지는 것을 막기 위함)
+    @Enumerated(EnumType.STRING)
+    @Column(insertable = false, updatable = false)
+    private OrderStatus rolledUpStatus;
+
     // CascadeType.PERSIST로 설정하면 새로운 엔터티 생성만 처리하고 기존 엔터티 업데이트는
     // 자동으로 처리되지 않습니다. -> MERGE (부모 엔터티 업데이트 시 연관 엔터티도 함께 업데이트)
-    @OneToMany(mappedBy = "ordering", cascade = CascadeType.ALL)
+    // orphanRemoval: 재처리 전에 지난 시도의 상세 내역을 리스트에서 빼면 DB에서도 삭제된다.
+    @OneToMany(mappedBy = "ordering", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderDetail> orderDetails;
 
     // lombok의 setter를 사용해도 되지만, 원하는 필드값을 수정하기 위한 메서드를 직접 작성해도 됩니다.
@@ -62,6 +93,26 @@ public class Ordering {
         this.orderStatus = orderStatus;
     }
 
+    public void claimLease(String owner, LocalDateTime expiresAt) {
+        this.leaseOwner = owner;
+        this.leaseExpiresAt = expiresAt;
+    }
+
+    public boolean isLeasedBy(String owner, LocalDateTime now) {
+        return owner.equals(leaseOwner) && leaseExpiresAt != null && leaseExpiresAt.isAfter(now);
+    }
+
+    public void releaseLease() {
+        this.leaseOwner = null;
+        this.leaseExpiresAt = null;
+    }
+
+    // 재처리 실패 -> 횟수를 올리고 다음 시도 시각을 미룬다.
+    public void scheduleRetry(LocalDateTime nextAttemptAt) {
+        this.retryCount++;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
 
     // dto 변환 메서드
     public OrderingListResDto fromEntity(
@@ -79,10 +130,19 @@ public class Ordering {
         }
 
 
+        // 주문 당시 단가로 총액 계산 (단가가 없는 라인이 하나라도 있으면 계산 불가)
+        Integer totalPrice = null;
+        if (orderDetailList.stream().allMatch(detail -> detail.getPrice() != null)) {
+            totalPrice = orderDetailList.stream()
+                    .mapToInt(detail -> detail.getPrice() * detail.getQuantity())
+                    .sum();
+        }
+
         return OrderingListResDto.builder()
                 .id(id)
                 .userEmail(email)
                 .orderStatus(orderStatus)
+                .totalPrice(totalPrice)
                 .orderDetails(orderDetailDtos)
                 .build();
     }
@@ -0,0 +1,48 @@
+package com.playdata.orderingservice.ordering.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/*
+ 주문 원본이 OrderRequestSnapshot으로 옮겨가기 전의 주문은 ordering.original_request_json 컬럼에 JSON 문자열로 남아 있다.
+ 엔터티에서 매핑하지 않는 컬럼이라 새로 만든 스키마에는 없다.
+ -> 컬럼이 있는지 처음 한 번만 확인하고, 없으면 조회하지 않는다. (없는 컬럼을 조회하면 SQL 오류로 재처리 트랜잭션이 롤백됨)
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class LegacyOrderRequestRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean columnExists;
+
+    public Optional<String> findRequestJson(Long id) {
+        if (!hasLegacyColumn()) return Optional.empty();
+        return jdbcTemplate.queryForList(
+                        "SELECT original_request_json FROM ordering WHERE id = ?", String.class, id).stream()
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    private boolean hasLegacyColumn() {
+        Boolean exists = columnExists;
+        if (exists == null) {
+            Integer count = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.COLUMNS " +
+                            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'ordering' " +
+                            "AND COLUMN_NAME = 'original_request_json'",
+                    Integer.class);
+            exists = count != null && count > 0;
+            columnExists = exists;
+            log.info("예전 주문 원본 컬럼(original_request_json) 존재 여부: {}", exists);
+        }
+        return exists;
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.playdata.orderingservice.ordering.repository;
+
+import com.playdata.orderingservice.ordering.entity.OrderRequestSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OrderRequestSnapshotRepository extends JpaRepository<OrderRequestSnapshot, Long> {
+}
@@ -1,11 +1,22 @@
 package com.playdata.orderingservice.ordering.repository;
 
+import com.playdata.orderingservice.ordering.dto.OrderExportRowDto;
 import com.playdata.orderingservice.ordering.entity.OrderStatus;
 import com.playdata.orderingservice.ordering.entity.Ordering;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderingRepository extends JpaRepository<Ordering, Long> {
 
@@ -15,4 +26,76 @@ public interface OrderingRepository extends JpaRepository<Ordering, Long> {
     // 쿼리메서드: List로 전달된 status 값 중에 하나라도 포함되어 있다면 조회 대상에 포함.
     List<Ordering> findByOrderStatusIn(List<OrderStatus> statuses);
 
-}
\ No newline at end of file
+    // 비동기 접수 후 오랫동안 처리되지 않은 주문 (복구 대상)
+    List<Ordering> findByOrderStatusAndCreateTimeBefore(OrderStatus status, LocalDateTime createTime);
+
+    // 현재 상태가 from일 때만 to로 변경. 변경된 행 수가 1이면 이 요청이 주문을 선점한 것.
+    // 벌크 UPDATE는 @UpdateTimestamp가 적용되지 않으므로 수정 시각도 직접 갱신 (판매 집계 보정 스캔이 사용)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Ordering o SET o.orderStatus = ?3, o.updateTime = CURRENT_TIMESTAMP " +
+            "WHERE o.id = ?1 AND o.orderStatus = ?2")
+    int changeStatus(Long id, OrderStatus from, OrderStatus to);
+
+    // 재처리 대상 주문을 다음 시도 시각 순으로 한 페이지씩 잠그면서 조회 (idx_ordering_status_next_attempt 사용)
+    // - 리스가 없거나 만료된 주문만 대상.
+    // - lock.timeout -2 = SKIP LOCKED: 다른 인스턴스가 지금 집어가고 있는 행은 기다리지 않고 건너뛴다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM Ordering o WHERE o.orderStatus IN ?1 " +
+            "AND (o.nextAttemptAt IS NULL OR o.nextAttemptAt <= ?2) " +
+            "AND (o.leaseExpiresAt IS NULL OR o.leaseExpiresAt <= ?3) " +
+            "ORDER BY o.nextAttemptAt, o.id")
+    List<Ordering> findRetryTargetsForClaim(List<OrderStatus> statuses, LocalDateTime dueBefore,
+                                            LocalDateTime now, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Ordering o WHERE o.id = ?1")
+    Optional<Ordering> findByIdForUpdate(Long id);
+
+    // 회원의 주문 id를 최신순으로 한 페이지 (cursor보다 작은 id만 -> keyset 페이징, idx_ordering_user 사용)
+    @Query("SELECT o.id FROM Ordering o WHERE o.userId = ?1 AND o.id < ?2 ORDER BY o.id DESC")
+    List<Long> findIdsByUserIdBefore(Long userId, Long cursor, Pageable pageable);
+
+    // 주문과 주문 상세를 한 번에 조회 (fetch join -> 주문마다 상세 조회 쿼리가 따로 나가지 않음)
+    @Query("SELECT DISTINCT o FROM Ordering o LEFT JOIN FETCH o.orderDetails " +
+            "WHERE o.id IN ?1 ORDER BY o.id DESC")
+    List<Ordering> findWithDetailsByIdIn(List<Long> ids);
+
+    // 관리자용 전체 주문 내보내기. 주문 + 상세를 한 줄씩 DB 커서로 흘려 보낸다.
+    // fetch size Integer.MIN_VALUE: MySQL 드라이버가 결과를 한 번에 메모리에 올리지 않고 한 행씩 스트리밍.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.playdata.orderingservice.ordering.dto.OrderExportRowDto(" +
+            "o.id, o.userId, o.userEmail, o.orderStatus, o.createTime, " +
+            "d.id, d.productId, d.productName, d.price, d.quantity) " +
+            "FROM Ordering o LEFT JOIN o.orderDetails d " +
+            "WHERE (?1 IS NULL OR o.orderStatus = ?1) " +
+            "AND (?2 IS NULL OR o.createTime >= ?2) " +
+            "AND (?3 IS NULL OR o.createTime < ?3) " +
+            "ORDER BY o.id, d.id")
+    Stream<OrderExportRowDto> streamForExport(OrderStatus status, LocalDateTime from, LocalDateTime to);
+
+    // 판매 집계 반영 표시 - 아직 반영되지 않은 주문일 때만 to로 표시. (1이면 이번에 처음 반영하는 것)
+    @Modifying
+    @Query("UPDATE Ordering o SET o.rolledUpStatus = ?2 WHERE o.id = ?1 AND o.rolledUpStatus IS NULL")
+    int markRolledUp(Long id, OrderStatus to);
+
+    // 판매 집계 반영 표시 - from으로 반영돼 있던 주문일 때만 to로 변경. (ORDERED -> CANCELED)
+    @Modifying
+    @Query("UPDATE Ordering o SET o.rolledUpStatus = ?3 WHERE o.id = ?1 AND o.rolledUpStatus = ?2")
+    int changeRolledUp(Long id, OrderStatus from, OrderStatus to);
+
+    // [from, to) 사이에 변경됐는데 판매 집계에는 아직 반영되지 않은 주문 id (idx_ordering_update_time 사용)
+    @Query("SELECT o.id FROM Ordering o " +
+            "WHERE o.updateTime >= ?1 AND o.updateTime < ?2 AND o.id > ?3 AND o.orderStatus IN ?4 " +
+            "AND (o.rolledUpStatus IS NULL OR o.rolledUpStatus <> o.orderStatus) " +
+            "ORDER BY o.id")
+    List<Long> findRollupMissedIds(LocalDateTime from, LocalDateTime to, Long afterId,
+                                   List<OrderStatus> statuses, Pageable pageable);
+
+    @Query("SELECT MIN(o.updateTime) FROM Ordering o")
+    LocalDateTime findMinUpdateTime();
+
+}
@@ -0,0 +1,10 @@
+package com.playdata.orderingservice.ordering.service;
+
+// 같은 Idempotency-Key의 주문 요청이 아직 처리 중이라 결과를 돌려줄 수 없는 경우 (409)
+public class DuplicateRequestInProgressException extends RuntimeException {
+
+    public DuplicateRequestInProgressException(String message) {
+        super(message);
+    }
+
+}
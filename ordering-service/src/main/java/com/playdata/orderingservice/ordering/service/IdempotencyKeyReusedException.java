@@ -0,0 +1,10 @@
+package com.playdata.orderingservice.ordering.service;
+
+// 이미 사용한 Idempotency-Key를 다른 주문 내용으로 다시 보낸 경우 (422)
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.playdata.orderingservice.archive.service.OrderArchiveService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.orderingservice.ordering.dto.OrderExportRowDto;
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.repository.OrderingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/*
+ 관리자용 전체 주문 내보내기.
+ DB 커서로 한 줄씩 읽으면서 바로 응답 스트림에 쓰기 때문에, 주문이 몇 건이든 메모리 사용량이 일정하다.
+ 보관 테이블로 옮겨진 오래된 주문도 이어서 내보낸다.
+ - csv: 주문 상세 한 건당 한 줄
+ - ndjson: 주문 한 건당 JSON 한 줄 (상세 내역은 배열로 포함)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExportService {
+
+    private static final String CSV_HEADER =
+            "orderId,userId,userEmail,orderStatus,createTime,detailId,productId,productName,price,quantity";
+
+    private final OrderingRepository orderingRepository;
+    private final OrderArchiveService orderArchiveService;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void export(String format, OrderStatus status,
+                       LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        boolean csv = "csv".equals(format);
+        long count = 0;
+
+        if (csv) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        // 운영 테이블 -> 보관 테이블 순서로 내보낸다. (보관된 주문은 운영 테이블에서 지워져 있어서 겹치지 않음)
+        // 스트리밍 결과 셋은 커넥션에 하나만 열 수 있으므로 앞의 Stream을 닫은 뒤에 다음 것을 연다.
+        try (Stream<OrderExportRowDto> rows = orderingRepository.streamForExport(status, from, to)) {
+            count += csv ? writeCsv(rows.iterator(), writer) : writeNdjson(rows.iterator(), writer);
+        }
+        try (Stream<OrderExportRowDto> rows = orderArchiveService.streamForExport(status, from, to)) {
+            count += csv ? writeCsv(rows.iterator(), writer) : writeNdjson(rows.iterator(), writer);
+        }
+        writer.flush();
+        log.info("주문 내보내기 완료 - 형식: {}, 건수: {}", format, count);
+    }
+
+    private long writeCsv(Iterator<OrderExportRowDto> rows, Writer writer) throws IOException {
+        long count = 0;
+        while (rows.hasNext()) {
+            OrderExportRowDto row = rows.next();
+            writer.write(String.join(",",
+                    csv(row.getOrderId()), csv(row.getUserId()), csv(row.getUserEmail()),
+                    csv(row.getOrderStatus()), csv(row.getCreateTime()), csv(row.getDetailId()),
+                    csv(row.getProductId()), csv(row.getProductName()), csv(row.getPrice()),
+                    csv(row.getQuantity())));
+            writer.write('\n');
+            count++;
+        }
+        return count;
+    }
+
+    // 쿼리가 주문 id 순으로 정렬되어 있으므로, 같은 주문의 줄은 연달아 나온다.
+    // 주문 id가 바뀔 때마다 앞 주문 하나를 JSON 한 줄로 내보낸다. (메모리에는 주문 한 건의 줄만 유지)
+    private long writeNdjson(Iterator<OrderExportRowDto> rows, Writer writer) throws IOException {
+        long count = 0;
+        List<OrderExportRowDto> current = new ArrayList<>();
+
+        while (rows.hasNext()) {
+            OrderExportRowDto row = rows.next();
+            if (!current.isEmpty() && !current.get(0).getOrderId().equals(row.getOrderId())) {
+                writeOrderJson(current, writer);
+                current.clear();
+                count++;
+            }
+            current.add(row);
+        }
+        if (!current.isEmpty()) {
+            writeOrderJson(current, writer);
+            count++;
+        }
+        return count;
+    }
+
+    private void writeOrderJson(List<OrderExportRowDto> rows, Writer writer) throws IOException {
+        OrderExportRowDto first = rows.get(0);
+
+        // writer를 닫지 않도록 AUTO_CLOSE_TARGET 해제
+        JsonGenerator gen = objectMapper.getFactory().createGenerator(writer);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        gen.writeStartObject();
+        gen.writeObjectField("id", first.getOrderId());
+        gen.writeObjectField("userId", first.getUserId());
+        gen.writeStringField("userEmail", first.getUserEmail());
+        gen.writeObjectField("orderStatus", first.getOrderStatus());
+        gen.writeStringField("createTime",
+                first.getCreateTime() != null ? first.getCreateTime().toString() : null);
+        gen.writeArrayFieldStart("orderDetails");
+        for (OrderExportRowDto row : rows) {
+            if (row.getDetailId() == null) continue; // 상세 내역이 없는 주문
+            gen.writeStartObject();
+            gen.writeObjectField("id", row.getDetailId());
+            gen.writeObjectField("productId", row.getProductId());
+            gen.writeStringField("productName", row.getProductName());
+            gen.writeObjectField("price", row.getPrice());
+            gen.writeObjectField("count", row.getQuantity());
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.close();
+
+        writer.write('\n');
+    }
+
+    // CSV 값 변환: 쉼표, 따옴표, 줄바꿈이 들어 있으면 따옴표로 감싸고 안쪽 따옴표는 두 번 쓴다.
+    private String csv(Object value) {
+        if (value == null) return "";
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+}
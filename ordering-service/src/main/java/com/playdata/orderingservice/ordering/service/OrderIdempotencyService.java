@@ -0,0 +1,170 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.orderingservice.ordering.dto.OrderIdempotencyRecord;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*
+ Idempotency-Key 헤더로 같은 주문 요청이 여러 번 들어와도 주문은 한 번만 만들어지도록 하는 서비스.
+ - 처음 들어온 요청이 Redis에 '처리 중' 표시를 선점(SETNX)하고 주문을 처리한 뒤 결과(주문 번호, 상태)를 저장.
+   처리하는 동안은 표시의 TTL을 주기적으로 연장한다. (처리가 TTL보다 오래 걸려도 중복 요청이 끼어들지 못함)
+ - 처리 중에 들어온 중복 요청은 결과가 저장될 때까지 기다렸다가 같은 결과를 돌려준다.
+ - 이후에 들어온 중복 요청은 DB, user-service, product-service를 거치지 않고 저장된 결과로 바로 응답.
+ - 요청 본문의 해시를 함께 저장해서, 같은 키로 다른 주문 내용을 보내면 이전 결과를 돌려주지 않고 422로 거절한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderIdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ScheduledExecutorService idempotencyRenewalScheduler;
+    private final ObjectMapper objectMapper;
+
+    // 처리 결과 보관 기간
+    @Value("${order.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    // 처리 중 표시의 수명. 처리 중에는 1/3마다 연장하고, 처리 도중 서버가 죽으면 이 시간이 지난 뒤 같은 키로 다시 주문할 수 있다.
+    @Value("${order.idempotency.in-progress-ttl-seconds:30}")
+    private long inProgressTtlSeconds;
+
+    // 중복 요청이 먼저 들어온 요청의 결과를 기다리는 최대 시간
+    @Value("${order.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    // request: 요청 본문 (같은 키의 요청이 같은 주문인지 확인하는 데 사용)
+    public OrderIdempotencyRecord execute(String userEmail, String idempotencyKey, Object request,
+                                          HttpStatus successStatus, Supplier<Ordering> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key는 1~" + MAX_KEY_LENGTH + "자여야 합니다.");
+        }
+        // 다른 회원이 우연히 같은 키를 써도 섞이지 않도록 회원별로 구분
+        String redisKey = "order:idempotency:" + userEmail + ":" + idempotencyKey;
+        String requestHash = fingerprint(request);
+        long deadline = System.currentTimeMillis() + waitTimeoutMs;
+
+        while (true) {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(
+                    redisKey,
+                    OrderIdempotencyRecord.builder().done(false).requestHash(requestHash).build(),
+                    Duration.ofSeconds(inProgressTtlSeconds)
+            );
+            if (Boolean.TRUE.equals(acquired)) {
+                return runAndRecord(redisKey, requestHash, successStatus, action);
+            }
+
+            Object stored = redisTemplate.opsForValue().get(redisKey);
+            // 해시가 없는 기록은 이 기능 이전에 저장된 것 -> 비교하지 않는다.
+            if (stored instanceof OrderIdempotencyRecord record
+                    && record.getRequestHash() != null && !record.getRequestHash().equals(requestHash)) {
+                throw new IdempotencyKeyReusedException("이미 다른 주문에 사용한 Idempotency-Key입니다.");
+            }
+            if (stored instanceof OrderIdempotencyRecord record && record.isDone()) {
+                log.info("중복 주문 요청 -> 저장된 결과 반환. 키: {}, 주문 ID: {}", idempotencyKey, record.getOrderId());
+                record.setReplayed(true);
+                return record;
+            }
+            // stored == null: 먼저 들어온 요청이 실패해서 표시가 지워짐 -> 다음 반복에서 다시 선점 시도
+
+            if (System.currentTimeMillis() > deadline) {
+                throw new DuplicateRequestInProgressException("같은 주문 요청이 아직 처리 중입니다. 잠시 후 다시 시도해 주세요.");
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DuplicateRequestInProgressException("주문 요청 대기 중 중단되었습니다.");
+            }
+        }
+    }
+
+    private OrderIdempotencyRecord runAndRecord(String redisKey, String requestHash, HttpStatus successStatus,
+                                                Supplier<Ordering> action) {
+        InProgressLease lease = keepAlive(redisKey);
+        Ordering ordering;
+        try {
+            ordering = action.get();
+        } catch (RuntimeException e) {
+            // 실패한 요청(재고 부족 등)은 기록하지 않는다. -> 같은 키로 다시 시도 가능
+            lease.stop();
+            redisTemplate.delete(redisKey);
+            throw e;
+        }
+        // 연장 작업이 결과 저장 뒤에 TTL을 줄여버리지 않도록 먼저 멈춘다.
+        lease.stop();
+
+        OrderIdempotencyRecord record = OrderIdempotencyRecord.builder()
+                .done(true)
+                .orderId(ordering.getId())
+                .orderStatus(ordering.getOrderStatus())
+                .httpStatus(successStatus.value())
+                .requestHash(requestHash)
+                .build();
+        redisTemplate.opsForValue().set(redisKey, record, Duration.ofHours(ttlHours));
+        return record;
+    }
+
+    // 요청 본문의 SHA-256 (JSON으로 직렬화한 값 기준)
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("요청 본문 해시 계산 실패", e);
+        }
+    }
+
+    private InProgressLease keepAlive(String redisKey) {
+        InProgressLease lease = new InProgressLease(redisKey);
+        long periodMs = Math.max(1000, TimeUnit.SECONDS.toMillis(inProgressTtlSeconds) / 3);
+        lease.task = idempotencyRenewalScheduler.scheduleAtFixedRate(
+                lease::renew, periodMs, periodMs, TimeUnit.MILLISECONDS);
+        return lease;
+    }
+
+    // 처리 중 표시 연장 작업. stop() 이후에는 연장하지 않는다. (연장과 stop이 겹치지 않도록 synchronized)
+    private class InProgressLease {
+        private final String redisKey;
+        private ScheduledFuture<?> task;
+        private boolean stopped;
+
+        InProgressLease(String redisKey) {
+            this.redisKey = redisKey;
+        }
+
+        synchronized void renew() {
+            if (stopped) return;
+            try {
+                redisTemplate.expire(redisKey, Duration.ofSeconds(inProgressTtlSeconds));
+            } catch (RuntimeException e) {
+                // 예외를 밖으로 던지면 다음 연장이 예약되지 않으니 로그만 남긴다.
+                log.warn("처리 중 표시 연장 실패. 키: {}, 오류: {}", redisKey, e.getMessage());
+            }
+        }
+
+        synchronized void stop() {
+            stopped = true;
+            task.cancel(false);
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.playdata.orderingservice.common.auth.TokenUserInfo;
+import com.playdata.orderingservice.ordering.dto.OrderingSaveReqDto;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/*
+ 비동기 주문 접수.
+ 요청 스레드에서는 주문 원본만 저장(ACCEPTED)하고 바로 응답하고,
+ user-service / product-service 호출은 orderIntakeExecutor의 워커 스레드가 이어서 처리한다.
+ -> 하위 서비스가 느려져도 톰캣 스레드가 묶이지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderIntakeService {
+
+    private final OrderingService orderingService;
+    private final ThreadPoolTaskExecutor orderIntakeExecutor;
+
+    public Ordering submit(List<OrderingSaveReqDto> dtoList, TokenUserInfo userInfo) {
+        // acceptOrder의 트랜잭션이 끝난 뒤(커밋 후)에 워커에게 넘겨야 워커가 주문을 조회할 수 있다.
+        Ordering ordering = orderingService.acceptOrder(dtoList, userInfo);
+        dispatch(ordering.getId());
+        return ordering;
+    }
+
+    // 접수된 주문을 워커에게 넘긴다. (복구 스케줄러도 이 메서드를 사용)
+    public void dispatch(Long orderId) {
+        try {
+            orderIntakeExecutor.execute(() -> process(orderId));
+        } catch (TaskRejectedException e) {
+            // 주문은 이미 저장되어 있으니 여기서 실패시키지 않는다. -> 복구 스케줄러가 나중에 처리.
+            log.warn("주문 처리 대기열 초과. 나중에 처리합니다. 주문 ID: {}", orderId);
+        }
+    }
+
+    private void process(Long orderId) {
+        try {
+            orderingService.processAcceptedOrder(orderId);
+        } catch (Exception e) {
+            // 트랜잭션이 롤백되어 ACCEPTED 상태로 남음 -> 복구 스케줄러가 다시 시도.
+            log.error("접수 주문 처리 실패 - 주문 ID: {}, 이유: {}", orderId, e.getMessage());
+        }
+    }
+
+}
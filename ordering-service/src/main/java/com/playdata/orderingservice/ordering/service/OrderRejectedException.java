@@ -0,0 +1,11 @@
+package com.playdata.orderingservice.ordering.service;
+
+// 재고 부족으로 거절이 확정됐지만 차감된 재고를 아직 되돌리지 못해 복구 대기(PENDING_STOCK_RESTORE)로 저장한 주문 (400)
+// 복구 대기 상태는 저장되어야 하므로 이 예외로는 트랜잭션을 롤백하지 않는다. (createOrder의 noRollbackFor)
+public class OrderRejectedException extends IllegalArgumentException {
+
+    public OrderRejectedException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.playdata.orderingservice.ordering.dto.OrderingSaveReqDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+// 주문 원본(List<OrderingSaveReqDto>) 인코딩/디코딩.
+// Smile(바이너리 JSON)은 필드명을 한 번만 기록하고 숫자를 바이너리로 저장해서 같은 내용의 JSON보다 훨씬 작다.
+// 매핑 정보를 매번 만들지 않도록 reader/writer를 미리 만들어 두고 공유한다. (스레드 안전)
+@Component
+@RequiredArgsConstructor
+public class OrderRequestCodec {
+
+    private static final TypeReference<List<OrderingSaveReqDto>> REQUEST_TYPE = new TypeReference<>() {};
+
+    private static final ObjectMapper SMILE_MAPPER = SmileMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final ObjectWriter writer = SMILE_MAPPER.writerFor(REQUEST_TYPE);
+    private final ObjectReader reader = SMILE_MAPPER.readerFor(REQUEST_TYPE);
+
+    // 예전 주문(Ordering.original_request_json 컬럼)에 남아 있는 JSON 문자열 해석용
+    private final ObjectMapper objectMapper;
+
+    public byte[] encode(List<OrderingSaveReqDto> dtoList) {
+        try {
+            return writer.writeValueAsBytes(dtoList);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("주문 내역을 처리할 수 없습니다.");
+        }
+    }
+
+    public List<OrderingSaveReqDto> decode(byte[] payload) throws IOException {
+        return reader.readValue(payload);
+    }
+
+    public List<OrderingSaveReqDto> decodeLegacyJson(String json) throws IOException {
+        return objectMapper.readValue(json, REQUEST_TYPE);
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.playdata.orderingservice.ordering.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 보류 주문 재처리 간격: 실패할 때마다 2배씩 늘리되(최대 max-delay), 절반 범위에서 무작위로 흔든다.
+// 장애 복구 직후 보류 주문들이 한꺼번에 같은 시각에 몰리지 않도록 하기 위함.
+@Component
+public class OrderRetryPolicy {
+
+    @Value("${order.retry.base-delay-ms:10000}")
+    private long baseDelayMs;
+
+    @Value("${order.retry.max-delay-ms:1800000}")
+    private long maxDelayMs;
+
+    public LocalDateTime nextAttemptAt(int retryCount) {
+        // 2^retryCount 배 (오버플로 방지를 위해 지수 상한)
+        long delay = Math.min(maxDelayMs, baseDelayMs << Math.min(retryCount, 20));
+        long jittered = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        return LocalDateTime.now().plus(Duration.ofMillis(jittered));
+    }
+
+}
@@ -1,20 +1,23 @@
 package com.playdata.orderingservice.ordering.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.playdata.orderingservice.common.auth.Role;
-import com.playdata.orderingservice.common.auth.TokenUserInfo;
-import com.playdata.orderingservice.ordering.dto.OrderingSaveReqDto;
-import com.playdata.orderingservice.ordering.dto.UserResDto;
 import com.playdata.orderingservice.ordering.entity.OrderStatus;
 import com.playdata.orderingservice.ordering.entity.Ordering;
 import com.playdata.orderingservice.ordering.repository.OrderingRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -22,58 +25,116 @@ import java.util.List;
 public class OrderRetryScheduler {
 
     private final OrderingRepository orderingRepository;
-    private final ObjectMapper objectMapper;
     private final OrderingService orderingService;
+    private final OrderIntakeService orderIntakeService;
+
+    // 보류 주문을 동시에 재처리하는 스레드 풀 (AsyncConfig)
+    private final ThreadPoolTaskExecutor orderRetryExecutor;
+
+    // 서킷브레이커 상태 확인용 (서킷이 열린 서비스에 걸린 주문은 이번 회차에서 건너뜀)
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    // 리스 소유자로 기록되는 이 인스턴스의 이름 (여러 대를 띄워도 겹치지 않게)
+    private final String workerId = System.getenv().getOrDefault("HOSTNAME", "ordering")
+            + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    // 주문을 집어간 뒤 이 시간 안에 처리하지 못하면(인스턴스 다운 등) 다른 인스턴스가 다시 집어간다.
+    @Value("${order.retry.lease-seconds:300}")
+    private long leaseSeconds;
+
+    // 접수 후 이 시간(ms)이 지나도록 ACCEPTED인 주문은 처리가 유실된 것으로 보고 다시 넣는다.
+    @Value("${order.intake.stale-after-ms:60000}")
+    private long staleAfterMs;
+
+    // 한 번에 조회해서 재처리하는 주문 수
+    @Value("${order.retry.page-size:100}")
+    private int pageSize;
+
+    // 한 회차에 처리하는 최대 페이지 수 (남은 주문은 다음 회차에)
+    @Value("${order.retry.max-pages-per-run:50}")
+    private int maxPagesPerRun;
 
     // 특정 작업에 대해 지정된 기간, 시간에 동작하도록 설계하는 spring의 기능.
-    // 5분마다 실행
-    @Scheduled(fixedDelay = 300_000)
+    // 보류 주문을 전부 메모리에 올리지 않고, 다음 시도 시각이 지난 주문만 한 페이지씩 재처리.
+    @Scheduled(fixedDelayString = "${order.retry.poll-interval-ms:30000}")
     public void retryPendingOrders() {
         log.info("주문 재처리 스케줄러 시작");
 
-        // DB에서 주문 보류인 엔터티를 전부 조회해서 재처리 대상으로 지정.
-        List<Ordering> pendingOrders = orderingRepository.findByOrderStatusIn(List.of(
-                OrderStatus.PENDING_USER_FAILURE,
-                OrderStatus.PENDING_PROD_NOT_FOUND,
-                OrderStatus.PENDING_PROD_STOCK_UPDATE
-        ));
+        // 회차 시작 시각 기준으로 대상을 고정 -> 이번 회차에 실패해서 미뤄진 주문은 다시 집히지 않는다.
+        LocalDateTime now = LocalDateTime.now();
+        int processed = 0;
+
+        for (int page = 0; page < maxPagesPerRun; page++) {
+            List<OrderStatus> statuses = retryableStatuses();
+            if (statuses.isEmpty()) {
+                log.info("의존 서비스의 서킷이 열려 있어 재처리를 잠시 멈춥니다.");
+                break;
+            }
+
+            // 한 페이지만큼 주문을 집어온다. 다른 인스턴스가 집어간 주문은 건너뛰므로 인스턴스마다 서로 다른 주문을 처리.
+            // 처리된 주문은 ORDERED가 되거나 다음 시도 시각이 뒤로 밀리므로 다음 페이지에 다시 나오지 않는다.
+            List<Long> orderIds = orderingService.claimPendingOrders(
+                    statuses, now, pageSize, workerId, Duration.ofSeconds(leaseSeconds));
+            if (orderIds.isEmpty()) break;
+
+            CompletableFuture<?>[] futures = orderIds.stream()
+                    .map(id -> CompletableFuture.runAsync(() -> retryOrder(id), orderRetryExecutor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(futures).join();
+
+            processed += orderIds.size();
+            if (orderIds.size() < pageSize) break;
+        }
+
+        log.info("⏹ 주문 재처리 스케줄러 종료 - 처리 건수: {}", processed);
+    }
 
-        for (Ordering order : pendingOrders) {
+    private void retryOrder(Long orderId) {
+        try {
+            log.info("재처리 시도 - 주문 ID: {}", orderId);
+            orderingService.retryPendingOrder(orderId, workerId);
+        } catch (Exception e) {
+            // 트랜잭션이 롤백됨 -> 다음 시도 시각만 따로 미뤄두고 리스를 푼다.
+            log.warn("재처리 실패 - 주문 ID: {}, 이유: {}", orderId, e.getMessage());
             try {
-                log.info("재처리 시도 - 주문 ID: {}", order.getId());
-
-                // originalRequestJson → dtoList 복원
-                // 주문 재처리를 위해 원본 주문 요청 당시의 상품 내역을 받아오자 (json을 자바 list로)
-                List<OrderingSaveReqDto> dtoList = objectMapper.readValue(
-                        order.getOriginalRequestJson(),
-                        new TypeReference<List<OrderingSaveReqDto>>() {
-                        }
-                );
-
-                // 재처리 (주문 status가 무엇이냐에 따라 분기가 나누어져야 할 것 같아요)
-                if (order.getOrderStatus() == OrderStatus.PENDING_USER_FAILURE) {
-                    UserResDto userResDto
-                            = orderingService.getUserResDto(order.getUserEmail());
-                    order.setUserId(userResDto.getId());
-                }
-
-                orderingService.processOrderToProductService(dtoList, order.getUserId(), order);
-
-                // 성공했으면 상태 업데이트
-                order.updateStatus(OrderStatus.ORDERED);
-                orderingRepository.save(order);
-
-                log.info("재처리 성공 - 주문 ID: {}", order.getId());
-
-            } catch (Exception e) {
-                log.warn("재처리 실패 - 주문 ID: {}, 이유: {}", order.getId(), e.getMessage());
-                e.printStackTrace();
-                // 재시도 실패 → 그대로 놔두고 다음번 스케줄링까지 보류
-                // 또는 retryCount 등 정책 추가 고려 가능
+                orderingService.deferRetry(orderId, workerId);
+            } catch (Exception ex) {
+                log.error("재처리 연기 실패 - 주문 ID: {}, 이유: {}", orderId, ex.getMessage());
             }
         }
+    }
+
+    // 서킷이 열려 있지 않은 서비스에 걸린 보류 상태만 재처리 대상으로.
+    // 막 복구 중인 서비스에 보류 주문이 한꺼번에 몰리지 않도록 하기 위함.
+    private List<OrderStatus> retryableStatuses() {
+        List<OrderStatus> statuses = new ArrayList<>();
+        if (isCallable("userService")) {
+            statuses.add(OrderStatus.PENDING_USER_FAILURE);
+        }
+        if (isCallable("productService") && isCallable("productServiceUpdate")) {
+            statuses.add(OrderStatus.PENDING_PROD_NOT_FOUND);
+            statuses.add(OrderStatus.PENDING_PROD_STOCK_UPDATE);
+            statuses.add(OrderStatus.PENDING_STOCK_RESTORE);
+        }
+        return statuses;
+    }
+
+    private boolean isCallable(String circuitName) {
+        CircuitBreaker.State state = circuitBreakerRegistry.circuitBreaker(circuitName).getState();
+        return state != CircuitBreaker.State.OPEN && state != CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    // 비동기 접수 후 처리되지 못한 주문 복구 (대기열 초과, 처리 중 서버 종료 등)
+    @Scheduled(fixedDelayString = "${order.intake.recover-interval-ms:60000}")
+    public void recoverAcceptedOrders() {
+        LocalDateTime threshold = LocalDateTime.now().minus(Duration.ofMillis(staleAfterMs));
+        List<Ordering> staleOrders = orderingRepository
+                .findByOrderStatusAndCreateTimeBefore(OrderStatus.ACCEPTED, threshold);
 
-        log.info("⏹ 주문 재처리 스케줄러 종료");
+        for (Ordering order : staleOrders) {
+            log.info("접수 주문 복구 - 주문 ID: {}", order.getId());
+            orderIntakeService.dispatch(order.getId());
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -1,32 +1,57 @@
 package com.playdata.orderingservice.ordering.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.orderingservice.archive.service.OrderArchiveService;
+import com.playdata.orderingservice.client.ConcurrencyLimiters;
+import com.playdata.orderingservice.client.HedgedProductReader;
+import com.playdata.orderingservice.client.ProductLookupCoalescer;
 import com.playdata.orderingservice.client.ProductServiceClient;
 import com.playdata.orderingservice.client.UserServiceClient;
+import com.playdata.orderingservice.common.auth.Role;
 import com.playdata.orderingservice.common.auth.TokenUserInfo;
 import com.playdata.orderingservice.common.dto.CommonResDto;
 import com.playdata.orderingservice.ordering.dto.OrderingListResDto;
+import com.playdata.orderingservice.ordering.dto.OrderStatusResDto;
 import com.playdata.orderingservice.ordering.dto.OrderingSaveReqDto;
 import com.playdata.orderingservice.ordering.dto.ProductResDto;
+import com.playdata.orderingservice.ordering.dto.StockChangeReqDto;
+import com.playdata.orderingservice.ordering.dto.StockReserveReqDto;
+import com.playdata.orderingservice.ordering.dto.StockResultDto;
 import com.playdata.orderingservice.ordering.dto.UserResDto;
 import com.playdata.orderingservice.ordering.entity.OrderDetail;
+import com.playdata.orderingservice.ordering.entity.OrderDetailStatus;
+import com.playdata.orderingservice.ordering.entity.OrderRequestSnapshot;
 import com.playdata.orderingservice.ordering.entity.OrderStatus;
 import com.playdata.orderingservice.ordering.entity.Ordering;
+import com.playdata.orderingservice.ordering.repository.LegacyOrderRequestRepository;
+import com.playdata.orderingservice.ordering.repository.OrderRequestSnapshotRepository;
 import com.playdata.orderingservice.ordering.repository.OrderingRepository;
+import com.playdata.orderingservice.sales.service.SalesRollupService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.ws.rs.ServiceUnavailableException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,9 +60,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class OrderingService {
 
+    // 내 주문 조회 한 페이지의 최대 크기
+    private static final int MY_ORDER_MAX_PAGE_SIZE = 100;
+
     private final OrderingRepository orderingRepository;
     private final RestTemplate restTemplate;
 
+    // 주문 원본 저장/복원 (재처리용)
+    private final OrderRequestSnapshotRepository orderRequestSnapshotRepository;
+    private final OrderRequestCodec orderRequestCodec;
+    private final LegacyOrderRequestRepository legacyOrderRequestRepository;
+
     // feign client 구현체 주입 받기
     private final UserServiceClient userServiceClient;
     private final ProductServiceClient productServiceClient;
@@ -45,31 +78,56 @@ public class OrderingService {
     // CircuitBreaker 동작 객체 주입
     private final CircuitBreakerFactory circuitBreakerFactory;
 
+    // 읽기 전용 상품 조회 (느린 인스턴스 대비 헤징)
+    private final HedgedProductReader hedgedProductReader;
+
+    // 같은 상품 동시 조회를 원격 호출 하나로 합침
+    private final ProductLookupCoalescer productLookupCoalescer;
+
+    // 하위 서비스별 동시 호출 한도 (응답 시간에 따라 자동 조절, 넘치면 바로 거절 -> 주문 보류)
+    private final ConcurrencyLimiters concurrencyLimiters;
+
+    // 상품 조회 병렬 처리용 스레드 풀 (AsyncConfig)
+    private final ExecutorService productLookupExecutor;
+
+    // 보류 주문 재처리 간격 계산
+    private final OrderRetryPolicy orderRetryPolicy;
+
+    // 주문 확정/취소를 판매 집계에 반영
+    private final SalesRollupService salesRollupService;
+
+    // 오래되어 보관 테이블로 옮겨진 주문 조회
+    private final OrderArchiveService orderArchiveService;
+
+    // true: 주문 한 건당 재고 일괄 차감 요청 1번 (/product/reserve)
+    // false: 상품마다 조회 + 차감 요청을 따로 보내는 기존 방식
+    @Value("${order.product.bulk-reserve:true}")
+    private boolean bulkReserve;
+
+    // 주문 한 건에서 동시에 보낼 수 있는 상품 조회 요청 수
+    @Value("${order.product.lookup.max-concurrency-per-order:8}")
+    private int lookupConcurrencyPerOrder;
+
+    // 복구 대기로 저장한 거절 주문은 커밋한 뒤에 OrderRejectedException(400)으로 알린다.
+    @Transactional(noRollbackFor = OrderRejectedException.class)
     public Ordering createOrder(List<OrderingSaveReqDto> dtoList,
                                 TokenUserInfo userInfo) {
-        UserResDto userDto;
+        Long userId;
         Ordering ordering;
 
+        // 보류될 경우 재처리에 쓸 주문 원본 (공유 코덱으로 한 번만 인코딩)
+        byte[] requestSnapshot = orderRequestCodec.encode(dtoList);
+
         try {
-            userDto = getUserResDto(userInfo.getEmail());
-            log.info("user-service로부터 전달받은 결과: {}", userDto);
+            userId = resolveUserId(userInfo);
 
             // Ordering(주문) 객체 생성
             ordering = Ordering.builder()
-                    .userId(userDto.getId())
-                    .userEmail(userDto.getEmail())
+                    .userId(userId)
+                    .userEmail(userInfo.getEmail())
                     .orderDetails(new ArrayList<>()) // 아직 주문 상세 들어가기 전.
                     .build();
 
-            // 여기서 dtoList를 JSON으로 직렬화해서 ordering에 저장
-            // 사용자의 주문 상세 내역을 DB에 꽂아버리기 위해서 필드를 하나 추가해 놓음. -> JSON 문자열 필드
-            // 지금까지는 문제가 없었지만, 이후에 product쪽에 장애 발생하면 결국 재처리 들어가야 되거든요.
-            // 미리 주문 상세 내역을 JSON으로 바꿔서 Ordering쪽에 때려 놓자.
-            ObjectMapper mapper = new ObjectMapper();
-            String dtoJson = mapper.writeValueAsString(dtoList);
-            ordering.setOriginalRequestJson(dtoJson); // ordering 엔티티에 필드 미리 추가해둬야 함
-
-
         } catch (Exception e) {
             log.error("user-service 장애. 주문 보류로 처리합니다. {}", e.getMessage());
 
@@ -81,14 +139,6 @@ public class OrderingService {
                     .orderDetails(new ArrayList<>())
                     .build();
 
-            try {
-                ObjectMapper mapper = new ObjectMapper();
-                String dtoJson = mapper.writeValueAsString(dtoList);
-                pendingUserFail.setOriginalRequestJson(dtoJson);
-            } catch (JsonProcessingException ex) {
-                e.printStackTrace();
-            }
-
 //            // 주문 내역을 List<OrderDetail>로 바꾸는 로직
 //            // 재처리 시에 이사람이 어떤 상품을 몇 개 주문했는지에 대한 정보는 있어야 하니깐.
 //            List<OrderDetail> detailList = dtoList.stream()
@@ -97,15 +147,215 @@ public class OrderingService {
 //
 //            pendingUserFail.getOrderDetails().addAll(detailList);
 
-            return orderingRepository.save(pendingUserFail); // 여기서 바로 리턴 끝
+            Ordering saved = orderingRepository.save(pendingUserFail);
+            saveRequestSnapshot(saved, requestSnapshot);
+            return saved; // 여기서 바로 리턴 끝
 
         }
 
         // product쪽에 요청 보내는 로직은 따로 메서드로 나누었습니다. (너무 길어서...)
-        processOrderToProductService(dtoList, userDto.getId(), ordering);
+        processOrderToProductService(dtoList, userId, ordering);
 
         // 모든 로직에 장애가 없었다면 주문 확정(status가 ORDERED로 처리)
-        return orderingRepository.save(ordering);
+        Ordering saved = orderingRepository.save(ordering);
+        // 주문 원본은 재처리할 주문만 필요하다. (확정된 주문은 저장하지 않음)
+        if (saved.getOrderStatus().isPending()) {
+            saveRequestSnapshot(saved, requestSnapshot);
+        }
+        salesRollupService.record(saved);
+
+        if (saved.getOrderStatus() == OrderStatus.PENDING_STOCK_RESTORE) {
+            // 거절이 확정된 주문 -> 재고 복구는 재처리 스케줄러에 맡기고, 클라이언트에는 재고 부족으로 응답.
+            throw new OrderRejectedException("재고 부족!");
+        }
+        return saved;
+    }
+
+    // 주문 원본 저장 (주문과 같은 트랜잭션, id가 미리 만들어져 있어서 INSERT 배치에 함께 묶인다)
+    private void saveRequestSnapshot(Ordering ordering, byte[] payload) {
+        orderRequestSnapshotRepository.save(new OrderRequestSnapshot(ordering.getId(), payload));
+    }
+
+    // 비동기 접수: 외부 서비스 호출 없이 주문 원본만 저장하고 바로 리턴.
+    // 실제 처리는 OrderIntakeService의 워커가 processAcceptedOrder로 이어서 진행한다.
+    public Ordering acceptOrder(List<OrderingSaveReqDto> dtoList, TokenUserInfo userInfo) {
+        Ordering ordering = Ordering.builder()
+                .userId(userInfo.getUserId()) // 예전 토큰이면 null -> 워커가 user-service로 조회
+                .userEmail(userInfo.getEmail())
+                .orderStatus(OrderStatus.ACCEPTED)
+                .orderDetails(new ArrayList<>())
+                .build();
+
+        byte[] requestSnapshot = orderRequestCodec.encode(dtoList);
+        Ordering saved = orderingRepository.save(ordering);
+        saveRequestSnapshot(saved, requestSnapshot);
+        return saved;
+    }
+
+    // 접수된 주문 처리 (워커 스레드에서 호출)
+    public void processAcceptedOrder(Long id) {
+        // ACCEPTED -> ORDERED 변경에 성공한 쪽만 처리한다.
+        // 워커와 복구 스케줄러가 같은 주문을 동시에 집어도 한 번만 처리됨. (행 잠금은 트랜잭션 끝까지 유지)
+        if (orderingRepository.changeStatus(id, OrderStatus.ACCEPTED, OrderStatus.ORDERED) == 0) {
+            log.info("이미 처리된 접수 주문 - 주문 ID: {}", id);
+            return;
+        }
+
+        Ordering ordering = orderingRepository.findById(id).orElseThrow(
+                () -> new EntityNotFoundException("주문 없음!")
+        );
+        completeOrder(ordering);
+        salesRollupService.record(ordering);
+    }
+
+    // 다음 시도 시각이 dueBefore 이전인 보류 주문을 최대 limit건 집어서(리스 기록) id를 돌려준다.
+    // 짧은 트랜잭션으로 끝나기 때문에 행 잠금은 리스를 기록하는 동안만 잡힌다.
+    public List<Long> claimPendingOrders(List<OrderStatus> statuses, LocalDateTime dueBefore, int limit,
+                                         String owner, Duration leaseDuration) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Ordering> targets = orderingRepository.findRetryTargetsForClaim(
+                statuses, dueBefore, now, PageRequest.of(0, limit));
+
+        LocalDateTime expiresAt = now.plus(leaseDuration);
+        List<Long> claimedIds = new ArrayList<>();
+        for (Ordering ordering : targets) {
+            ordering.claimLease(owner, expiresAt);
+            claimedIds.add(ordering.getId());
+        }
+        return claimedIds;
+    }
+
+    // 보류된 주문 한 건 재처리 (OrderRetryScheduler가 호출)
+    public void retryPendingOrder(Long id, String owner) {
+        // 행을 잠근 뒤 리스를 확인 -> 리스가 만료되어 다른 인스턴스가 가져간 주문이면 손대지 않는다.
+        Ordering ordering = orderingRepository.findByIdForUpdate(id).orElseThrow(
+                () -> new EntityNotFoundException("주문 없음!")
+        );
+        if (!ordering.isLeasedBy(owner, LocalDateTime.now())) {
+            log.info("리스가 만료되어 다른 인스턴스가 처리할 주문 - 주문 ID: {}", id);
+            return;
+        }
+        ordering.releaseLease();
+
+        if (!ordering.getOrderStatus().isPending()) {
+            log.info("이미 처리된 보류 주문 - 주문 ID: {}", id);
+            return;
+        }
+
+        if (ordering.getOrderStatus() == OrderStatus.PENDING_STOCK_RESTORE) {
+            // 거절이 확정된 주문 -> 차감된 재고만 마저 되돌리고 거절 처리
+            if (restoreDeductedLines(ordering)) {
+                ordering.getOrderDetails().clear();
+                ordering.updateStatus(OrderStatus.REJECTED);
+                log.info("재고 복구 완료 -> 주문 거절 처리. 주문 ID: {}", id);
+            } else {
+                ordering.scheduleRetry(orderRetryPolicy.nextAttemptAt(ordering.getRetryCount()));
+                log.warn("재고 복구 재시도 실패 - 주문 ID: {}, 다음 시도: {}", id, ordering.getNextAttemptAt());
+            }
+            return;
+        }
+
+        // 라인별 진행 상태가 없는 예전 주문의 상세 내역은 믿을 수 없으니 지우고 원본으로 다시 만든다.
+        // 그 외에는 지난 시도의 상세 내역을 그대로 두고, 완료되지 않은 라인만 이어서 처리.
+        if (ordering.getOrderDetails().stream().anyMatch(detail -> detail.getStatus() == null)) {
+            ordering.getOrderDetails().clear();
+        }
+        ordering.updateStatus(OrderStatus.ORDERED);
+        completeOrder(ordering);
+
+        if (ordering.getOrderStatus().isPending()) {
+            // 또 실패 -> 재시도 횟수에 따라 다음 시도 시각을 점점 뒤로 미룬다.
+            ordering.scheduleRetry(orderRetryPolicy.nextAttemptAt(ordering.getRetryCount()));
+            log.warn("재처리 실패 - 주문 ID: {}, 상태: {}, 다음 시도: {}",
+                    id, ordering.getOrderStatus(), ordering.getNextAttemptAt());
+        }
+        salesRollupService.record(ordering);
+    }
+
+    // 재처리 도중 예외로 롤백된 주문도 바로 다시 집히지 않도록 다음 시도 시각만 미뤄두고 리스를 푼다.
+    public void deferRetry(Long id, String owner) {
+        orderingRepository.findByIdForUpdate(id)
+                .filter(ordering -> ordering.isLeasedBy(owner, LocalDateTime.now()))
+                .ifPresent(ordering -> {
+                    ordering.scheduleRetry(orderRetryPolicy.nextAttemptAt(ordering.getRetryCount()));
+                    ordering.releaseLease();
+                });
+    }
+
+    // 저장된 주문 원본으로 회원 확인 ~ 재고 차감까지 진행. (비동기 접수 주문, 보류 주문 재처리에서 공통 사용)
+    // 호출 전에 상태를 ORDERED로 바꿔 두면, 실패한 단계에 따라 PENDING_* 또는 REJECTED로 바뀐다.
+    private void completeOrder(Ordering ordering) {
+        Long id = ordering.getId();
+        List<OrderingSaveReqDto> dtoList;
+        try {
+            dtoList = loadOriginalRequest(id);
+        } catch (IOException | RuntimeException e) {
+            log.error("주문 원본 복원 실패 - 주문 ID: {}, {}", id, e.getMessage());
+            ordering.updateStatus(OrderStatus.REJECTED);
+            return;
+        }
+
+        try {
+            if (ordering.getUserId() == null) {
+                UserResDto userDto = getUserResDto(ordering.getUserEmail());
+                ordering.setUserId(userDto.getId());
+            }
+        } catch (Exception e) {
+            log.error("user-service 장애. 주문 보류로 처리합니다. 주문 ID: {}, {}", id, e.getMessage());
+            ordering.updateStatus(OrderStatus.PENDING_USER_FAILURE);
+            return;
+        }
+
+        try {
+            processOrderToProductService(dtoList, ordering.getUserId(), ordering);
+        } catch (IllegalArgumentException e) {
+            // 동기 방식이었다면 400으로 응답했을 상황 -> 거절 상태로 남겨서 클라이언트가 조회할 수 있게.
+            log.warn("주문 거절 - 주문 ID: {}, 이유: {}", id, e.getMessage());
+            ordering.getOrderDetails().clear();
+            ordering.updateStatus(OrderStatus.REJECTED);
+        }
+    }
+
+    // 주문 원본 읽기 (재처리 경로에서만 사용). 별도 테이블에 없으면 예전 JSON 컬럼에서 읽는다.
+    private List<OrderingSaveReqDto> loadOriginalRequest(Long id) throws IOException {
+        Optional<OrderRequestSnapshot> snapshot = orderRequestSnapshotRepository.findById(id);
+        if (snapshot.isPresent()) {
+            return orderRequestCodec.decode(snapshot.get().getPayload());
+        }
+
+        String legacyJson = legacyOrderRequestRepository.findRequestJson(id).orElseThrow(
+                () -> new IllegalStateException("저장된 주문 원본이 없습니다.")
+        );
+        return orderRequestCodec.decodeLegacyJson(legacyJson);
+    }
+
+    // 주문 처리 상태 조회 (본인 주문 또는 ADMIN만)
+    @Transactional(readOnly = true)
+    public OrderStatusResDto getOrderStatus(long id, TokenUserInfo userInfo) {
+        // 운영 테이블에 없으면 보관된 주문인지 확인
+        Ordering ordering = orderingRepository.findById(id)
+                .or(() -> orderArchiveService.findOrder(id))
+                .orElseThrow(() -> new EntityNotFoundException("주문 없음!"));
+        if (userInfo.getRole() != Role.ADMIN
+                && !ordering.getUserEmail().equals(userInfo.getEmail())) {
+            // 남의 주문은 존재 여부도 알려주지 않는다.
+            throw new EntityNotFoundException("주문 없음!");
+        }
+
+        return OrderStatusResDto.builder()
+                .id(ordering.getId())
+                .orderStatus(ordering.getOrderStatus())
+                .build();
+    }
+
+    // 토큰에 회원 id가 들어 있으면 그대로 사용하고, id가 없는 예전 토큰일 때만 user-service에 물어본다.
+    private Long resolveUserId(TokenUserInfo userInfo) {
+        if (userInfo.getUserId() != null) {
+            return userInfo.getUserId();
+        }
+        UserResDto userDto = getUserResDto(userInfo.getEmail());
+        log.info("user-service로부터 전달받은 결과: {}", userDto);
+        return userDto.getId();
     }
 
     public UserResDto getUserResDto(String email) {
@@ -115,7 +365,7 @@ public class OrderingService {
         // Ordering 객체를 생성하기 위해 회원 정보를 얻어오자.
         // 우리가 가진 유일한 정보는 토큰 안에 들어있던 이메일 뿐입니다...
         // 이메일을 가지고 요청을 보내자 -> user-service
-        CommonResDto<UserResDto> byEmail = userCircuit.run(
+        CommonResDto<UserResDto> byEmail = concurrencyLimiters.execute("userService", () -> userCircuit.run(
                 // 정상 호출
                 () -> userServiceClient.findByEmail(email)
 //                    throwable -> {
@@ -125,7 +375,7 @@ public class OrderingService {
                 // 우리의 상황 -> user-service에서 장애 발생하면 id를 받아올 방법이 아예 없음;;
                 // 정상 호출을 완벽하게 대체할 수 없음. try-catch로 주문 흐름을 보류쪽으로 빼서 작업.
 //                    }
-        );
+        ));
         return byEmail.getResult();
     }
 
@@ -133,83 +383,305 @@ public class OrderingService {
                                              Long userId,
                                              Ordering ordering
     ) {
-        // 주문 상세 내역에 대한 처리를 반복해서 지정.
-        for (OrderingSaveReqDto dto : dtoList) {
+        // 주문 상세 내역을 라인별 진행 상태와 함께 먼저 만들어 둔다.
+        // 재처리일 때는 지난 시도에서 만든 내역을 그대로 이어서 사용.
+        if (ordering.getOrderDetails().isEmpty()) {
+            for (OrderingSaveReqDto dto : dtoList) {
+                ordering.getOrderDetails().add(toOrderDetail(dto, ordering));
+            }
+            // 라인 id를 재고 요청의 요청 id로 보내므로 product-service를 호출하기 전에 id를 받아 둔다.
+            // (응답이 유실되어 같은 라인을 다시 보내도 product-service가 한 번만 차감)
+            if (ordering.getId() == null) {
+                orderingRepository.save(ordering);
+            } else {
+                orderingRepository.flush();
+            }
+        }
 
-            try {
-                // dto 안에 있는 상품 id를 이용해서 상품 정보 얻어오자.
-                // product 객체를 조회하자 -> product-service에게 요청해야 함!
-                ProductResDto prodResDto = getProductInfo(dto.getProductId());
+        // 재고 차감까지 끝나지 않은 라인만 처리 -> 이미 차감된 라인은 다시 요청하지 않는다. (중복 차감 방지)
+        List<OrderDetail> remaining = ordering.getOrderDetails().stream()
+                .filter(detail -> detail.getStatus() != OrderDetailStatus.DEDUCTED)
+                .collect(Collectors.toList());
+        if (remaining.isEmpty()) return;
 
-                log.info("product-service로부터 받아온 결과: {}", prodResDto);
-                int stockQuantity = prodResDto.getStockQuantity();
+        try {
+            if (bulkReserve) {
+                reserveStockInBulk(remaining, ordering);
+            } else {
+                processLineByLine(remaining, ordering);
+            }
+        } catch (IllegalArgumentException e) {
+            // 재고 부족으로 주문 불가 -> 앞선 시도에서 이미 차감된 라인이 있다면 되돌려 놓는다.
+            if (!restoreDeductedLines(ordering)) {
+                // 되돌리지 못했으면 차감 기록(주문 상세)을 남긴 채 복구 대기로 두고, 재처리 스케줄러가 복구를 이어서 한다.
+                log.warn("재고 부족으로 거절할 주문의 재고 복구 실패 -> 복구 대기. 주문 ID: {}", ordering.getId());
+                holdOrder(ordering, OrderStatus.PENDING_STOCK_RESTORE);
+                return;
+            }
+            throw e;
+        }
+    }
 
-                // 재고 넉넉하게 있는지 확인
-                int quantity = dto.getProductQuantity();
-                if (stockQuantity < quantity) {
-                    throw new IllegalArgumentException("재고 부족!");
-                }
+    // 상품마다 조회 + 차감 요청을 따로 보내는 방식
+    private void processLineByLine(List<OrderDetail> remaining, Ordering ordering) {
+        // 재고 확인이 끝난(RESERVED) 라인은 조회를 건너뛰고 차감만 다시 시도한다.
+        List<OrderingSaveReqDto> lookupTargets = remaining.stream()
+                .filter(detail -> detail.getStatus() != OrderDetailStatus.RESERVED)
+                .map(OrderDetail::toSaveReqDto)
+                .collect(Collectors.toList());
+
+        // 조회할 라인의 상품 조회를 먼저 동시에 보내 놓는다. -> 주문 지연 = 가장 느린 라인 하나의 지연
+        Map<Long, CompletableFuture<ProductResDto>> lookups = lookupProducts(lookupTargets);
+
+        // 재고 부족은 차감을 시작하기 전에 전부 확인. (앞 라인만 차감된 채로 주문이 실패하지 않도록)
+        // 조회에 실패한 라인은 아래 반복문에서 라인별로 보류 처리.
+        // 같은 상품이 여러 라인에 나눠서 들어올 수 있으니 차감할 라인의 수량을 상품별로 합산해서 비교한다.
+        Map<Long, Integer> requested = remaining.stream()
+                .collect(Collectors.toMap(OrderDetail::getProductId, OrderDetail::getQuantity, Integer::sum));
+        for (Map.Entry<Long, CompletableFuture<ProductResDto>> lookup : lookups.entrySet()) {
+            ProductResDto prodResDto = lookup.getValue().handle((r, e) -> r).join();
+            if (prodResDto != null && prodResDto.getStockQuantity() < requested.get(lookup.getKey())) {
+                log.warn("재고 부족으로 주문 불가! 상품 ID: {}", lookup.getKey());
+                throw new IllegalArgumentException("재고 부족!");
+            }
+        }
+
+        // 주문 상세 내역에 대한 처리를 반복해서 지정.
+        for (OrderDetail detail : remaining) {
 
-                deductStock(prodResDto, quantity);
+            try {
+                if (detail.getStatus() != OrderDetailStatus.RESERVED) {
+                    // 미리 보내둔 상품 조회 결과를 꺼낸다. (실패했다면 ServiceUnavailableException)
+                    ProductResDto prodResDto = awaitProductInfo(lookups.get(detail.getProductId()));
+                    log.info("product-service로부터 받아온 결과: {}", prodResDto);
+
+                    // 재고 넉넉하게 있는지 확인
+                    if (prodResDto.getStockQuantity() < detail.getQuantity()) {
+                        throw new IllegalArgumentException("재고 부족!");
+                    }
+                    detail.recordProduct(prodResDto.getName(), prodResDto.getPrice());
+                    detail.updateStatus(OrderDetailStatus.RESERVED);
+                }
 
-                // 주문 상세 내역 엔터티 생성
-                OrderDetail orderDetail = OrderDetail.builder()
-                        .productId(dto.getProductId())
-                        .ordering(ordering)
-                        .quantity(quantity)
-                        .build();
+                deductStock(detail);
+                detail.updateStatus(OrderDetailStatus.DEDUCTED);
 
-                // 주문 내역 리스트에 상세 내역을 add하기.
-                // (cascadeType.PERSIST로 세팅했기 때문에 함께 INSERT가 진행될 것!)
-                ordering.getOrderDetails().add(orderDetail);
             } catch (ServiceUnavailableException e) {
                 // product와의 통신에서는 경우의 수가 2가지 이기 때문에
                 // 에러 메세지에 포함 되어있는 단어의 유무에 따라 status를 다르게 세팅.
+                boolean deductFailed = e.getMessage().contains("차감");
                 ordering.updateStatus(
-                        e.getMessage().contains("차감") ?
+                        deductFailed ?
                                 OrderStatus.PENDING_PROD_STOCK_UPDATE :
                                 OrderStatus.PENDING_PROD_NOT_FOUND
                 );
-                // catch 블록에서는 이 상품만 다시 add
-                ordering.getOrderDetails().add(toOrderDetail(dto, ordering));
+                // 차감 요청만 실패한 라인은 RESERVED로 남겨서 다음엔 차감만 다시 시도
+                if (!deductFailed) {
+                    detail.updateStatus(OrderDetailStatus.FAILED);
+                }
                 orderingRepository.save(ordering);
 
             } catch (IllegalArgumentException e) {
                 // 이 상황은 주문 보류가 아니에요! 서비스 장애 때문에 벌어진 상황이 아님!
-                log.warn("재고 부족으로 주문 불가! 상품 ID: {}, 오류: {}", dto.getProductId(), e.getMessage());
+                log.warn("재고 부족으로 주문 불가! 상품 ID: {}, 오류: {}", detail.getProductId(), e.getMessage());
                 throw e; // 클라이언트 예외니까 그대로 던짐 -> 컨트롤러 -> 전역 예외 핸들러가 클라이언트로 상태를 전달.
             }
         }
     }
 
+    // 남은 라인을 product-service에 한 번에 보내서 재고를 확인 및 차감하는 메서드
+    // 라인 수와 상관 없이 네트워크 왕복 1번, 서킷브레이커 호출 1번으로 끝난다.
+    private void reserveStockInBulk(List<OrderDetail> remaining, Ordering ordering) {
+        List<StockReserveReqDto> reqList = remaining.stream()
+                .map(OrderDetail::toReserveReqDto)
+                .collect(Collectors.toList());
+
+        List<StockResultDto> results;
+        try {
+            CircuitBreaker reserveCircuit = circuitBreakerFactory.create("productServiceUpdate");
+            results = concurrencyLimiters.execute("productServiceUpdate", () -> reserveCircuit.run(
+                    () -> productServiceClient.reserveStock(reqList).getResult()
+            ));
+        } catch (Exception e) {
+            // 통신 장애 -> 재고가 차감되었는지 알 수 없으니 재고 차감 보류로 처리.
+            log.error("재고 일괄 차감 실패! 오류: {}", e.getMessage());
+            holdOrder(ordering, OrderStatus.PENDING_PROD_STOCK_UPDATE);
+            return;
+        }
+
+        // product-service는 한 라인이라도 실패하면 아무것도 차감하지 않는다. (all or nothing)
+        // 재고 부족이 하나라도 있으면 다른 라인의 결과와 상관없이 거절.
+        for (StockResultDto result : results) {
+            if (result.getFailReason() == StockResultDto.FailReason.INSUFFICIENT_STOCK) {
+                log.warn("재고 부족으로 주문 불가! 상품 ID: {}", result.getProductId());
+                throw new IllegalArgumentException("재고 부족! 상품 ID: " + result.getProductId());
+            }
+        }
+
+        // 없는 상품(NOT_FOUND) 라인만 실패로 표시해서 보류.
+        // NOT_ATTEMPTED 라인은 다른 라인 때문에 처리되지 않았을 뿐이라 상태를 그대로 둔다.
+        boolean notFound = false;
+        for (StockResultDto result : results) {
+            if (result.getFailReason() != StockResultDto.FailReason.NOT_FOUND) continue;
+
+            log.error("상품 정보 조회 실패! 상품 ID: {}", result.getProductId());
+            remaining.stream()
+                    .filter(detail -> detail.getProductId().equals(result.getProductId()))
+                    .forEach(detail -> detail.updateStatus(OrderDetailStatus.FAILED));
+            notFound = true;
+        }
+        if (notFound) {
+            holdOrder(ordering, OrderStatus.PENDING_PROD_NOT_FOUND);
+            return;
+        }
+        if (results.stream().anyMatch(result -> !result.isSuccess())) {
+            // 실패 원인을 알 수 없는 결과 -> 아무것도 차감되지 않았으니 재고 차감 보류로 두고 재시도
+            log.error("재고 일괄 차감 결과를 해석할 수 없음! 결과: {}", results);
+            holdOrder(ordering, OrderStatus.PENDING_PROD_STOCK_UPDATE);
+            return;
+        }
+
+        // product-service가 돌려준 상품명과 단가를 주문 상세에 기록
+        Map<Long, StockResultDto> resultMap = results.stream()
+                .collect(Collectors.toMap(StockResultDto::getProductId, result -> result, (a, b) -> a));
+        for (OrderDetail detail : remaining) {
+            StockResultDto result = resultMap.get(detail.getProductId());
+            if (result != null) {
+                detail.recordProduct(result.getProductName(), result.getPrice());
+            }
+            detail.updateStatus(OrderDetailStatus.DEDUCTED);
+        }
+    }
+
+    // 주문 보류 처리: 라인별 진행 상태가 저장되어 있으니 나중에 남은 라인만 재처리 한다.
+    private void holdOrder(Ordering ordering, OrderStatus status) {
+        ordering.updateStatus(status);
+        orderingRepository.save(ordering);
+    }
+
     // 재고를 주문수량만큼 감소시켜달라는 요청을 전담하는 메서드
-    private void deductStock(ProductResDto prodResDto, int quantity) {
+    // 남은 재고를 계산해서 보내지 않고 차감할 수량만 보낸다. -> product-service가 조건부로 차감.
+    // 라인 id를 요청 id로 함께 보낸다. -> 응답을 못 받아 다시 보내도 한 번만 차감된다.
+    private void deductStock(OrderDetail detail) {
+        Long productId = detail.getProductId();
+        StockResultDto result;
         try {
             CircuitBreaker updateCircuit = circuitBreakerFactory.create("productServiceUpdate");
 
-            updateCircuit.run(() -> {
-                prodResDto.setStockQuantity(prodResDto.getStockQuantity() - quantity);
-                productServiceClient.updateQuantity(prodResDto);
-                return null;
-            });
+            result = concurrencyLimiters.execute("productServiceUpdate", () -> updateCircuit.run(
+                    () -> productServiceClient.changeStock(
+                            StockChangeReqDto.builder()
+                                    .productId(productId)
+                                    .delta(-detail.getQuantity())
+                                    .requestId(detail.getId())
+                                    .build()
+                    ).getResult()));
 
         } catch (Exception e) {
-            log.error("재고 차감 실패! 상품 ID: {}, 오류: {}", prodResDto.getId(), e.getMessage());
+            log.error("재고 차감 실패! 상품 ID: {}, 오류: {}", productId, e.getMessage());
             throw new ServiceUnavailableException("재고 차감 실패");
         }
+
+        if (result.getFailReason() == StockResultDto.FailReason.NOT_FOUND) {
+            throw new ServiceUnavailableException("상품 정보 조회 실패");
+        }
+        if (!result.isSuccess()) {
+            // 조회 시점에는 재고가 있었지만 그 사이에 다른 주문이 먼저 가져간 경우
+            throw new IllegalArgumentException("재고 부족!");
+        }
+    }
+
+    // 주문이 거절될 때 이미 차감된 라인의 재고를 라인별로 되돌린다. 전부 되돌렸으면 true.
+    // 복구 요청 id는 차감 요청 id(라인 id)의 음수 -> 응답을 못 받아 다시 보내도 한 번만 복구된다.
+    // 되돌린 라인은 PENDING으로 바꿔 두므로, 중간에 실패하면 다음 시도에서 남은 라인만 이어서 복구한다.
+    private boolean restoreDeductedLines(Ordering ordering) {
+        List<OrderDetail> deducted = ordering.getOrderDetails().stream()
+                .filter(detail -> detail.getStatus() == OrderDetailStatus.DEDUCTED)
+                .collect(Collectors.toList());
+
+        // 다른 재고 변경 요청과 같은 서킷/동시 호출 한도를 거친다. (product-service가 느리면 기다리지 않고 바로 복구 대기)
+        CircuitBreaker updateCircuit = circuitBreakerFactory.create("productServiceUpdate");
+        for (OrderDetail detail : deducted) {
+            try {
+                StockResultDto result = concurrencyLimiters.execute("productServiceUpdate", () -> updateCircuit.run(
+                        () -> productServiceClient.changeStock(
+                                StockChangeReqDto.builder()
+                                        .productId(detail.getProductId())
+                                        .delta(detail.getQuantity())
+                                        .requestId(-detail.getId())
+                                        .build()
+                        ).getResult()));
+                if (!result.isSuccess()) {
+                    throw new IllegalStateException("재고 복구 결과 실패: " + result.getFailReason());
+                }
+                detail.updateStatus(OrderDetailStatus.PENDING);
+            } catch (Exception e) {
+                log.error("거절된 주문의 재고 복구 실패! 주문 ID: {}, 상품 ID: {}, 수량: {}, 오류: {}",
+                        ordering.getId(), detail.getProductId(), detail.getQuantity(), e.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 재고가 실제로 차감된 라인만 상품별로 합산.
+    // 라인 상태가 없는 예전 주문은 ORDERED일 때만 전부 차감된 것으로 본다.
+    private Map<Long, Integer> deductedQuantities(Ordering ordering) {
+        boolean legacyDeducted = ordering.getOrderStatus() == OrderStatus.ORDERED;
+        return ordering.getOrderDetails().stream()
+                .filter(detail -> detail.getStatus() == OrderDetailStatus.DEDUCTED
+                        || (detail.getStatus() == null && legacyDeducted))
+                .collect(Collectors.toMap(
+                        OrderDetail::getProductId,
+                        OrderDetail::getQuantity,
+                        Integer::sum // 같은 상품이 여러 라인에 있으면 수량 합산
+                ));
+    }
+
+    // 주문에 담긴 상품들의 조회를 productLookupExecutor에서 동시에 실행. (같은 상품은 한 번만 조회)
+    // 주문 한 건이 풀을 독점하지 않도록 동시에 나가는 요청 수를 lookupConcurrencyPerOrder로 제한한다.
+    private Map<Long, CompletableFuture<ProductResDto>> lookupProducts(List<OrderingSaveReqDto> dtoList) {
+        Semaphore permits = new Semaphore(lookupConcurrencyPerOrder);
+        Map<Long, CompletableFuture<ProductResDto>> lookups = new LinkedHashMap<>();
+
+        for (OrderingSaveReqDto dto : dtoList) {
+            lookups.computeIfAbsent(dto.getProductId(), productId -> {
+                permits.acquireUninterruptibly();
+                return CompletableFuture
+                        .supplyAsync(() -> getProductInfo(productId), productLookupExecutor)
+                        .whenComplete((result, e) -> permits.release());
+            });
+        }
+        return lookups;
+    }
+
+    // 조회 결과를 기다렸다가 꺼낸다. 조회 중 발생한 예외(ServiceUnavailableException)는 그대로 다시 던짐.
+    private ProductResDto awaitProductInfo(CompletableFuture<ProductResDto> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
     }
 
     // 번호를 전달받아서 product-service로부터 상품 정보 조회를 전담하는 메서드
+    // 같은 상품을 동시에 조회하는 주문들은 원격 호출 하나의 결과(또는 실패)를 함께 받는다.
     private ProductResDto getProductInfo(Long productId) {
+        return productLookupCoalescer.lookup(productId, () -> fetchProductInfo(productId));
+    }
+
+    private ProductResDto fetchProductInfo(Long productId) {
         try {
             CircuitBreaker productCircuit = circuitBreakerFactory.create("productService");
 
             // 여기도 장애 발생 시 fallback 로직을 작성하지 않았습니다. 왜냐?
             // 대체 로직이 정상 상황을 완벽하게 대체할 수가 없으니깐... -> 주문 보류!
             // user-service쪽과 마찬가지로 아예 예외로 빼서 나중에 재처리 해 줄겁니다.
-            CommonResDto<ProductResDto> byId = productCircuit.run(
-                    () -> productServiceClient.findById(productId)
-            );
+            // 응답이 늦으면 다른 인스턴스로 한 번 더 요청 (order.product.hedge)
+            CommonResDto<ProductResDto> byId = concurrencyLimiters.execute("productService", () -> productCircuit.run(
+                    () -> hedgedProductReader.findById(productId)
+            ));
             return byId.getResult();
         } catch (Exception e) {
             log.error("상품 정보 조회 실패! 상품 ID: {}, 오류: {}", productId, e.getMessage());
@@ -222,45 +694,78 @@ public class OrderingService {
                 .productId(dto.getProductId())
                 .quantity(dto.getProductQuantity())
                 .ordering(ordering)
+                .status(OrderDetailStatus.PENDING)
                 .build();
     }
 
-    public List<OrderingListResDto> myOrder(final TokenUserInfo userInfo) {
+    // cursor: 이전 페이지의 마지막 주문 id (첫 페이지는 null), size: 페이지 크기
+    @Transactional(readOnly = true)
+    public List<OrderingListResDto> myOrder(final TokenUserInfo userInfo, Long cursor, int size) {
         String email = userInfo.getEmail();
 
         // 이메일로는 주문 회원 정보를 알 수가 없음. (id로 되어 있으니까)
-        CommonResDto<UserResDto> byEmail
-                = userServiceClient.findByEmail(email);
-        UserResDto userDto = byEmail.getResult();
+        // 토큰에 id가 있으면 그대로 쓰고, 예전 토큰일 때만 user-service에 요청.
+        Long userId = userInfo.getUserId();
+        if (userId == null) {
+            CommonResDto<UserResDto> byEmail
+                    = userServiceClient.findByEmail(email);
+            userId = byEmail.getResult().getId();
+        }
 
-        // 해당 사용자의 주문 내역 전부 가져오기.
-        List<Ordering> orderingList
-                = orderingRepository.findByUserId(userDto.getId());
+        // 해당 사용자의 주문 내역을 최신순으로 한 페이지만 가져오기.
+        // 1. cursor 이전의 주문 id를 size개 조회 (keyset 페이징 -> 뒤 페이지로 가도 느려지지 않음)
+        // 2. 그 주문들을 상세 내역과 함께 한 번에 조회 (fetch join -> N+1 없음)
+        long before = cursor != null ? cursor : Long.MAX_VALUE;
+        int pageSize = Math.min(Math.max(size, 1), MY_ORDER_MAX_PAGE_SIZE);
+        List<Long> orderIds = orderingRepository.findIdsByUserIdBefore(
+                userId, before, PageRequest.of(0, pageSize)
+        );
+        List<Ordering> orderingList = orderIds.isEmpty()
+                ? new ArrayList<>()
+                : new ArrayList<>(orderingRepository.findWithDetailsByIdIn(orderIds));
+
+        // 3. 오래된 주문은 보관 테이블로 옮겨져 있으니 이 페이지 범위에 들어가는 보관 주문도 함께 조회해서 합친다.
+        //    운영 테이블에서 한 페이지를 다 채웠다면 그 페이지의 가장 작은 id보다 큰 것만 보면 된다. (보통 0건)
+        long afterId = orderIds.size() == pageSize ? orderIds.get(orderIds.size() - 1) : 0L;
+        List<Ordering> archived = orderArchiveService.findUserOrders(userId, afterId, before, pageSize);
+        if (!archived.isEmpty()) {
+            orderingList.addAll(archived);
+            orderingList = orderingList.stream()
+                    .sorted(Comparator.comparing(Ordering::getId).reversed())
+                    .limit(pageSize)
+                    .collect(Collectors.toList());
+        }
+        if (orderingList.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        List<Long> productIdList = new ArrayList<>();
-        // 주문 내역에서 모든 상품 ID를 추출한 후
-        // product-service에게 상품 정보를 요청.
+        // 상품명과 단가는 주문 당시에 주문 상세에 저장해 두었으므로 product-service에 묻지 않는다.
+        // 상품명이 저장되기 전에 만들어진 예전 주문의 상품만 product-service에게 상품 정보를 요청.
 
         /*
          OrderingListResDto -> OrderDetailDto(static 내부 클래스)
          {
             id: 주문번호,
             userEmail: 주문한 사람 이메일,
-            orderStatus: 주문 상태
+            orderStatus: 주문 상태,
+            totalPrice: 주문 총액,
             orderDetails: [
                 {
                     id: 주문상세번호,
                     productName: 상품명,
+                    price: 주문 당시 단가,
                     count: 수량
                 },
                 {
                     id: 주문상세번호,
                     productName: 상품명,
+                    price: 주문 당시 단가,
                     count: 수량
                 },
                 {
                     id: 주문상세번호,
                     productName: 상품명,
+                    price: 주문 당시 단가,
                     count: 수량
                 }
                 ...
@@ -291,21 +796,30 @@ public class OrderingService {
                  */
 
                 .flatMap(ordering -> ordering.getOrderDetails().stream())
+                .filter(orderDetail -> orderDetail.getProductName() == null)
                 .map(orderDetail -> orderDetail.getProductId())
                 .distinct()
                 .collect(Collectors.toList());
 
-        // product-service에게 상품 정보를 달라고 요청해야 함.
-        CommonResDto<List<ProductResDto>> products
-                = productServiceClient.getProducts(productIds);
-        List<ProductResDto> dtoList = products.getResult();
-
-        // product-service에게 받아온 리스트를 필요로 하는 정보로만 맵으로 맵핑.
-        Map<Long, String> productIdToNameMap = dtoList.stream()
-                .collect(Collectors.toMap(
-                        dto -> dto.getId(), // key
-                        dto -> dto.getName() // value
-                ));
+        Map<Long, String> productIdToNameMap = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            try {
+                // product-service에게 상품 정보를 달라고 요청해야 함.
+                // 조회 트랜잭션(DB 커넥션)을 잡은 채로 기다리지 않도록 상품 조회와 같은 서킷/동시 호출 한도를 적용.
+                CircuitBreaker productCircuit = circuitBreakerFactory.create("productService");
+                CommonResDto<List<ProductResDto>> products
+                        = concurrencyLimiters.execute("productService", () -> productCircuit.run(
+                                () -> hedgedProductReader.getProducts(productIds)
+                        ));
+                List<ProductResDto> dtoList = products.getResult();
+
+                // product-service에게 받아온 리스트를 필요로 하는 정보로만 맵으로 맵핑.
+                dtoList.forEach(dto -> productIdToNameMap.put(dto.getId(), dto.getName()));
+            } catch (Exception e) {
+                // 예전 주문의 상품명만 비어 있을 뿐 주문 내역 조회 자체는 실패시키지 않는다.
+                log.warn("예전 주문의 상품명 조회 실패: {}", e.getMessage());
+            }
+        }
 
         // Ordering 객체를 DTO로 변환하자. 주문 상세에 대한 변환도 따로 처리.
         return orderingList.stream()
@@ -314,25 +828,36 @@ public class OrderingService {
     }
 
     public Ordering cancelOrder(long id) {
-        Ordering ordering = orderingRepository.findById(id).orElseThrow(
-                () -> new EntityNotFoundException("주문 없음!")
-        );
+        // 행을 잠그고 읽는다. 워커나 재처리 스케줄러가 이 주문의 재고를 차감하는 중이면 그 트랜잭션이 끝날 때까지 기다렸다가
+        // 차감 결과(DEDUCTED 라인)를 본 뒤에 복구할 라인을 정한다. (잠금 없이 읽으면 복구할 라인을 놓치고 상태만 덮어씀)
+        Ordering ordering = orderingRepository.findByIdForUpdate(id).orElse(null);
+        if (ordering == null) {
+            // 보관 테이블로 옮겨진 주문은 판매 집계까지 끝난 오래된 주문이라 취소 대상이 아니다.
+            if (orderArchiveService.findOrder(id).isPresent()) {
+                throw new IllegalArgumentException("보관 처리된 주문은 취소할 수 없습니다.");
+            }
+            throw new EntityNotFoundException("주문 없음!");
+        }
+        // 상태 확인은 잠금을 잡은 뒤에 해야 한다.
+        if (!ordering.getOrderStatus().isCancellable()) {
+            throw new IllegalArgumentException(
+                    "취소할 수 없는 주문입니다. (주문 상태: " + ordering.getOrderStatus() + ")");
+        }
         // 주문 취소 -> 주문 entity의 status를 CANCELED로 변경
         // 당시 주문했던 상품들의 수량을 원상복구 해 놓아야 한다.
         // 주문1 -> 상품34: 3개, 상품17: 5개 -> 주문 들어갔을 때 감소했으니까, 주문 취소때는 증가 시켜야 한다.
-        List<OrderDetail> orderDetailList = ordering.getOrderDetails();
-        Map<Long, Integer> map = orderDetailList.stream()
-                .collect(Collectors.toMap(
-                        detail -> detail.getProductId(),
-                        detail -> detail.getQuantity()
-                ));
+        // 단, 실제로 재고가 차감된 라인만 복구한다. (보류 중인 주문의 미처리 라인은 복구하면 안 됨)
+        Map<Long, Integer> map = deductedQuantities(ordering);
         log.info("toMap의 결과: {}", map);
-        productServiceClient.cancelProduct(map);
+        if (!map.isEmpty()) {
+            productServiceClient.cancelProduct(map);
+        }
 
 
         // 더티 체킹 (save를 하지 않아도 변경을 감지해서 update를 날려 준다.)
         ordering.updateStatus(OrderStatus.CANCELED);
 //        orderingRepository.save(ordering);
+        salesRollupService.record(ordering);
         return ordering;
     }
 
@@ -0,0 +1,57 @@
+package com.playdata.orderingservice.sales.controller;
+
+import com.playdata.orderingservice.common.dto.CommonResDto;
+import com.playdata.orderingservice.sales.dto.ProductDailySalesResDto;
+import com.playdata.orderingservice.sales.dto.ProductSalesTotalResDto;
+import com.playdata.orderingservice.sales.service.SalesRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// 판매 집계 조회 (ADMIN 전용). 주문 테이블이 아니라 미리 집계된 product_daily_sales만 읽는다.
+@RestController
+@RequestMapping("/order/admin/sales")
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupController {
+
+    private final SalesRollupService salesRollupService;
+
+    // 일자별 판매량: /order/admin/sales/daily?from=2024-01-01&to=2024-01-31&productId=3 (productId 생략 시 전체 상품)
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/daily")
+    public ResponseEntity<?> dailySales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long productId) {
+        log.info("/order/admin/sales/daily: GET, from: {}, to: {}, productId: {}", from, to, productId);
+        List<ProductDailySalesResDto> dtos = salesRollupService.getDailySales(productId, from, to);
+        CommonResDto<List<ProductDailySalesResDto>> resDto
+                = new CommonResDto<>(HttpStatus.OK, "정상 조회 완료", dtos);
+        return ResponseEntity.ok().body(resDto);
+    }
+
+    // 기간 내 상품별 합계 (순판매량 많은 순)
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/products")
+    public ResponseEntity<?> productTotals(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("/order/admin/sales/products: GET, from: {}, to: {}", from, to);
+        List<ProductSalesTotalResDto> dtos = salesRollupService.getProductTotals(from, to);
+        CommonResDto<List<ProductSalesTotalResDto>> resDto
+                = new CommonResDto<>(HttpStatus.OK, "정상 조회 완료", dtos);
+        return ResponseEntity.ok().body(resDto);
+    }
+
+}
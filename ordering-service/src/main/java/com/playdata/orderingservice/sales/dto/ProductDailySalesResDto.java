@@ -0,0 +1,32 @@
+package com.playdata.orderingservice.sales.dto;
+
+import com.playdata.orderingservice.sales.entity.ProductDailySales;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductDailySalesResDto {
+
+    private Long productId;
+    private LocalDate salesDate;
+    private long unitsOrdered;
+    private long unitsCanceled;
+    private long netUnits;
+    private long netAmount;
+
+    public static ProductDailySalesResDto fromEntity(ProductDailySales sales) {
+        return ProductDailySalesResDto.builder()
+                .productId(sales.getProductId())
+                .salesDate(sales.getSalesDate())
+                .unitsOrdered(sales.getUnitsOrdered())
+                .unitsCanceled(sales.getUnitsCanceled())
+                .netUnits(sales.getUnitsOrdered() - sales.getUnitsCanceled())
+                .netAmount(sales.getOrderedAmount() - sales.getCanceledAmount())
+                .build();
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.playdata.orderingservice.sales.dto;
+
+import lombok.*;
+
+// 기간 내 상품별 합계
+@Getter @Setter @ToString
+@NoArgsConstructor
+public class ProductSalesTotalResDto {
+
+    private Long productId;
+    private long unitsOrdered;
+    private long unitsCanceled;
+    private long netUnits;
+    private long netAmount;
+
+    // JPQL 생성자 표현식용 (SUM 결과는 Long)
+    public ProductSalesTotalResDto(Long productId, Long unitsOrdered, Long unitsCanceled,
+                                   Long orderedAmount, Long canceledAmount) {
+        this.productId = productId;
+        this.unitsOrdered = unitsOrdered;
+        this.unitsCanceled = unitsCanceled;
+        this.netUnits = unitsOrdered - unitsCanceled;
+        this.netAmount = orderedAmount - canceledAmount;
+    }
+
+}
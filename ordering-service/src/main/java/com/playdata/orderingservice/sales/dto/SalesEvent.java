@@ -0,0 +1,43 @@
+package com.playdata.orderingservice.sales.dto;
+
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// 주문 한 건이 ORDERED 또는 CANCELED가 되었다는 기록. (집계에 반영되기 전까지 메모리에 쌓아둔다)
+@Getter
+@ToString
+@AllArgsConstructor
+public class SalesEvent {
+
+    private Long orderId;
+    private OrderStatus orderStatus;
+    private LocalDate salesDate;
+    private List<Line> lines;
+
+    // 트랜잭션 안에서 바로 스냅샷을 떠 둔다. (커밋 후에는 지연 로딩이 안 되니까)
+    public static SalesEvent from(Ordering ordering) {
+        LocalDate salesDate = ordering.getCreateTime() != null
+                ? ordering.getCreateTime().toLocalDate() : LocalDate.now();
+        List<Line> lines = ordering.getOrderDetails().stream()
+                .map(detail -> new Line(detail.getProductId(), detail.getQuantity(), detail.getPrice()))
+                .collect(Collectors.toList());
+        return new SalesEvent(ordering.getId(), ordering.getOrderStatus(), salesDate, lines);
+    }
+
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class Line {
+        private Long productId;
+        private int quantity;
+        private Integer price;
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.playdata.orderingservice.sales.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// 상품별 · 일자별 판매 집계 (주문이 ORDERED / CANCELED로 바뀔 때마다 증분으로 누적)
+// 리포팅은 주문 테이블을 GROUP BY 하지 않고 이 테이블만 읽는다.
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+
+@Entity
+@Table(uniqueConstraints = {
+        // INSERT ... ON DUPLICATE KEY UPDATE 가 이 키로 같은 행을 찾아 누적한다.
+        @UniqueConstraint(name = "uk_product_daily_sales", columnNames = {"productId", "salesDate"})
+})
+public class ProductDailySales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long productId;
+
+    // 주문일 (주문 생성 시각 기준)
+    private LocalDate salesDate;
+
+    private long unitsOrdered;
+
+    private long unitsCanceled;
+
+    // 주문 당시 단가 기준 금액 (단가가 없는 예전 주문 라인은 0원으로 집계)
+    private long orderedAmount;
+
+    private long canceledAmount;
+
+    private LocalDateTime updateTime;
+
+}
@@ -0,0 +1,29 @@
+package com.playdata.orderingservice.sales.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// 집계 보정 스캔이 어디까지 확인했는지 기록하는 워터마크.
+// 이 시각 이전에 변경된 주문은 전부 집계에 반영된 상태. (서버가 죽었다 살아나면 여기서부터 다시 확인)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+
+@Entity
+public class SalesRollupWatermark {
+
+    @Id
+    private String name;
+
+    private LocalDateTime watermark;
+
+    public void advance(LocalDateTime watermark) {
+        this.watermark = watermark;
+    }
+
+}
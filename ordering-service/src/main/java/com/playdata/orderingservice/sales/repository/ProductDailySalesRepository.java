@@ -0,0 +1,41 @@
+package com.playdata.orderingservice.sales.repository;
+
+import com.playdata.orderingservice.sales.dto.ProductSalesTotalResDto;
+import com.playdata.orderingservice.sales.entity.ProductDailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ProductDailySalesRepository extends JpaRepository<ProductDailySales, Long> {
+
+    // 없으면 새 행, 있으면 기존 값에 더하기 (uk_product_daily_sales 기준, 행 하나만 잠금)
+    @Modifying
+    @Query(value = "INSERT INTO product_daily_sales " +
+            "(product_id, sales_date, units_ordered, units_canceled, ordered_amount, canceled_amount, update_time) " +
+            "VALUES (?1, ?2, ?3, ?4, ?5, ?6, NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "units_ordered = units_ordered + VALUES(units_ordered), " +
+            "units_canceled = units_canceled + VALUES(units_canceled), " +
+            "ordered_amount = ordered_amount + VALUES(ordered_amount), " +
+            "canceled_amount = canceled_amount + VALUES(canceled_amount), " +
+            "update_time = NOW()",
+            nativeQuery = true)
+    void accumulate(Long productId, LocalDate salesDate, long unitsOrdered, long unitsCanceled,
+                    long orderedAmount, long canceledAmount);
+
+    List<ProductDailySales> findBySalesDateBetweenOrderBySalesDateAscProductIdAsc(LocalDate from, LocalDate to);
+
+    List<ProductDailySales> findByProductIdAndSalesDateBetweenOrderBySalesDateAsc(
+            Long productId, LocalDate from, LocalDate to);
+
+    @Query("SELECT new com.playdata.orderingservice.sales.dto.ProductSalesTotalResDto(" +
+            "s.productId, SUM(s.unitsOrdered), SUM(s.unitsCanceled), SUM(s.orderedAmount), SUM(s.canceledAmount)) " +
+            "FROM ProductDailySales s WHERE s.salesDate BETWEEN ?1 AND ?2 " +
+            "GROUP BY s.productId " +
+            "ORDER BY SUM(s.unitsOrdered) - SUM(s.unitsCanceled) DESC")
+    List<ProductSalesTotalResDto> sumByProduct(LocalDate from, LocalDate to);
+
+}
@@ -0,0 +1,18 @@
+package com.playdata.orderingservice.sales.repository;
+
+import com.playdata.orderingservice.sales.entity.SalesRollupWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface SalesRollupWatermarkRepository extends JpaRepository<SalesRollupWatermark, String> {
+
+    // 워터마크 행을 잠가서 여러 인스턴스의 보정 스캔이 같은 구간을 동시에 처리하지 않도록.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM SalesRollupWatermark w WHERE w.name = ?1")
+    Optional<SalesRollupWatermark> findByNameForUpdate(String name);
+
+}
@@ -0,0 +1,69 @@
+package com.playdata.orderingservice.sales.service;
+
+import com.playdata.orderingservice.sales.dto.SalesEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupScheduler {
+
+    private final SalesRollupService salesRollupService;
+    private final SalesRollupWriter salesRollupWriter;
+
+    @Value("${order.sales-rollup.batch-size:500}")
+    private int batchSize;
+
+    // 이 시간 이내에 변경된 주문은 아직 커밋 중이거나 메모리 반영 대기 중일 수 있으니 보정 스캔에서 제외
+    @Value("${order.sales-rollup.reconcile-grace-seconds:120}")
+    private long reconcileGraceSeconds;
+
+    // 보정 스캔이 한 트랜잭션에서 훑는 최대 구간 (처음 실행 시 과거 이력을 조금씩 따라잡기 위함)
+    @Value("${order.sales-rollup.reconcile-window-minutes:60}")
+    private long reconcileWindowMinutes;
+
+    // 메모리에 쌓인 이벤트를 batchSize개씩 묶어서 반영
+    @Scheduled(fixedDelayString = "${order.sales-rollup.flush-interval-ms:5000}")
+    public void flush() {
+        List<SalesEvent> events;
+        while (!(events = salesRollupService.drain(batchSize)).isEmpty()) {
+            try {
+                int applied = salesRollupWriter.apply(events);
+                log.debug("판매 집계 반영 - 이벤트: {}, 반영된 주문: {}", events.size(), applied);
+            } catch (Exception e) {
+                // 반영 실패한 묶음은 버린다. 주문 쪽 표시가 그대로이므로 보정 스캔이 다시 반영한다.
+                log.warn("판매 집계 반영 실패 - 이벤트 {}건은 보정 스캔에서 반영: {}", events.size(), e.getMessage());
+            }
+        }
+    }
+
+    // 종료 전에 남은 이벤트 반영
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // 워터마크 이후 변경된 주문 중 집계에 빠진 것을 채운다. (메모리 이벤트 유실, 반영 실패 대비)
+    @Scheduled(fixedDelayString = "${order.sales-rollup.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        LocalDateTime upTo = LocalDateTime.now().minusSeconds(reconcileGraceSeconds);
+        Duration window = Duration.ofMinutes(reconcileWindowMinutes);
+        try {
+            while (!salesRollupWriter.reconcile(upTo, window, batchSize)) {
+                // 따라잡을 때까지 구간별로 반복 (구간마다 별도 트랜잭션)
+            }
+        } catch (Exception e) {
+            log.warn("판매 집계 보정 스캔 실패: {}", e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.playdata.orderingservice.sales.service;
+
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import com.playdata.orderingservice.sales.dto.ProductDailySalesResDto;
+import com.playdata.orderingservice.sales.dto.ProductSalesTotalResDto;
+import com.playdata.orderingservice.sales.dto.SalesEvent;
+import com.playdata.orderingservice.sales.repository.ProductDailySalesRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/*
+ 상품별 · 일자별 판매 집계.
+ 주문이 ORDERED / CANCELED로 바뀌면 커밋 직후 메모리에 이벤트를 쌓아 두고,
+ SalesRollupScheduler가 주기적으로 묶어서 한 트랜잭션으로 반영한다.
+ 서버가 죽어서 메모리의 이벤트가 사라져도 워터마크 기반 보정 스캔이 빠진 주문을 다시 채운다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupService {
+
+    private final ProductDailySalesRepository productDailySalesRepository;
+
+    private final Queue<SalesEvent> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferedCount = new AtomicInteger();
+
+    // 반영이 밀려 이벤트가 너무 많이 쌓이면 더 받지 않는다. (버려진 주문은 보정 스캔이 채움)
+    @Value("${order.sales-rollup.max-buffered-events:50000}")
+    private int maxBufferedEvents;
+
+    // 주문 상태 변경이 커밋된 뒤에만 쌓는다. (롤백된 주문이 집계되면 안 되니까)
+    public void record(Ordering ordering) {
+        OrderStatus status = ordering.getOrderStatus();
+        if (status != OrderStatus.ORDERED && status != OrderStatus.CANCELED) return;
+
+        SalesEvent event = SalesEvent.from(ordering);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(event);
+            }
+        });
+    }
+
+    // 쌓인 이벤트를 최대 max개 꺼낸다.
+    public List<SalesEvent> drain(int max) {
+        List<SalesEvent> events = new ArrayList<>();
+        SalesEvent event;
+        while (events.size() < max && (event = buffer.poll()) != null) {
+            events.add(event);
+        }
+        bufferedCount.addAndGet(-events.size());
+        return events;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductDailySalesResDto> getDailySales(Long productId, LocalDate from, LocalDate to) {
+        return (productId != null
+                ? productDailySalesRepository.findByProductIdAndSalesDateBetweenOrderBySalesDateAsc(productId, from, to)
+                : productDailySalesRepository.findBySalesDateBetweenOrderBySalesDateAscProductIdAsc(from, to))
+                .stream()
+                .map(ProductDailySalesResDto::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductSalesTotalResDto> getProductTotals(LocalDate from, LocalDate to) {
+        return productDailySalesRepository.sumByProduct(from, to);
+    }
+
+    private void enqueue(SalesEvent event) {
+        if (bufferedCount.incrementAndGet() > maxBufferedEvents) {
+            bufferedCount.decrementAndGet();
+            log.warn("판매 집계 대기열이 가득 참 - 주문 ID: {} (보정 스캔에서 반영)", event.getOrderId());
+            return;
+        }
+        buffer.add(event);
+    }
+
+}
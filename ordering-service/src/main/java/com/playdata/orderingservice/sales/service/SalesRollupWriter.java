@@ -0,0 +1,133 @@
+package com.playdata.orderingservice.sales.service;
+
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.repository.OrderingRepository;
+import com.playdata.orderingservice.sales.dto.SalesEvent;
+import com.playdata.orderingservice.sales.entity.SalesRollupWatermark;
+import com.playdata.orderingservice.sales.repository.ProductDailySalesRepository;
+import com.playdata.orderingservice.sales.repository.SalesRollupWatermarkRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/*
+ 판매 집계 반영.
+ 주문마다 rolledUpStatus를 조건부 UPDATE로 바꾼 뒤, 바꾸는 데 성공한 주문만 집계에 더한다.
+ 표시와 집계가 한 트랜잭션이라 같은 주문이 두 번 집계되는 일이 없다.
+ (메모리에서 반영하든, 보정 스캔이 반영하든, 여러 인스턴스가 동시에 반영하든 마찬가지)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class SalesRollupWriter {
+
+    private static final String WATERMARK_NAME = "product-daily-sales";
+    private static final List<OrderStatus> ROLLUP_STATUSES = List.of(OrderStatus.ORDERED, OrderStatus.CANCELED);
+
+    private final OrderingRepository orderingRepository;
+    private final ProductDailySalesRepository productDailySalesRepository;
+    private final SalesRollupWatermarkRepository watermarkRepository;
+
+    // 이벤트 묶음을 반영하고, 실제로 집계에 더해진 주문 수를 리턴.
+    public int apply(List<SalesEvent> events) {
+        // 날짜 -> 상품 순으로 정렬해서 UPSERT (인스턴스끼리 같은 행을 다른 순서로 잠그는 데드락 방지)
+        Map<LocalDate, Map<Long, SalesDelta>> deltas = new TreeMap<>();
+        int applied = 0;
+
+        // 같은 주문의 ORDERED -> CANCELED가 한 묶음에 들어올 수 있으니 이벤트 순서대로 처리.
+        for (SalesEvent event : events) {
+            boolean canceled = event.getOrderStatus() == OrderStatus.CANCELED;
+            if (canceled) {
+                if (orderingRepository.changeRolledUp(
+                        event.getOrderId(), OrderStatus.ORDERED, OrderStatus.CANCELED) == 0) {
+                    // 판매로 집계된 적 없는 주문(보류 중 취소 등)은 표시만 하고 더할 것이 없다.
+                    orderingRepository.markRolledUp(event.getOrderId(), OrderStatus.CANCELED);
+                    continue;
+                }
+            } else if (orderingRepository.markRolledUp(event.getOrderId(), OrderStatus.ORDERED) == 0) {
+                continue; // 이미 반영된 주문
+            }
+
+            Map<Long, SalesDelta> byProduct = deltas.computeIfAbsent(event.getSalesDate(), d -> new TreeMap<>());
+            for (SalesEvent.Line line : event.getLines()) {
+                byProduct.computeIfAbsent(line.getProductId(), id -> new SalesDelta()).add(line, canceled);
+            }
+            applied++;
+        }
+
+        deltas.forEach((salesDate, byProduct) -> byProduct.forEach((productId, delta) ->
+                productDailySalesRepository.accumulate(productId, salesDate,
+                        delta.unitsOrdered, delta.unitsCanceled, delta.orderedAmount, delta.canceledAmount)));
+        return applied;
+    }
+
+    // 보정 스캔 한 구간: 워터마크부터 최대 maxWindow만큼, 변경됐는데 집계에 빠진 주문을 찾아 반영하고 워터마크를 옮긴다.
+    // upTo까지 따라잡았으면 true.
+    public boolean reconcile(LocalDateTime upTo, Duration maxWindow, int pageSize) {
+        SalesRollupWatermark watermark = watermarkRepository.findByNameForUpdate(WATERMARK_NAME).orElse(null);
+        if (watermark == null) {
+            // 처음 실행: 가장 오래된 주문부터 훑도록 시작점을 잡는다. (기존 주문 이력도 집계에 채워짐)
+            LocalDateTime start = orderingRepository.findMinUpdateTime();
+            watermarkRepository.save(new SalesRollupWatermark(WATERMARK_NAME, start != null ? start : upTo));
+            log.info("판매 집계 워터마크 생성: {}", start);
+            return false;
+        }
+
+        LocalDateTime from = watermark.getWatermark();
+        if (!from.isBefore(upTo)) return true;
+        LocalDateTime to = from.plus(maxWindow).isBefore(upTo) ? from.plus(maxWindow) : upTo;
+
+        Long afterId = 0L;
+        int recovered = 0;
+        while (true) {
+            List<Long> ids = orderingRepository.findRollupMissedIds(
+                    from, to, afterId, ROLLUP_STATUSES, PageRequest.of(0, pageSize));
+            if (ids.isEmpty()) break;
+
+            List<SalesEvent> events = orderingRepository.findWithDetailsByIdIn(ids).stream()
+                    .map(SalesEvent::from)
+                    .collect(Collectors.toList());
+            recovered += apply(events);
+
+            if (ids.size() < pageSize) break;
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        watermark.advance(to);
+        if (recovered > 0) {
+            log.warn("판매 집계 누락 보정 - 구간: {} ~ {}, 주문 수: {}", from, to, recovered);
+        }
+        return !to.isBefore(upTo);
+    }
+
+    // 상품 하나, 날짜 하나에 더할 값
+    private static class SalesDelta {
+        private long unitsOrdered;
+        private long unitsCanceled;
+        private long orderedAmount;
+        private long canceledAmount;
+
+        private void add(SalesEvent.Line line, boolean canceled) {
+            long amount = line.getPrice() != null ? (long) line.getPrice() * line.getQuantity() : 0;
+            if (canceled) {
+                unitsCanceled += line.getQuantity();
+                canceledAmount += amount;
+            } else {
+                unitsOrdered += line.getQuantity();
+                orderedAmount += amount;
+            }
+        }
+    }
+
+}
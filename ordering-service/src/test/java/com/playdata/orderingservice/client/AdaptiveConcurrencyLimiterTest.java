@@ -0,0 +1,107 @@
+package com.playdata.orderingservice.client;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void rejectsCallsOverLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, e -> true);
+
+        String result = limiter.execute(() -> {
+            // 한도 1을 이미 쓰고 있는 상태에서 한 번 더 호출
+            assertThatThrownBy(() -> limiter.execute(() -> "inner"))
+                    .isInstanceOf(ConcurrencyLimitExceededException.class);
+            return "outer";
+        });
+
+        assertThat(result).isEqualTo("outer");
+        assertThat(limiter.getRejected()).isEqualTo(1);
+        assertThat(limiter.getInflight()).isZero();
+    }
+
+    @Test
+    void dropsBackOffDownToMinLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20, e -> true);
+
+        failOnce(limiter);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+        failOnce(limiter);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        failOnce(limiter);
+        assertThat(limiter.getLimit()).isEqualTo(4); // min-limit
+        assertThat(limiter.getDropped()).isEqualTo(3);
+    }
+
+    @Test
+    void failuresThatAreNotDropsKeepLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20, e -> false);
+
+        failOnce(limiter);
+
+        assertThat(limiter.getLimit()).isEqualTo(20);
+        assertThat(limiter.getDropped()).isZero();
+    }
+
+    @Test
+    void growsWhenBusyWithoutQueueing() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, e -> true);
+
+        // 바깥 호출이 진행 중인 상태에서 안쪽 호출 (동시 실행 2 = 한도의 절반)
+        limiter.execute(() -> limiter.execute(() -> "inner"));
+
+        // 첫 측정값이 minRtt가 되므로 대기열 추정치는 0 -> 한도 증가
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void onlyOverloadFailuresCountAsDrops() {
+        assertThat(ConcurrencyLimiters.isDrop(feignException(404))).isFalse();
+        assertThat(ConcurrencyLimiters.isDrop(feignException(400))).isFalse();
+        assertThat(ConcurrencyLimiters.isDrop(feignException(503))).isTrue();
+        assertThat(ConcurrencyLimiters.isDrop(new RuntimeException(new TimeoutException()))).isTrue();
+        assertThat(ConcurrencyLimiters.isDrop(new RuntimeException(new SocketTimeoutException()))).isTrue();
+        assertThat(ConcurrencyLimiters.isDrop(
+                CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("test"))))
+                .isFalse();
+        assertThat(ConcurrencyLimiters.isDrop(new IllegalArgumentException("재고 부족!"))).isFalse();
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit,
+                                                      Predicate<Throwable> isDrop) {
+        return new AdaptiveConcurrencyLimiter("test", initialLimit, 4, 200, 0.5, 1000, isDrop);
+    }
+
+    private static void failOnce(AdaptiveConcurrencyLimiter limiter) {
+        assertThatThrownBy(() -> limiter.execute(() -> {
+            throw new IllegalStateException("실패");
+        })).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static FeignException feignException(int status) {
+        Request request = Request.create(Request.HttpMethod.GET, "/product/1", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        Response response = Response.builder()
+                .status(status)
+                .reason("status " + status)
+                .request(request)
+                .headers(Map.of())
+                .build();
+        return FeignException.errorStatus("ProductServiceClient#findById(Long)", response);
+    }
+
+}
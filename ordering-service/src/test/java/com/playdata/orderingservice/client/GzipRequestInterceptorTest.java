@@ -0,0 +1,46 @@
+package com.playdata.orderingservice.client;
+
+import feign.RequestTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GzipRequestInterceptorTest {
+
+    private final GzipRequestInterceptor interceptor = new GzipRequestInterceptor(64);
+
+    @Test
+    void largeBodyIsCompressed() throws Exception {
+        String json = "[" + "{\"productId\":1,\"productQuantity\":2},".repeat(20) + "{}]";
+        RequestTemplate template = template(json);
+
+        interceptor.apply(template);
+
+        assertThat(template.headers().get("Content-Encoding")).containsExactly("gzip");
+        assertThat(template.body().length).isLessThan(json.length());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(template.body()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(json);
+        }
+    }
+
+    @Test
+    void smallBodyIsSentAsIs() {
+        RequestTemplate template = template("{\"productId\":1}");
+
+        interceptor.apply(template);
+
+        assertThat(template.headers()).doesNotContainKey("Content-Encoding");
+        assertThat(new String(template.body(), StandardCharsets.UTF_8)).isEqualTo("{\"productId\":1}");
+    }
+
+    private static RequestTemplate template(String body) {
+        RequestTemplate template = new RequestTemplate();
+        template.body(body.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        return template;
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.playdata.orderingservice.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.playdata.orderingservice.common.dto.CommonResDto;
+import com.playdata.orderingservice.ordering.dto.ProductResDto;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HedgedProductReaderTest {
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    private final ProductServiceClient productServiceClient = mock(ProductServiceClient.class);
+    private final LoadBalancerClient loadBalancerClient = mock(LoadBalancerClient.class);
+    private final DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+    private final InterServiceHttpClients httpClients = mock(InterServiceHttpClients.class);
+
+    private ExecutorService hedgeExecutor;
+    private CloseableHttpClient httpClient;
+    private HttpServer slowServer;
+    private HttpServer fastServer;
+    private final AtomicReference<String> fastAccept = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        hedgeExecutor = Executors.newFixedThreadPool(4);
+        httpClient = HttpClients.createDefault();
+        when(httpClients.get("product-service")).thenReturn(httpClient);
+
+        slowServer = server("slow", 2_000, false);
+        fastServer = server("fast", 0, false);
+        ServiceInstance slow = instance(slowServer);
+        ServiceInstance fast = instance(fastServer);
+        when(loadBalancerClient.choose("product-service")).thenReturn(slow);
+        when(discoveryClient.getInstances("product-service")).thenReturn(List.of(slow, fast));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        slowServer.stop(0);
+        fastServer.stop(0);
+        httpClient.close();
+        hedgeExecutor.shutdownNow();
+    }
+
+    @Test
+    void slowPrimaryIsHedgedToAnotherInstance() {
+        HedgedProductReader reader = reader(true, "json");
+
+        CommonResDto<ProductResDto> result = reader.findById(1L);
+
+        assertThat(result.getResult().getName()).isEqualTo("fast");
+        assertThat(fastAccept.get()).isEqualTo("application/json");
+        verify(productServiceClient, never()).findById(1L);
+    }
+
+    @Test
+    void smileTransportIsUsedOnTheHedgedPath() throws IOException {
+        fastServer.stop(0);
+        fastServer = server("fast", 0, true);
+        ServiceInstance slow = instance(slowServer);
+        when(discoveryClient.getInstances("product-service")).thenReturn(List.of(slow, instance(fastServer)));
+        HedgedProductReader reader = reader(true, "smile");
+
+        CommonResDto<ProductResDto> result = reader.findById(1L);
+
+        assertThat(result.getResult().getName()).isEqualTo("fast");
+        assertThat(fastAccept.get()).startsWith(ProductFeignConfiguration.SMILE);
+    }
+
+    @Test
+    void disabledHedgingUsesFeign() {
+        CommonResDto<ProductResDto> feignResult = new CommonResDto<>(HttpStatus.OK, "ok",
+                ProductResDto.builder().id(1L).name("feign").build());
+        when(productServiceClient.findById(1L)).thenReturn(feignResult);
+
+        assertThat(reader(false, "json").findById(1L)).isSameAs(feignResult);
+    }
+
+    private HedgedProductReader reader(boolean enabled, String transport) {
+        return new HedgedProductReader(productServiceClient, loadBalancerClient, discoveryClient, httpClients,
+                jsonMapper, Jackson2ObjectMapperBuilder.json(), hedgeExecutor, new SimpleMeterRegistry(),
+                enabled, 50, 20, 0.95, 100, 20, transport, 3_000);
+    }
+
+    // /product/{id} 요청에 delayMs만큼 늦게 name을 담아 응답하는 서버
+    private HttpServer server(String name, long delayMs, boolean smile) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/product/", exchange -> {
+            if ("fast".equals(name)) {
+                fastAccept.set(exchange.getRequestHeaders().getFirst("Accept"));
+            }
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            CommonResDto<ProductResDto> body = new CommonResDto<>(HttpStatus.OK, "ok",
+                    ProductResDto.builder().id(1L).name(name).stockQuantity(10).build());
+            byte[] bytes = (smile ? smileMapper : jsonMapper).writeValueAsBytes(body);
+            exchange.getResponseHeaders().set("Content-Type",
+                    smile ? ProductFeignConfiguration.SMILE : "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static ServiceInstance instance(HttpServer server) {
+        int port = server.getAddress().getPort();
+        return new DefaultServiceInstance("product-" + port, "product-service", "localhost", port, false);
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.playdata.orderingservice.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.playdata.orderingservice.common.dto.CommonResDto;
+import com.playdata.orderingservice.ordering.dto.StockReserveReqDto;
+import com.playdata.orderingservice.ordering.dto.StockResultDto;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductFeignConfigurationTest {
+
+    private static final Type RESERVE_REQUEST = new TypeReference<List<StockReserveReqDto>>() {}.getType();
+    private static final Type RESERVE_RESPONSE = new TypeReference<CommonResDto<List<StockResultDto>>>() {}.getType();
+
+    private final ProductFeignConfiguration configuration = new ProductFeignConfiguration();
+
+    @Test
+    void requestBodyIsWrittenAsSmile() throws Exception {
+        Encoder encoder = configuration.feignEncoder(new Jackson2ObjectMapperBuilder());
+        List<StockReserveReqDto> lines = List.of(StockReserveReqDto.builder()
+                .productId(1L).productQuantity(2).requestId(10L).build());
+        RequestTemplate template = new RequestTemplate();
+
+        encoder.encode(lines, RESERVE_REQUEST, template);
+
+        assertThat(template.headers().get("Content-Type")).anyMatch(value -> value.startsWith(ProductFeignConfiguration.SMILE));
+        List<StockReserveReqDto> decoded = new SmileMapper().readValue(template.body(),
+                new TypeReference<List<StockReserveReqDto>>() {});
+        assertThat(decoded).extracting(StockReserveReqDto::getRequestId).containsExactly(10L);
+    }
+
+    @Test
+    void smileResponseIsDecoded() throws Exception {
+        byte[] body = new SmileMapper().writeValueAsBytes(reserveResult());
+
+        CommonResDto<List<StockResultDto>> decoded = decode(ProductFeignConfiguration.SMILE, body);
+
+        assertThat(decoded.getResult()).extracting(StockResultDto::getProductName).containsExactly("사과");
+    }
+
+    @Test
+    void jsonResponseFromAnOlderInstanceIsStillDecoded() throws Exception {
+        byte[] body = new ObjectMapper().writeValueAsBytes(reserveResult());
+
+        CommonResDto<List<StockResultDto>> decoded = decode("application/json", body);
+
+        assertThat(decoded.getResult()).extracting(StockResultDto::getProductName).containsExactly("사과");
+    }
+
+    @Test
+    void acceptPrefersSmileButAllowsJson() {
+        RequestTemplate template = new RequestTemplate();
+
+        configuration.smileAcceptInterceptor().apply(template);
+
+        assertThat(template.headers().get("Accept"))
+                .containsExactly(ProductFeignConfiguration.SMILE + ", application/json;q=0.9");
+    }
+
+    @SuppressWarnings("unchecked")
+    private CommonResDto<List<StockResultDto>> decode(String contentType, byte[] body) throws Exception {
+        Decoder decoder = configuration.feignDecoder(new Jackson2ObjectMapperBuilder(),
+                new DefaultListableBeanFactory().getBeanProvider(HttpMessageConverterCustomizer.class));
+        Response response = Response.builder()
+                .status(200)
+                .headers(Map.of("Content-Type", List.of(contentType)))
+                .request(Request.create(Request.HttpMethod.POST, "http://product-service/product/reserve",
+                        Map.of(), null, StandardCharsets.UTF_8, null))
+                .body(body)
+                .build();
+        return (CommonResDto<List<StockResultDto>>) decoder.decode(response, RESERVE_RESPONSE);
+    }
+
+    private static CommonResDto<List<StockResultDto>> reserveResult() {
+        return new CommonResDto<>(HttpStatus.OK, "재고 차감 완료", List.of(StockResultDto.builder()
+                .productId(1L).productName("사과").price(1200).quantity(2).success(true).build()));
+    }
+
+}
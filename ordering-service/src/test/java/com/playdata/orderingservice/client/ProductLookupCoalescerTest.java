@@ -0,0 +1,125 @@
+package com.playdata.orderingservice.client;
+
+import com.playdata.orderingservice.ordering.dto.ProductResDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductLookupCoalescerTest {
+
+    private static final long PRODUCT_ID = 7L;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductLookupCoalescer coalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new ProductLookupCoalescer(meterRegistry, true);
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentLookupsShareOneRemoteResult() throws Exception {
+        ProductResDto product = ProductResDto.builder().id(PRODUCT_ID).name("상품").stockQuantity(10).build();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger remoteCalls = new AtomicInteger();
+        Supplier<ProductResDto> remoteCall = () -> {
+            remoteCalls.incrementAndGet();
+            await(release);
+            return product;
+        };
+
+        CompletableFuture<ProductResDto> first = lookupAsync(remoteCall);
+        awaitCount("remote", 1);
+        CompletableFuture<ProductResDto> second = lookupAsync(remoteCall);
+        awaitCount("coalesced", 1); // 두 번째 조회가 진행 중인 호출에 합류한 뒤에 응답을 풀어준다.
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(product);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(product);
+        assertThat(remoteCalls).hasValue(1);
+    }
+
+    @Test
+    void concurrentLookupsShareOneFailure() throws Exception {
+        IllegalStateException failure = new IllegalStateException("상품 정보 조회 실패");
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger remoteCalls = new AtomicInteger();
+        Supplier<ProductResDto> remoteCall = () -> {
+            remoteCalls.incrementAndGet();
+            await(release);
+            throw failure;
+        };
+
+        CompletableFuture<ProductResDto> first = lookupAsync(remoteCall);
+        awaitCount("remote", 1);
+        CompletableFuture<ProductResDto> second = lookupAsync(remoteCall);
+        awaitCount("coalesced", 1);
+        release.countDown();
+
+        for (CompletableFuture<ProductResDto> lookup : List.of(first, second)) {
+            assertThatThrownBy(lookup::join)
+                    .isInstanceOf(CompletionException.class)
+                    .hasCauseReference(failure);
+        }
+        assertThat(remoteCalls).hasValue(1);
+    }
+
+    @Test
+    void finishedLookupIsNotCached() {
+        AtomicInteger remoteCalls = new AtomicInteger();
+        Supplier<ProductResDto> remoteCall = () -> {
+            remoteCalls.incrementAndGet();
+            return ProductResDto.builder().id(PRODUCT_ID).build();
+        };
+
+        coalescer.lookup(PRODUCT_ID, remoteCall);
+        coalescer.lookup(PRODUCT_ID, remoteCall);
+
+        assertThat(remoteCalls).hasValue(2);
+    }
+
+    private CompletableFuture<ProductResDto> lookupAsync(Supplier<ProductResDto> remoteCall) {
+        return CompletableFuture.supplyAsync(() -> coalescer.lookup(PRODUCT_ID, remoteCall), executor);
+    }
+
+    private void awaitCount(String type, double expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.get("order.product.lookup.calls").tag("type", type).counter().count() < expected) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError(type + " 조회가 시작되지 않았습니다.");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.playdata.orderingservice.common.entity;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeSortedIdGeneratorTest {
+
+    private static final int NODE_ID = 3;
+    private static final int SEQUENCE_BITS = TimeSortedIdGenerator.SEQUENCE_BITS;
+    private static final int TIMESTAMP_SHIFT = TimeSortedIdGenerator.NODE_BITS + SEQUENCE_BITS;
+
+    // 생성기의 마지막 시각은 static이라 테스트마다 앞 테스트보다 늦은 시각에서 시작한다.
+    private static final AtomicLong nextStart = new AtomicLong(System.currentTimeMillis() + 60_000);
+
+    private final AtomicLong now = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        now.set(nextStart.getAndAdd(60_000));
+        TimeSortedIdGenerator.clock = now::get;
+        TimeSortedIdGenerator.assignNode(NODE_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TimeSortedIdGenerator.clock = System::currentTimeMillis;
+        TimeSortedIdGenerator.unassignNode();
+    }
+
+    @Test
+    void idsFollowTimeOrderAndCarryNodeId() {
+        long first = TimeSortedIdGenerator.nextId();
+        now.addAndGet(5);
+        long second = TimeSortedIdGenerator.nextId();
+
+        assertThat(second).isGreaterThan(first);
+        assertThat(timestampOf(first)).isEqualTo(now.get() - 5 - TimeSortedIdGenerator.EPOCH);
+        assertThat(timestampOf(second)).isEqualTo(now.get() - TimeSortedIdGenerator.EPOCH);
+        assertThat(nodeOf(second)).isEqualTo(NODE_ID);
+        assertThat(sequenceOf(second)).isZero();
+    }
+
+    @Test
+    void sequenceRolloverBorrowsNextMillisecond() {
+        long previous = -1;
+        for (int i = 0; i < (1 << SEQUENCE_BITS); i++) {
+            long id = TimeSortedIdGenerator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            assertThat(sequenceOf(id)).isEqualTo(i);
+            assertThat(timestampOf(id)).isEqualTo(now.get() - TimeSortedIdGenerator.EPOCH);
+            previous = id;
+        }
+
+        // 같은 ms의 순번 128개를 다 쓴 뒤 -> 시계는 그대로지만 다음 ms로 넘어간다.
+        long rolledOver = TimeSortedIdGenerator.nextId();
+        assertThat(rolledOver).isGreaterThan(previous);
+        assertThat(sequenceOf(rolledOver)).isZero();
+        assertThat(timestampOf(rolledOver)).isEqualTo(now.get() + 1 - TimeSortedIdGenerator.EPOCH);
+    }
+
+    @Test
+    void clockGoingBackwardsNeverProducesSmallerId() {
+        long beforeJump = TimeSortedIdGenerator.nextId();
+
+        now.addAndGet(-5_000);
+        long afterJump = TimeSortedIdGenerator.nextId();
+
+        assertThat(afterJump).isGreaterThan(beforeJump);
+        assertThat(timestampOf(afterJump)).isEqualTo(timestampOf(beforeJump));
+        assertThat(sequenceOf(afterJump)).isEqualTo(sequenceOf(beforeJump) + 1);
+    }
+
+    @Test
+    void refusesIdsWithoutNode() {
+        TimeSortedIdGenerator.unassignNode();
+
+        assertThatThrownBy(TimeSortedIdGenerator::nextId)
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void refusesIdsAfterLeaseExpires() {
+        TimeSortedIdGenerator.assignNode(NODE_ID, now.get() + 1_000);
+        TimeSortedIdGenerator.nextId();
+
+        now.addAndGet(1_000);
+        assertThatThrownBy(TimeSortedIdGenerator::nextId)
+                .isInstanceOf(IllegalStateException.class);
+
+        // 연장에 성공하면 다시 발급
+        TimeSortedIdGenerator.extendLease(now.get() + 1_000);
+        assertThat(TimeSortedIdGenerator.nextId()).isPositive();
+    }
+
+    private static long timestampOf(long id) {
+        return id >>> TIMESTAMP_SHIFT;
+    }
+
+    private static long nodeOf(long id) {
+        return (id >>> SEQUENCE_BITS) & TimeSortedIdGenerator.MAX_NODE_ID;
+    }
+
+    private static long sequenceOf(long id) {
+        return id & ((1 << SEQUENCE_BITS) - 1);
+    }
+
+}
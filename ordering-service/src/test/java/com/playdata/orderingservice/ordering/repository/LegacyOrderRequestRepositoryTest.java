@@ -0,0 +1,52 @@
+package com.playdata.orderingservice.ordering.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LegacyOrderRequestRepositoryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private LegacyOrderRequestRepository repository;
+
+    @Test
+    void missingColumnIsTreatedAsNoLegacyPayload() {
+        when(jdbcTemplate.queryForObject(contains("information_schema.COLUMNS"), eq(Integer.class))).thenReturn(0);
+
+        assertThat(repository.findRequestJson(1L)).isEmpty();
+        assertThat(repository.findRequestJson(2L)).isEmpty();
+
+        // 컬럼 확인은 한 번만, 없는 컬럼은 조회하지 않는다.
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(Integer.class));
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), any(Object[].class));
+    }
+
+    @Test
+    void existingColumnIsRead() {
+        when(jdbcTemplate.queryForObject(contains("information_schema.COLUMNS"), eq(Integer.class))).thenReturn(1);
+        when(jdbcTemplate.queryForList(contains("original_request_json"), eq(String.class), eq(1L)))
+                .thenReturn(List.of("[{\"productId\":1,\"productQuantity\":2}]"));
+
+        assertThat(repository.findRequestJson(1L)).contains("[{\"productId\":1,\"productQuantity\":2}]");
+    }
+
+}
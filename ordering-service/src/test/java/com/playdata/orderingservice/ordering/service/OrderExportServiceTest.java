@@ -0,0 +1,129 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.orderingservice.archive.service.OrderArchiveService;
+import com.playdata.orderingservice.ordering.dto.OrderExportRowDto;
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.repository.OrderingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceTest {
+
+    @Mock
+    private OrderingRepository orderingRepository;
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    private OrderExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new OrderExportService(orderingRepository, orderArchiveService, new ObjectMapper());
+    }
+
+    @Test
+    void csvIncludesArchivedOrdersAfterLiveOrders() throws Exception {
+        when(orderingRepository.streamForExport(null, null, null))
+                .thenReturn(Stream.of(row(2L, 20L, "new")));
+        when(orderArchiveService.streamForExport(null, null, null))
+                .thenReturn(Stream.of(row(1L, 10L, "old")));
+
+        String[] lines = export("csv").split("\n");
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("orderId,");
+        assertThat(lines[1]).startsWith("2,").contains("new");
+        assertThat(lines[2]).startsWith("1,").contains("old");
+    }
+
+    @Test
+    void ndjsonWritesOneLinePerOrderFromBothTables() throws Exception {
+        when(orderingRepository.streamForExport(null, null, null))
+                .thenReturn(Stream.of(row(2L, 20L, "a"), row(2L, 21L, "b")));
+        when(orderArchiveService.streamForExport(null, null, null))
+                .thenReturn(Stream.of(row(1L, 10L, "old")));
+
+        String[] lines = export("ndjson").split("\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"id\":2").contains("\"productName\":\"a\"").contains("\"productName\":\"b\"");
+        assertThat(lines[1]).contains("\"id\":1").contains("\"productName\":\"old\"");
+    }
+
+    @Test
+    void csvQuotesValuesWithCommasQuotesAndLineBreaks() throws Exception {
+        when(orderingRepository.streamForExport(null, null, null))
+                .thenReturn(Stream.of(row(1L, 10L, "사과, \"특\"\n상품")));
+        when(orderArchiveService.streamForExport(null, null, null)).thenReturn(Stream.empty());
+
+        String csv = export("csv");
+
+        assertThat(csv).contains(",\"사과, \"\"특\"\"\n상품\",");
+    }
+
+    @Test
+    void ndjsonKeepsOrdersWithoutDetails() throws Exception {
+        // LEFT JOIN이라 상세 내역이 없는 주문은 상세 컬럼이 전부 null인 한 줄로 나온다.
+        OrderExportRowDto empty = OrderExportRowDto.builder()
+                .orderId(3L).userId(7L).userEmail("user@test.com").orderStatus(OrderStatus.REJECTED).build();
+        when(orderingRepository.streamForExport(null, null, null)).thenReturn(Stream.of(empty));
+        when(orderArchiveService.streamForExport(null, null, null)).thenReturn(Stream.empty());
+
+        String[] lines = export("ndjson").split("\n");
+
+        assertThat(lines).hasSize(1);
+        assertThat(lines[0]).contains("\"id\":3").contains("\"orderDetails\":[]");
+    }
+
+    @Test
+    void bothCursorsAreClosed() throws Exception {
+        AtomicBoolean liveClosed = new AtomicBoolean();
+        AtomicBoolean archiveClosed = new AtomicBoolean();
+        when(orderingRepository.streamForExport(null, null, null))
+                .thenReturn(Stream.of(row(2L, 20L, "new")).onClose(() -> liveClosed.set(true)));
+        when(orderArchiveService.streamForExport(null, null, null))
+                .thenAnswer(inv -> {
+                    // 운영 테이블 커서를 닫은 뒤에야 보관 테이블 커서를 연다. (커넥션당 스트리밍 결과 셋 하나)
+                    assertThat(liveClosed).isTrue();
+                    return Stream.of(row(1L, 10L, "old")).onClose(() -> archiveClosed.set(true));
+                });
+
+        export("csv");
+
+        assertThat(archiveClosed).isTrue();
+    }
+
+    private String export(String format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(format, null, null, null, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static OrderExportRowDto row(Long orderId, Long detailId, String productName) {
+        return OrderExportRowDto.builder()
+                .orderId(orderId)
+                .userId(7L)
+                .userEmail("user@test.com")
+                .orderStatus(OrderStatus.ORDERED)
+                .detailId(detailId)
+                .productId(100L)
+                .productName(productName)
+                .price(1000)
+                .quantity(1)
+                .build();
+    }
+
+}
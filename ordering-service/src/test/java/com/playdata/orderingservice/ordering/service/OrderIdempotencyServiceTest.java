@@ -0,0 +1,174 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.orderingservice.ordering.dto.OrderIdempotencyRecord;
+import com.playdata.orderingservice.ordering.dto.OrderingSaveReqDto;
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIdempotencyServiceTest {
+
+    private static final String EMAIL = "user@test.com";
+    private static final String KEY = "key-1";
+    private static final String REDIS_KEY = "order:idempotency:" + EMAIL + ":" + KEY;
+    private static final List<OrderingSaveReqDto> BODY = List.of(
+            OrderingSaveReqDto.builder().productId(1L).productQuantity(2).build());
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    private ScheduledExecutorService scheduler;
+    private OrderIdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        service = new OrderIdempotencyService(redisTemplate, scheduler, new ObjectMapper());
+        ReflectionTestUtils.setField(service, "ttlHours", 24L);
+        ReflectionTestUtils.setField(service, "inProgressTtlSeconds", 30L);
+        ReflectionTestUtils.setField(service, "waitTimeoutMs", 10_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void firstRequestRunsActionAndStoresResult() {
+        claimSucceeds(true);
+
+        OrderIdempotencyRecord record = service.execute(EMAIL, KEY, BODY, HttpStatus.CREATED, () -> ordering(100L));
+
+        assertThat(record.isDone()).isTrue();
+        assertThat(record.isReplayed()).isFalse();
+        assertThat(record.getOrderId()).isEqualTo(100L);
+        assertThat(record.getHttpStatus()).isEqualTo(201);
+        verify(valueOperations).set(eq(REDIS_KEY), any(OrderIdempotencyRecord.class), eq(Duration.ofHours(24)));
+    }
+
+    @Test
+    void duplicateRequestReturnsStoredResultWithoutRunningAction() {
+        claimSucceeds(false);
+        when(valueOperations.get(REDIS_KEY)).thenReturn(OrderIdempotencyRecord.builder()
+                .done(true).orderId(100L).orderStatus(OrderStatus.ORDERED).httpStatus(201).build());
+        AtomicInteger calls = new AtomicInteger();
+
+        OrderIdempotencyRecord record = service.execute(EMAIL, KEY, BODY, HttpStatus.CREATED, () -> {
+            calls.incrementAndGet();
+            return ordering(200L);
+        });
+
+        assertThat(record.isReplayed()).isTrue();
+        assertThat(record.getOrderId()).isEqualTo(100L);
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    void reusedKeyWithDifferentBodyIsRejected() {
+        claimSucceeds(true);
+        ArgumentCaptor<OrderIdempotencyRecord> stored = ArgumentCaptor.forClass(OrderIdempotencyRecord.class);
+        service.execute(EMAIL, KEY, BODY, HttpStatus.CREATED, () -> ordering(100L));
+        verify(valueOperations).set(eq(REDIS_KEY), stored.capture(), any(Duration.class));
+
+        claimSucceeds(false);
+        when(valueOperations.get(REDIS_KEY)).thenReturn(stored.getValue());
+        List<OrderingSaveReqDto> otherBody = List.of(
+                OrderingSaveReqDto.builder().productId(1L).productQuantity(5).build());
+
+        assertThatThrownBy(() -> service.execute(EMAIL, KEY, otherBody, HttpStatus.CREATED, () -> ordering(200L)))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+        // 같은 본문이면 그대로 재사용
+        assertThat(service.execute(EMAIL, KEY, BODY, HttpStatus.CREATED, () -> ordering(200L)).getOrderId())
+                .isEqualTo(100L);
+    }
+
+    @Test
+    void duplicateWhileInProgressTimesOutWithDedicatedException() {
+        ReflectionTestUtils.setField(service, "waitTimeoutMs", 0L);
+        claimSucceeds(false);
+        when(valueOperations.get(REDIS_KEY)).thenReturn(OrderIdempotencyRecord.builder().done(false).build());
+
+        assertThatThrownBy(() -> service.execute(EMAIL, KEY, BODY, HttpStatus.CREATED, () -> ordering(100L)))
+                .isInstanceOf(DuplicateRequestInProgressException.class);
+    }
+
+    @Test
+    void failedRequestReleasesKey() {
+        claimSucceeds(true);
+        Supplier<Ordering> failing = () -> {
+            throw new IllegalArgumentException("재고 부족!");
+        };
+
+        assertThatThrownBy(() -> service.execute(EMAIL, KEY, BODY, HttpStatus.CREATED, failing))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(redisTemplate).delete(REDIS_KEY);
+    }
+
+    @Test
+    void inProgressMarkerIsRenewedWhileActionRuns() {
+        ReflectionTestUtils.setField(service, "inProgressTtlSeconds", 3L); // 1초마다 연장
+        claimSucceeds(true);
+
+        service.execute(EMAIL, KEY, BODY, HttpStatus.CREATED, () -> {
+            sleep(1_500);
+            return ordering(100L);
+        });
+
+        verify(redisTemplate, atLeastOnce()).expire(REDIS_KEY, Duration.ofSeconds(3));
+    }
+
+    @Test
+    void rejectsInvalidKey() {
+        assertThatThrownBy(() -> service.execute(EMAIL, " ", BODY, HttpStatus.CREATED, () -> ordering(1L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void claimSucceeds(boolean acquired) {
+        when(valueOperations.setIfAbsent(eq(REDIS_KEY), any(), any(Duration.class))).thenReturn(acquired);
+    }
+
+    private static Ordering ordering(Long id) {
+        return Ordering.builder().id(id).orderStatus(OrderStatus.ORDERED).build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.orderingservice.ordering.dto.OrderingSaveReqDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderRequestCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OrderRequestCodec codec = new OrderRequestCodec(objectMapper);
+
+    @Test
+    void encodedRequestDecodesToTheSameLines() throws Exception {
+        List<OrderingSaveReqDto> lines = List.of(line(1L, 2), line(2L, 1));
+
+        List<OrderingSaveReqDto> decoded = codec.decode(codec.encode(lines));
+
+        assertThat(decoded).usingRecursiveFieldByFieldElementComparator().isEqualTo(lines);
+    }
+
+    @Test
+    void encodedRequestIsSmallerThanJson() throws Exception {
+        List<OrderingSaveReqDto> lines = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> line(id * 1000, 3))
+                .toList();
+
+        // 필드명이 한 번만 기록되므로 라인이 많을수록 차이가 커진다.
+        assertThat(codec.encode(lines).length).isLessThan(objectMapper.writeValueAsBytes(lines).length);
+    }
+
+    @Test
+    void legacyJsonColumnIsStillReadable() throws Exception {
+        String legacy = "[{\"productId\":1,\"productQuantity\":2},{\"productId\":2,\"productQuantity\":1}]";
+
+        List<OrderingSaveReqDto> decoded = codec.decodeLegacyJson(legacy);
+
+        assertThat(decoded).extracting(OrderingSaveReqDto::getProductId).containsExactly(1L, 2L);
+        assertThat(decoded).extracting(OrderingSaveReqDto::getProductQuantity).containsExactly(2, 1);
+    }
+
+    private static OrderingSaveReqDto line(Long productId, int quantity) {
+        return OrderingSaveReqDto.builder().productId(productId).productQuantity(quantity).build();
+    }
+
+}
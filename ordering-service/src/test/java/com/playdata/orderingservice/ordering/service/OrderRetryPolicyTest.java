@@ -0,0 +1,49 @@
+package com.playdata.orderingservice.ordering.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderRetryPolicyTest {
+
+    private final OrderRetryPolicy policy = new OrderRetryPolicy();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(policy, "baseDelayMs", 1000L);
+        ReflectionTestUtils.setField(policy, "maxDelayMs", 8000L);
+    }
+
+    @Test
+    void delayDoublesWithEachFailure() {
+        assertDelayBetween(0, 500, 1000);
+        assertDelayBetween(1, 1000, 2000);
+        assertDelayBetween(2, 2000, 4000);
+    }
+
+    @Test
+    void delayIsCappedAtMaxDelay() {
+        assertDelayBetween(3, 4000, 8000);
+        assertDelayBetween(10, 4000, 8000);
+        // 지수 상한 덕분에 재시도 횟수가 커져도 오버플로로 음수가 되지 않는다.
+        assertDelayBetween(1000, 4000, 8000);
+    }
+
+    // 지터는 [delay / 2, delay] 범위
+    private void assertDelayBetween(int retryCount, long minMs, long maxMs) {
+        for (int i = 0; i < 50; i++) {
+            LocalDateTime before = LocalDateTime.now();
+            LocalDateTime next = policy.nextAttemptAt(retryCount);
+            LocalDateTime after = LocalDateTime.now();
+
+            assertThat(next).isAfterOrEqualTo(before.plus(Duration.ofMillis(minMs)));
+            assertThat(next).isBeforeOrEqualTo(after.plus(Duration.ofMillis(maxMs)));
+        }
+    }
+
+}
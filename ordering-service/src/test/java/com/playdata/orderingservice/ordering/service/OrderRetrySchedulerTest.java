@@ -0,0 +1,105 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.repository.OrderingRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderRetrySchedulerTest {
+
+    @Mock
+    private OrderingRepository orderingRepository;
+    @Mock
+    private OrderingService orderingService;
+    @Mock
+    private OrderIntakeService orderIntakeService;
+    @Mock
+    private ThreadPoolTaskExecutor orderRetryExecutor;
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+    private OrderRetryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new OrderRetryScheduler(orderingRepository, orderingService, orderIntakeService,
+                orderRetryExecutor, circuitBreakerRegistry);
+        ReflectionTestUtils.setField(scheduler, "pageSize", 2);
+        ReflectionTestUtils.setField(scheduler, "maxPagesPerRun", 50);
+        ReflectionTestUtils.setField(scheduler, "leaseSeconds", 300L);
+
+        // 재처리 작업은 호출한 스레드에서 바로 실행
+        lenient().doAnswer(inv -> {
+            inv.<Runnable>getArgument(0).run();
+            return null;
+        }).when(orderRetryExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    void claimsPagesUntilAShortPage() {
+        when(orderingService.claimPendingOrders(anyList(), any(), eq(2), anyString(), any()))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+
+        scheduler.retryPendingOrders();
+
+        verify(orderingService, times(3)).claimPendingOrders(anyList(), any(), eq(2), anyString(), any());
+        verify(orderingService, times(5)).retryPendingOrder(anyLong(), anyString());
+    }
+
+    @Test
+    void failedRetryIsDeferredWithTheSameWorker() {
+        when(orderingService.claimPendingOrders(anyList(), any(), anyInt(), anyString(), any()))
+                .thenReturn(List.of(1L));
+        doThrow(new IllegalStateException("DB 오류")).when(orderingService).retryPendingOrder(eq(1L), anyString());
+
+        scheduler.retryPendingOrders();
+
+        String workerId = (String) ReflectionTestUtils.getField(scheduler, "workerId");
+        verify(orderingService).deferRetry(1L, workerId);
+    }
+
+    @Test
+    void openProductCircuitLeavesOnlyUserFailures() {
+        circuitBreakerRegistry.circuitBreaker("productService").transitionToOpenState();
+        when(orderingService.claimPendingOrders(anyList(), any(), anyInt(), anyString(), any()))
+                .thenReturn(List.of());
+
+        scheduler.retryPendingOrders();
+
+        verify(orderingService).claimPendingOrders(
+                eq(List.of(OrderStatus.PENDING_USER_FAILURE)), any(), anyInt(), anyString(), any());
+    }
+
+    @Test
+    void nothingIsClaimedWhileEveryCircuitIsOpen() {
+        circuitBreakerRegistry.circuitBreaker("userService").transitionToOpenState();
+        circuitBreakerRegistry.circuitBreaker("productServiceUpdate").transitionToOpenState();
+
+        scheduler.retryPendingOrders();
+
+        verify(orderingService, never()).claimPendingOrders(anyList(), any(), anyInt(), anyString(), any());
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.playdata.orderingservice.archive.service.OrderArchiveService;
+import com.playdata.orderingservice.client.ProductServiceClient;
+import com.playdata.orderingservice.ordering.entity.OrderDetail;
+import com.playdata.orderingservice.ordering.entity.OrderDetailStatus;
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import com.playdata.orderingservice.ordering.repository.OrderingRepository;
+import com.playdata.orderingservice.sales.service.SalesRollupService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderingServiceCancelTest {
+
+    @Mock
+    private OrderingRepository orderingRepository;
+    @Mock
+    private ProductServiceClient productServiceClient;
+    @Mock
+    private SalesRollupService salesRollupService;
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    @InjectMocks
+    private OrderingService orderingService;
+
+    @ParameterizedTest
+    @EnumSource(value = OrderStatus.class, names = {
+            "ACCEPTED", "ORDERED", "PENDING_USER_FAILURE", "PENDING_PROD_NOT_FOUND", "PENDING_PROD_STOCK_UPDATE"})
+    void cancellableStatusesMoveToCanceled(OrderStatus status) {
+        Ordering ordering = ordering(status);
+        when(orderingRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(ordering));
+
+        orderingService.cancelOrder(1L);
+
+        assertThat(ordering.getOrderStatus()).isEqualTo(OrderStatus.CANCELED);
+        verify(salesRollupService).record(ordering);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = OrderStatus.class, names = {"PENDING_STOCK_RESTORE", "REJECTED", "CANCELED"})
+    void otherStatusesAreRejected(OrderStatus status) {
+        Ordering ordering = ordering(status);
+        ordering.getOrderDetails().add(detail(ordering, 10L, 3, OrderDetailStatus.DEDUCTED));
+        when(orderingRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(ordering));
+
+        assertThatThrownBy(() -> orderingService.cancelOrder(1L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(ordering.getOrderStatus()).isEqualTo(status);
+        verify(productServiceClient, never()).cancelProduct(any());
+    }
+
+    @Test
+    void restoresOnlyDeductedLines() {
+        Ordering ordering = ordering(OrderStatus.PENDING_PROD_STOCK_UPDATE);
+        ordering.getOrderDetails().addAll(List.of(
+                detail(ordering, 10L, 3, OrderDetailStatus.DEDUCTED),
+                detail(ordering, 10L, 2, OrderDetailStatus.DEDUCTED),
+                detail(ordering, 20L, 5, OrderDetailStatus.RESERVED)));
+        when(orderingRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(ordering));
+
+        orderingService.cancelOrder(1L);
+
+        verify(productServiceClient).cancelProduct(Map.of(10L, 5));
+    }
+
+    @Test
+    void archivedOrderIsNotCancellable() {
+        when(orderingRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
+        when(orderArchiveService.findOrder(1L)).thenReturn(Optional.of(ordering(OrderStatus.ORDERED)));
+
+        assertThatThrownBy(() -> orderingService.cancelOrder(1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("보관");
+        verify(productServiceClient, never()).cancelProduct(any());
+    }
+
+    @Test
+    void unknownOrderIsNotFound() {
+        when(orderingRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
+        when(orderArchiveService.findOrder(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> orderingService.cancelOrder(1L))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    private static Ordering ordering(OrderStatus status) {
+        return Ordering.builder()
+                .id(1L)
+                .userEmail("user@test.com")
+                .orderStatus(status)
+                .orderDetails(new ArrayList<>())
+                .build();
+    }
+
+    private static OrderDetail detail(Ordering ordering, Long productId, int quantity, OrderDetailStatus status) {
+        return OrderDetail.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .ordering(ordering)
+                .status(status)
+                .build();
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.playdata.orderingservice.client.ConcurrencyLimiters;
+import com.playdata.orderingservice.client.ProductLookupCoalescer;
+import com.playdata.orderingservice.client.ProductServiceClient;
+import com.playdata.orderingservice.common.dto.CommonResDto;
+import com.playdata.orderingservice.ordering.dto.OrderingSaveReqDto;
+import com.playdata.orderingservice.ordering.dto.ProductResDto;
+import com.playdata.orderingservice.ordering.dto.StockChangeReqDto;
+import com.playdata.orderingservice.ordering.dto.StockResultDto;
+import com.playdata.orderingservice.ordering.entity.OrderDetail;
+import com.playdata.orderingservice.ordering.entity.OrderDetailStatus;
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import com.playdata.orderingservice.ordering.repository.OrderingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderingServiceLineByLineTest {
+
+    @Mock
+    private OrderingRepository orderingRepository;
+    @Mock
+    private ProductServiceClient productServiceClient;
+    @Mock
+    private ProductLookupCoalescer productLookupCoalescer;
+    @Mock
+    private ConcurrencyLimiters concurrencyLimiters;
+    @Mock
+    private CircuitBreakerFactory circuitBreakerFactory;
+    @Mock
+    private CircuitBreaker circuitBreaker;
+
+    @InjectMocks
+    private OrderingService orderingService;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        ReflectionTestUtils.setField(orderingService, "productLookupExecutor", executor);
+        ReflectionTestUtils.setField(orderingService, "bulkReserve", false);
+        ReflectionTestUtils.setField(orderingService, "lookupConcurrencyPerOrder", 8);
+
+        // 서킷 브레이커와 동시 호출 한도는 호출을 그대로 실행
+        lenient().when(circuitBreakerFactory.create(anyString())).thenReturn(circuitBreaker);
+        lenient().when(circuitBreaker.run(any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(0).get());
+        lenient().when(concurrencyLimiters.execute(anyString(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+        lenient().when(productServiceClient.changeStock(any())).thenAnswer(inv -> {
+            StockChangeReqDto dto = inv.getArgument(0);
+            return new CommonResDto<>(HttpStatus.OK, "ok", StockResultDto.builder()
+                    .productId(dto.getProductId()).quantity(-dto.getDelta()).success(true).build());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void productLookupsRunConcurrently() {
+        // 두 조회가 동시에 barrier에 도착해야만 통과 -> 순서대로 조회하면 타임아웃으로 실패
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        when(productLookupCoalescer.lookup(anyLong(), any())).thenAnswer(inv -> {
+            barrier.await(5, TimeUnit.SECONDS);
+            return product(inv.getArgument(0), 10);
+        });
+        Ordering ordering = newOrdering();
+
+        orderingService.processOrderToProductService(
+                List.of(line(1L, 2), line(2L, 3)), 7L, ordering);
+
+        assertThat(ordering.getOrderDetails())
+                .extracting(OrderDetail::getStatus)
+                .containsOnly(OrderDetailStatus.DEDUCTED);
+        verify(productServiceClient, times(2)).changeStock(any());
+    }
+
+    @Test
+    void linesOfSameProductAreCheckedTogether() {
+        when(productLookupCoalescer.lookup(eq(1L), any())).thenReturn(product(1L, 6));
+        Ordering ordering = newOrdering();
+
+        // 라인별로는 3 <= 6, 5 <= 6 이지만 합계 8은 재고보다 많다.
+        assertThatThrownBy(() -> orderingService.processOrderToProductService(
+                List.of(line(1L, 3), line(1L, 5)), 7L, ordering))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(productServiceClient, never()).changeStock(any());
+    }
+
+    private static Ordering newOrdering() {
+        return Ordering.builder()
+                .userId(7L)
+                .userEmail("user@test.com")
+                .orderStatus(OrderStatus.ORDERED)
+                .orderDetails(new ArrayList<>())
+                .build();
+    }
+
+    private static OrderingSaveReqDto line(Long productId, int quantity) {
+        return OrderingSaveReqDto.builder().productId(productId).productQuantity(quantity).build();
+    }
+
+    private static ProductResDto product(Long id, int stockQuantity) {
+        return ProductResDto.builder().id(id).name("상품" + id).price(1000).stockQuantity(stockQuantity).build();
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.playdata.orderingservice.archive.service.OrderArchiveService;
+import com.playdata.orderingservice.client.UserServiceClient;
+import com.playdata.orderingservice.common.auth.Role;
+import com.playdata.orderingservice.common.auth.TokenUserInfo;
+import com.playdata.orderingservice.common.dto.CommonResDto;
+import com.playdata.orderingservice.ordering.dto.OrderingListResDto;
+import com.playdata.orderingservice.ordering.dto.UserResDto;
+import com.playdata.orderingservice.ordering.entity.OrderDetail;
+import com.playdata.orderingservice.ordering.entity.OrderDetailStatus;
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import com.playdata.orderingservice.ordering.repository.OrderingRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderingServiceMyOrderTest {
+
+    private static final TokenUserInfo USER = new TokenUserInfo("user@test.com", Role.USER, 7L);
+
+    @Mock
+    private OrderingRepository orderingRepository;
+    @Mock
+    private UserServiceClient userServiceClient;
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    @InjectMocks
+    private OrderingService orderingService;
+
+    @Test
+    void firstPageStartsFromTheNewestOrderAndCapsThePageSize() {
+        when(orderingRepository.findIdsByUserIdBefore(7L, Long.MAX_VALUE, PageRequest.of(0, 100)))
+                .thenReturn(List.of());
+
+        assertThat(orderingService.myOrder(USER, null, 500)).isEmpty();
+
+        verify(orderingRepository, never()).findWithDetailsByIdIn(any());
+        verify(userServiceClient, never()).findByEmail(any());
+    }
+
+    @Test
+    void nextPageReadsBelowTheCursorWithDetailsInOneQuery() {
+        when(orderingRepository.findIdsByUserIdBefore(7L, 50L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(40L, 30L));
+        when(orderingRepository.findWithDetailsByIdIn(List.of(40L, 30L)))
+                .thenReturn(List.of(ordering(40L), ordering(30L)));
+        when(orderArchiveService.findUserOrders(7L, 30L, 50L, 2)).thenReturn(List.of());
+
+        List<OrderingListResDto> page = orderingService.myOrder(USER, 50L, 2);
+
+        assertThat(page).extracting(OrderingListResDto::getId).containsExactly(40L, 30L);
+        assertThat(page.get(0).getOrderDetails()).hasSize(1);
+    }
+
+    @Test
+    void shortPageIsFilledFromTheArchiveNewestFirst() {
+        when(orderingRepository.findIdsByUserIdBefore(7L, Long.MAX_VALUE, PageRequest.of(0, 3)))
+                .thenReturn(List.of(40L));
+        when(orderingRepository.findWithDetailsByIdIn(List.of(40L))).thenReturn(List.of(ordering(40L)));
+        // 운영 테이블에서 페이지를 다 못 채웠으니 보관 테이블은 처음(0)부터 본다.
+        when(orderArchiveService.findUserOrders(7L, 0L, Long.MAX_VALUE, 3))
+                .thenReturn(List.of(ordering(20L), ordering(10L)));
+
+        List<OrderingListResDto> page = orderingService.myOrder(USER, null, 3);
+
+        assertThat(page).extracting(OrderingListResDto::getId).containsExactly(40L, 20L, 10L);
+    }
+
+    @Test
+    void archivedOrdersInsideAFullPageKeepThePageSize() {
+        when(orderingRepository.findIdsByUserIdBefore(7L, Long.MAX_VALUE, PageRequest.of(0, 2)))
+                .thenReturn(List.of(40L, 30L));
+        when(orderingRepository.findWithDetailsByIdIn(List.of(40L, 30L)))
+                .thenReturn(List.of(ordering(40L), ordering(30L)));
+        when(orderArchiveService.findUserOrders(7L, 30L, Long.MAX_VALUE, 2)).thenReturn(List.of(ordering(35L)));
+
+        List<OrderingListResDto> page = orderingService.myOrder(USER, null, 2);
+
+        assertThat(page).extracting(OrderingListResDto::getId).containsExactly(40L, 35L);
+    }
+
+    @Test
+    void tokenWithoutUserIdFallsBackToUserService() {
+        TokenUserInfo legacyToken = new TokenUserInfo("user@test.com", Role.USER, null);
+        when(userServiceClient.findByEmail("user@test.com")).thenReturn(
+                new CommonResDto<>(HttpStatus.OK, "ok", UserResDto.builder().id(7L).build()));
+        when(orderingRepository.findIdsByUserIdBefore(eq(7L), anyLong(), any())).thenReturn(List.of());
+        when(orderArchiveService.findUserOrders(eq(7L), anyLong(), anyLong(), anyInt())).thenReturn(List.of());
+
+        assertThat(orderingService.myOrder(legacyToken, null, 10)).isEmpty();
+    }
+
+    private static Ordering ordering(Long id) {
+        Ordering ordering = Ordering.builder()
+                .id(id)
+                .userId(7L)
+                .userEmail("user@test.com")
+                .orderStatus(OrderStatus.ORDERED)
+                .orderDetails(new ArrayList<>())
+                .build();
+        ordering.getOrderDetails().add(OrderDetail.builder()
+                .id(id * 10)
+                .productId(1L)
+                .quantity(1)
+                .productName("상품1")
+                .price(1000)
+                .ordering(ordering)
+                .status(OrderDetailStatus.DEDUCTED)
+                .build());
+        return ordering;
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.playdata.orderingservice.archive.service.OrderArchiveService;
+import com.playdata.orderingservice.client.ConcurrencyLimiters;
+import com.playdata.orderingservice.client.HedgedProductReader;
+import com.playdata.orderingservice.client.ProductServiceClient;
+import com.playdata.orderingservice.common.auth.Role;
+import com.playdata.orderingservice.common.auth.TokenUserInfo;
+import com.playdata.orderingservice.common.dto.CommonResDto;
+import com.playdata.orderingservice.ordering.dto.OrderingListResDto;
+import com.playdata.orderingservice.ordering.dto.OrderingSaveReqDto;
+import com.playdata.orderingservice.ordering.dto.ProductResDto;
+import com.playdata.orderingservice.ordering.dto.StockResultDto;
+import com.playdata.orderingservice.ordering.entity.OrderDetail;
+import com.playdata.orderingservice.ordering.entity.OrderDetailStatus;
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import com.playdata.orderingservice.ordering.repository.OrderingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderingServiceProductSnapshotTest {
+
+    private static final TokenUserInfo USER = new TokenUserInfo("user@test.com", Role.USER, 7L);
+
+    @Mock
+    private OrderingRepository orderingRepository;
+    @Mock
+    private ProductServiceClient productServiceClient;
+    @Mock
+    private CircuitBreakerFactory circuitBreakerFactory;
+    @Mock
+    private CircuitBreaker circuitBreaker;
+    @Mock
+    private HedgedProductReader hedgedProductReader;
+    @Mock
+    private ConcurrencyLimiters concurrencyLimiters;
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    @InjectMocks
+    private OrderingService orderingService;
+
+    @BeforeEach
+    void setUp() {
+        // 서킷 브레이커와 동시 호출 한도는 호출을 그대로 실행
+        lenient().when(circuitBreakerFactory.create(anyString())).thenReturn(circuitBreaker);
+        lenient().when(circuitBreaker.run(any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(0).get());
+        lenient().when(concurrencyLimiters.execute(anyString(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+    }
+
+    @Test
+    void reserveResultNameAndPriceAreStoredOnTheLines() {
+        ReflectionTestUtils.setField(orderingService, "bulkReserve", true);
+        when(productServiceClient.reserveStock(any())).thenReturn(new CommonResDto<>(HttpStatus.OK, "ok", List.of(
+                result(1L, "사과", 1200, 2), result(2L, "배", 3000, 1))));
+        Ordering ordering = Ordering.builder()
+                .userId(7L)
+                .userEmail("user@test.com")
+                .orderStatus(OrderStatus.ORDERED)
+                .orderDetails(new ArrayList<>())
+                .build();
+
+        orderingService.processOrderToProductService(List.of(line(1L, 2), line(2L, 1)), 7L, ordering);
+
+        assertThat(ordering.getOrderDetails())
+                .extracting(OrderDetail::getProductName, OrderDetail::getPrice)
+                .containsExactly(tuple("사과", 1200), tuple("배", 3000));
+    }
+
+    @Test
+    void historyWithStoredNamesNeedsNoProductCall() {
+        Ordering ordering = ordering(40L);
+        ordering.getOrderDetails().add(detail(ordering, 1L, "사과", 1200, 2));
+        ordering.getOrderDetails().add(detail(ordering, 2L, "배", 3000, 1));
+        myOrdersAre(ordering);
+
+        List<OrderingListResDto> page = orderingService.myOrder(USER, null, 10);
+
+        assertThat(page.get(0).getTotalPrice()).isEqualTo(5400);
+        assertThat(page.get(0).getOrderDetails())
+                .extracting(OrderingListResDto.OrderDetailDto::getProductName)
+                .containsExactly("사과", "배");
+        verify(hedgedProductReader, never()).getProducts(any());
+    }
+
+    @Test
+    void onlyLegacyLinesAreLookedUp() {
+        Ordering ordering = ordering(40L);
+        ordering.getOrderDetails().add(detail(ordering, 1L, "사과", 1200, 2));
+        // 상품명/단가 컬럼이 생기기 전의 라인
+        ordering.getOrderDetails().add(detail(ordering, 2L, null, null, 1));
+        myOrdersAre(ordering);
+        when(hedgedProductReader.getProducts(List.of(2L))).thenReturn(new CommonResDto<>(HttpStatus.OK, "ok",
+                List.of(ProductResDto.builder().id(2L).name("배").build())));
+
+        List<OrderingListResDto> page = orderingService.myOrder(USER, null, 10);
+
+        assertThat(page.get(0).getOrderDetails())
+                .extracting(OrderingListResDto.OrderDetailDto::getProductName)
+                .containsExactly("사과", "배");
+        // 단가를 모르는 라인이 있으면 총액은 비워 둔다.
+        assertThat(page.get(0).getTotalPrice()).isNull();
+    }
+
+    private void myOrdersAre(Ordering ordering) {
+        when(orderingRepository.findIdsByUserIdBefore(7L, Long.MAX_VALUE, PageRequest.of(0, 10)))
+                .thenReturn(List.of(ordering.getId()));
+        when(orderingRepository.findWithDetailsByIdIn(List.of(ordering.getId()))).thenReturn(List.of(ordering));
+    }
+
+    private static Ordering ordering(Long id) {
+        return Ordering.builder()
+                .id(id)
+                .userId(7L)
+                .userEmail("user@test.com")
+                .orderStatus(OrderStatus.ORDERED)
+                .orderDetails(new ArrayList<>())
+                .build();
+    }
+
+    private static OrderDetail detail(Ordering ordering, Long productId, String name, Integer price, int quantity) {
+        return OrderDetail.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .productName(name)
+                .price(price)
+                .ordering(ordering)
+                .status(OrderDetailStatus.DEDUCTED)
+                .build();
+    }
+
+    private static OrderingSaveReqDto line(Long productId, int quantity) {
+        return OrderingSaveReqDto.builder().productId(productId).productQuantity(quantity).build();
+    }
+
+    private static StockResultDto result(Long productId, String name, int price, int quantity) {
+        return StockResultDto.builder()
+                .productId(productId)
+                .productName(name)
+                .price(price)
+                .quantity(quantity)
+                .success(true)
+                .build();
+    }
+
+}
@@ -0,0 +1,224 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.orderingservice.client.ConcurrencyLimiters;
+import com.playdata.orderingservice.client.ProductLookupCoalescer;
+import com.playdata.orderingservice.client.ProductServiceClient;
+import com.playdata.orderingservice.common.dto.CommonResDto;
+import com.playdata.orderingservice.ordering.dto.OrderingSaveReqDto;
+import com.playdata.orderingservice.ordering.dto.ProductResDto;
+import com.playdata.orderingservice.ordering.dto.StockChangeReqDto;
+import com.playdata.orderingservice.ordering.dto.StockReserveReqDto;
+import com.playdata.orderingservice.ordering.dto.StockResultDto;
+import com.playdata.orderingservice.ordering.entity.OrderDetail;
+import com.playdata.orderingservice.ordering.entity.OrderDetailStatus;
+import com.playdata.orderingservice.ordering.entity.OrderRequestSnapshot;
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import com.playdata.orderingservice.ordering.repository.LegacyOrderRequestRepository;
+import com.playdata.orderingservice.ordering.repository.OrderRequestSnapshotRepository;
+import com.playdata.orderingservice.ordering.repository.OrderingRepository;
+import com.playdata.orderingservice.sales.service.SalesRollupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderingServiceResumeTest {
+
+    @Mock
+    private OrderingRepository orderingRepository;
+    @Mock
+    private OrderRequestSnapshotRepository orderRequestSnapshotRepository;
+    @Spy
+    private OrderRequestCodec orderRequestCodec = new OrderRequestCodec(new ObjectMapper());
+    @Mock
+    private LegacyOrderRequestRepository legacyOrderRequestRepository;
+    @Mock
+    private ProductServiceClient productServiceClient;
+    @Mock
+    private ProductLookupCoalescer productLookupCoalescer;
+    @Mock
+    private ConcurrencyLimiters concurrencyLimiters;
+    @Mock
+    private CircuitBreakerFactory circuitBreakerFactory;
+    @Mock
+    private CircuitBreaker circuitBreaker;
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    @InjectMocks
+    private OrderingService orderingService;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        ReflectionTestUtils.setField(orderingService, "productLookupExecutor", executor);
+        ReflectionTestUtils.setField(orderingService, "lookupConcurrencyPerOrder", 8);
+
+        // 서킷 브레이커와 동시 호출 한도는 호출을 그대로 실행
+        lenient().when(circuitBreakerFactory.create(anyString())).thenReturn(circuitBreaker);
+        lenient().when(circuitBreaker.run(any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(0).get());
+        lenient().when(concurrencyLimiters.execute(anyString(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void lineByLineRetryContinuesFromEachLinesProgress() {
+        ReflectionTestUtils.setField(orderingService, "bulkReserve", false);
+        when(productServiceClient.changeStock(any())).thenAnswer(inv -> {
+            StockChangeReqDto dto = inv.getArgument(0);
+            return new CommonResDto<>(HttpStatus.OK, "ok", StockResultDto.builder()
+                    .productId(dto.getProductId()).quantity(-dto.getDelta()).success(true).build());
+        });
+        when(productLookupCoalescer.lookup(eq(3L), any())).thenReturn(
+                ProductResDto.builder().id(3L).name("상품3").price(3000).stockQuantity(10).build());
+        Ordering ordering = interruptedOrder();
+        snapshotSaved();
+
+        orderingService.retryPendingOrder(1L, "worker-a");
+
+        // 차감이 끝난 라인(11)은 다시 보내지 않고, 확인이 끝난 라인(12)은 조회 없이 차감만 한다.
+        ArgumentCaptor<StockChangeReqDto> sent = ArgumentCaptor.forClass(StockChangeReqDto.class);
+        verify(productServiceClient, times(2)).changeStock(sent.capture());
+        assertThat(sent.getAllValues()).extracting(StockChangeReqDto::getRequestId).containsExactly(12L, 13L);
+        verify(productLookupCoalescer, times(1)).lookup(any(), any());
+
+        assertThat(ordering.getOrderStatus()).isEqualTo(OrderStatus.ORDERED);
+        assertThat(ordering.getOrderDetails()).extracting(OrderDetail::getStatus)
+                .containsOnly(OrderDetailStatus.DEDUCTED);
+        verify(salesRollupService).record(ordering);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkRetrySendsOnlyUnfinishedLines() {
+        ReflectionTestUtils.setField(orderingService, "bulkReserve", true);
+        when(productServiceClient.reserveStock(any())).thenAnswer(inv -> {
+            List<StockReserveReqDto> lines = inv.getArgument(0);
+            return new CommonResDto<>(HttpStatus.OK, "ok", lines.stream()
+                    .map(line -> StockResultDto.builder()
+                            .productId(line.getProductId()).quantity(line.getProductQuantity())
+                            .productName("상품" + line.getProductId()).price(1000).success(true).build())
+                    .toList());
+        });
+        Ordering ordering = interruptedOrder();
+        snapshotSaved();
+
+        orderingService.retryPendingOrder(1L, "worker-a");
+
+        ArgumentCaptor<List<StockReserveReqDto>> sent = ArgumentCaptor.forClass(List.class);
+        verify(productServiceClient).reserveStock(sent.capture());
+        assertThat(sent.getValue()).extracting(StockReserveReqDto::getRequestId).containsExactly(12L, 13L);
+        assertThat(ordering.getOrderStatus()).isEqualTo(OrderStatus.ORDERED);
+    }
+
+    @Test
+    void orderSavedBeforeSnapshotsResumesFromTheLegacyColumn() {
+        ReflectionTestUtils.setField(orderingService, "bulkReserve", true);
+        when(productServiceClient.reserveStock(any())).thenAnswer(inv -> {
+            List<StockReserveReqDto> lines = inv.getArgument(0);
+            return new CommonResDto<>(HttpStatus.OK, "ok", lines.stream()
+                    .map(line -> StockResultDto.builder()
+                            .productId(line.getProductId()).quantity(line.getProductQuantity()).success(true).build())
+                    .toList());
+        });
+        Ordering ordering = interruptedOrder();
+        when(orderRequestSnapshotRepository.findById(1L)).thenReturn(Optional.empty());
+        when(legacyOrderRequestRepository.findRequestJson(1L)).thenReturn(Optional.of(
+                "[{\"productId\":1,\"productQuantity\":2},{\"productId\":2,\"productQuantity\":2}," +
+                        "{\"productId\":3,\"productQuantity\":2}]"));
+
+        orderingService.retryPendingOrder(1L, "worker-a");
+
+        assertThat(ordering.getOrderStatus()).isEqualTo(OrderStatus.ORDERED);
+    }
+
+    @Test
+    void orderWithoutAnyStoredRequestIsRejected() {
+        Ordering ordering = interruptedOrder();
+        when(orderRequestSnapshotRepository.findById(1L)).thenReturn(Optional.empty());
+        // 예전 컬럼이 없는 스키마 -> 조회 없이 비어 있음
+        when(legacyOrderRequestRepository.findRequestJson(1L)).thenReturn(Optional.empty());
+
+        orderingService.retryPendingOrder(1L, "worker-a");
+
+        assertThat(ordering.getOrderStatus()).isEqualTo(OrderStatus.REJECTED);
+        verify(productServiceClient, never()).reserveStock(any());
+        verify(productServiceClient, never()).changeStock(any());
+    }
+
+    // 지난 시도에서 1번 라인은 차감 완료, 2번 라인은 재고 확인 후 차감 응답 유실, 3번 라인은 상품 조회 실패
+    private Ordering interruptedOrder() {
+        Ordering ordering = Ordering.builder()
+                .id(1L)
+                .userId(7L)
+                .userEmail("user@test.com")
+                .orderStatus(OrderStatus.PENDING_PROD_NOT_FOUND)
+                .orderDetails(new ArrayList<>())
+                .build();
+        ordering.getOrderDetails().addAll(List.of(
+                detail(ordering, 11L, 1L, OrderDetailStatus.DEDUCTED),
+                detail(ordering, 12L, 2L, OrderDetailStatus.RESERVED),
+                detail(ordering, 13L, 3L, OrderDetailStatus.FAILED)));
+        ordering.claimLease("worker-a", LocalDateTime.now().plusMinutes(5));
+        when(orderingRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(ordering));
+        return ordering;
+    }
+
+    private void snapshotSaved() {
+        List<OrderingSaveReqDto> original = List.of(line(1L), line(2L), line(3L));
+        when(orderRequestSnapshotRepository.findById(1L)).thenReturn(
+                Optional.of(new OrderRequestSnapshot(1L, orderRequestCodec.encode(original))));
+    }
+
+    private static OrderDetail detail(Ordering ordering, Long id, Long productId, OrderDetailStatus status) {
+        return OrderDetail.builder()
+                .id(id)
+                .productId(productId)
+                .quantity(2)
+                .ordering(ordering)
+                .status(status)
+                .build();
+    }
+
+    private static OrderingSaveReqDto line(Long productId) {
+        return OrderingSaveReqDto.builder().productId(productId).productQuantity(2).build();
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.playdata.orderingservice.ordering.service;
+
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.entity.Ordering;
+import com.playdata.orderingservice.ordering.repository.OrderRequestSnapshotRepository;
+import com.playdata.orderingservice.ordering.repository.OrderingRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderingServiceRetryLeaseTest {
+
+    private static final List<OrderStatus> STATUSES = List.of(OrderStatus.PENDING_PROD_STOCK_UPDATE);
+
+    @Mock
+    private OrderingRepository orderingRepository;
+    @Mock
+    private OrderRequestSnapshotRepository orderRequestSnapshotRepository;
+    @Mock
+    private OrderRetryPolicy orderRetryPolicy;
+
+    @InjectMocks
+    private OrderingService orderingService;
+
+    @Test
+    void claimedOrdersAreLeasedToTheCaller() {
+        Ordering first = pendingOrder(1L);
+        Ordering second = pendingOrder(2L);
+        LocalDateTime dueBefore = LocalDateTime.now();
+        when(orderingRepository.findRetryTargetsForClaim(eq(STATUSES), eq(dueBefore), any(), eq(PageRequest.of(0, 10))))
+                .thenReturn(List.of(first, second));
+
+        List<Long> claimed = orderingService.claimPendingOrders(
+                STATUSES, dueBefore, 10, "worker-a", Duration.ofMinutes(5));
+
+        assertThat(claimed).containsExactly(1L, 2L);
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(first.isLeasedBy("worker-a", now)).isTrue();
+        assertThat(second.isLeasedBy("worker-a", now)).isTrue();
+        assertThat(first.isLeasedBy("worker-b", now)).isFalse();
+        // 리스가 끝나면 다른 인스턴스가 다시 집어갈 수 있다.
+        assertThat(first.isLeasedBy("worker-a", now.plusMinutes(6))).isFalse();
+    }
+
+    @Test
+    void orderLeasedByAnotherWorkerIsLeftAlone() {
+        Ordering ordering = pendingOrder(1L);
+        ordering.claimLease("worker-b", LocalDateTime.now().plusMinutes(5));
+        when(orderingRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(ordering));
+
+        orderingService.retryPendingOrder(1L, "worker-a");
+
+        assertThat(ordering.getOrderStatus()).isEqualTo(OrderStatus.PENDING_PROD_STOCK_UPDATE);
+        assertThat(ordering.getLeaseOwner()).isEqualTo("worker-b");
+        verify(orderRequestSnapshotRepository, never()).findById(any());
+    }
+
+    @Test
+    void expiredOwnLeaseIsLeftAlone() {
+        // 처리가 늦어지는 사이 리스가 만료 -> 이미 다른 인스턴스가 다시 집었을 수 있다.
+        Ordering ordering = pendingOrder(1L);
+        ordering.claimLease("worker-a", LocalDateTime.now().minusSeconds(1));
+        when(orderingRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(ordering));
+
+        orderingService.retryPendingOrder(1L, "worker-a");
+
+        assertThat(ordering.getOrderStatus()).isEqualTo(OrderStatus.PENDING_PROD_STOCK_UPDATE);
+        verify(orderRequestSnapshotRepository, never()).findById(any());
+    }
+
+    @Test
+    void deferRetryOnlyTouchesOwnLease() {
+        Ordering ordering = pendingOrder(1L);
+        ordering.claimLease("worker-b", LocalDateTime.now().plusMinutes(5));
+        when(orderingRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(ordering));
+
+        orderingService.deferRetry(1L, "worker-a");
+
+        assertThat(ordering.getRetryCount()).isZero();
+        assertThat(ordering.getLeaseOwner()).isEqualTo("worker-b");
+        verify(orderRetryPolicy, never()).nextAttemptAt(anyInt());
+    }
+
+    @Test
+    void deferRetryPushesBackAndReleasesOwnLease() {
+        Ordering ordering = pendingOrder(1L);
+        ordering.claimLease("worker-a", LocalDateTime.now().plusMinutes(5));
+        LocalDateTime next = LocalDateTime.now().plusMinutes(1);
+        when(orderingRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(ordering));
+        when(orderRetryPolicy.nextAttemptAt(0)).thenReturn(next);
+
+        orderingService.deferRetry(1L, "worker-a");
+
+        assertThat(ordering.getRetryCount()).isEqualTo(1);
+        assertThat(ordering.getNextAttemptAt()).isEqualTo(next);
+        assertThat(ordering.getLeaseOwner()).isNull();
+    }
+
+    private static Ordering pendingOrder(Long id) {
+        return Ordering.builder()
+                .id(id)
+                .userId(7L)
+                .userEmail("user@test.com")
+                .orderStatus(OrderStatus.PENDING_PROD_STOCK_UPDATE)
+                .orderDetails(new ArrayList<>())
+                .build();
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.playdata.orderingservice.sales.service;
+
+import com.playdata.orderingservice.ordering.entity.OrderStatus;
+import com.playdata.orderingservice.ordering.repository.OrderingRepository;
+import com.playdata.orderingservice.sales.dto.SalesEvent;
+import com.playdata.orderingservice.sales.repository.ProductDailySalesRepository;
+import com.playdata.orderingservice.sales.repository.SalesRollupWatermarkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupWriterTest {
+
+    private static final LocalDate SALES_DATE = LocalDate.of(2025, 3, 1);
+
+    @Mock
+    private OrderingRepository orderingRepository;
+    @Mock
+    private ProductDailySalesRepository productDailySalesRepository;
+    @Mock
+    private SalesRollupWatermarkRepository watermarkRepository;
+
+    @InjectMocks
+    private SalesRollupWriter salesRollupWriter;
+
+    // 주문별 rolledUpStatus 컬럼 (조건부 UPDATE를 흉내)
+    private final Map<Long, OrderStatus> rolledUp = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(orderingRepository.markRolledUp(anyLong(), any())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            if (rolledUp.containsKey(id)) return 0;
+            rolledUp.put(id, invocation.getArgument(1));
+            return 1;
+        });
+        lenient().when(orderingRepository.changeRolledUp(anyLong(), any(), any())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            if (rolledUp.get(id) != invocation.getArgument(1)) return 0;
+            rolledUp.put(id, invocation.getArgument(2));
+            return 1;
+        });
+    }
+
+    @Test
+    void orderedThenCanceledInOneBatch() {
+        int applied = salesRollupWriter.apply(List.of(
+                event(1L, OrderStatus.ORDERED, 3),
+                event(1L, OrderStatus.CANCELED, 3)
+        ));
+
+        assertThat(applied).isEqualTo(2);
+        assertThat(rolledUp).containsEntry(1L, OrderStatus.CANCELED);
+        // 같은 날짜/상품이라 한 번의 UPSERT로 합쳐서 반영
+        verify(productDailySalesRepository).accumulate(10L, SALES_DATE, 3, 3, 3000, 3000);
+        verifyNoMoreInteractions(productDailySalesRepository);
+    }
+
+    @Test
+    void replayedEventsAreNotCountedTwice() {
+        SalesEvent ordered = event(1L, OrderStatus.ORDERED, 2);
+
+        assertThat(salesRollupWriter.apply(List.of(ordered))).isEqualTo(1);
+        assertThat(salesRollupWriter.apply(List.of(ordered))).isZero();
+
+        verify(productDailySalesRepository).accumulate(10L, SALES_DATE, 2, 0, 2000, 0);
+        verifyNoMoreInteractions(productDailySalesRepository);
+    }
+
+    @Test
+    void canceledBeforeRollupIsOnlyMarked() {
+        // 판매로 집계된 적 없이 취소된 주문 (보류 중 취소 등)
+        int applied = salesRollupWriter.apply(List.of(event(2L, OrderStatus.CANCELED, 1)));
+
+        assertThat(applied).isZero();
+        assertThat(rolledUp).containsEntry(2L, OrderStatus.CANCELED);
+        verify(productDailySalesRepository, never())
+                .accumulate(anyLong(), any(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    private static SalesEvent event(Long orderId, OrderStatus status, int quantity) {
+        return new SalesEvent(orderId, status, SALES_DATE, List.of(new SalesEvent.Line(10L, quantity, 1000)));
+    }
+
+}
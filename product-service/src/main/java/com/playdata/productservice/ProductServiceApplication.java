@@ -2,8 +2,10 @@ package com.playdata.productservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // hot 상품 재고 변화량을 주기적으로 DB에 반영하기 위해 사용
 public class ProductServiceApplication {
 
     public static void main(String[] args) {
@@ -10,5 +10,6 @@ public class TokenUserInfo {
 
     private String email;
     private Role role;
+    private Long userId; // 게이트웨이가 토큰에서 꺼내준 회원 id (id 클레임이 없는 예전 토큰이면 null)
 
 }
@@ -5,6 +5,7 @@ import com.playdata.productservice.common.exception.CustomAuthenticationEntryPoi
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -21,6 +22,9 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    // 게이트웨이가 전달하는 요청에 붙이는 헤더
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
     // 필터 등록을 위해서 객체가 필요 -> 빈 등록돈 객체를 자동 주입.
     private final JwtAuthFilter jwtAuthFilter;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
@@ -43,6 +47,11 @@ public class SecurityConfig {
         http.authorizeHttpRequests(auth -> {
             auth
 //                    .requestMatchers("/user/list").hasRole("ROLE_ADMIN")
+                    // 서비스 간 호출 전용 재고 API: 게이트웨이를 거쳐 들어온 요청(X-Forwarded-For가 붙음)은 거절.
+                    // (게이트웨이에서도 라우트로 막지만, 게이트웨이 설정이 바뀌어도 외부에서 재고를 늘릴 수 없도록 한 번 더 확인)
+                    .requestMatchers("/product/reserve", "/product/stock")
+                    .access((authentication, context) -> new AuthorizationDecision(
+                            context.getRequest().getHeader(FORWARDED_FOR) == null))
                     .requestMatchers("/product/list",
                             "/product/updateQuantity",
                             "/product/{prodId}",
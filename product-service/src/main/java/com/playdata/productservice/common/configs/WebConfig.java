@@ -0,0 +1,29 @@
+package com.playdata.productservice.common.configs;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    // 스프링 부트의 Jackson 설정(모듈, 날짜 형식 등)이 적용된 빌더 (요청마다 새로 만들어 주는 빈)
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    // ordering-service가 Accept / Content-Type: application/x-jackson-smile 로 요청하면
+    // 같은 DTO를 바이너리 JSON(Smile)으로 주고받는다. (JSON보다 작고 직렬화 비용이 적음)
+    // 맨 뒤에 추가해서, Accept를 지정하지 않은 일반 요청은 지금처럼 JSON으로 응답한다.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.factory(new SmileFactory()).build()));
+    }
+
+}
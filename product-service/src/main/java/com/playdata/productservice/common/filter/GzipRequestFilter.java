@@ -0,0 +1,186 @@
+package com.playdata.productservice.common.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.productservice.common.dto.CommonErrorDto;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+// ordering-service가 gzip으로 압축해서 보낸 요청 본문(Content-Encoding: gzip)을 풀어서 컨트롤러에 전달.
+// (Tomcat은 요청 본문 압축 해제를 해 주지 않는다. 응답 압축은 server.compression 설정으로 처리)
+// - 서비스 간 호출 경로만 받는다. 그 외 경로에 gzip 본문이 오면 415.
+// - 작은 압축 본문이 거대하게 풀리는 요청(압축 폭탄)을 막기 위해, 풀린 크기가 상한을 넘으면 413.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+    // ordering-service가 압축해서 보내는 내부 호출 경로 (ProductServiceClient)
+    private static final Set<String> INTERNAL_PATHS = Set.of(
+            "/product/reserve",
+            "/product/stock",
+            "/product/products",
+            "/product/cancel",
+            "/product/updateQuantity"
+    );
+
+    private final ObjectMapper objectMapper;
+
+    // 압축을 푼 본문의 최대 크기 (주문 한 건의 재고 요청은 이보다 훨씬 작다)
+    @Value("${product.gzip-request.max-inflated-bytes:1048576}")
+    private int maxInflatedBytes;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"gzip".equalsIgnoreCase(request.getHeader("Content-Encoding"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!INTERNAL_PATHS.contains(path)) {
+            writeError(response, HttpStatus.UNSUPPORTED_MEDIA_TYPE, "압축된 요청 본문을 받지 않는 경로입니다: " + path);
+            return;
+        }
+
+        byte[] body;
+        try {
+            body = inflate(request.getInputStream());
+        } catch (ZipException e) {
+            writeError(response, HttpStatus.BAD_REQUEST, "gzip 본문을 풀 수 없습니다: " + e.getMessage());
+            return;
+        }
+        if (body == null) {
+            log.warn("압축 해제 크기 초과로 요청 거절 - 경로: {}, 상한: {}바이트", path, maxInflatedBytes);
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "압축을 푼 요청 본문이 " + maxInflatedBytes + "바이트를 넘습니다.");
+            return;
+        }
+        filterChain.doFilter(new GzipRequestWrapper(request, body), response);
+    }
+
+    // 상한까지만 풀어본다. 상한을 넘으면 null (나머지는 읽지 않음)
+    private byte[] inflate(InputStream compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(compressed)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (out.size() + read > maxInflatedBytes) return null;
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType("application/json; charset=UTF-8");
+        response.getWriter().write(objectMapper.writeValueAsString(new CommonErrorDto(status, message)));
+    }
+
+    private static class GzipRequestWrapper extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        GzipRequestWrapper(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // 본문을 필터에서 이미 다 읽었으므로 원래 스트림의 비동기 읽기에 연결할 수 없다.
+                    throw new IllegalStateException("압축 해제된 요청 본문은 비동기 읽기(ReadListener)를 지원하지 않습니다.");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        // 압축을 푼 본문 기준의 길이. 원래 길이와 인코딩 헤더는 숨긴다.
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (isHidden(name)) return null;
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (isHidden(name)) return Collections.emptyEnumeration();
+            return super.getHeaders(name);
+        }
+
+        private boolean isHidden(String name) {
+            return "Content-Encoding".equalsIgnoreCase(name) || "Content-Length".equalsIgnoreCase(name);
+        }
+
+    }
+
+}
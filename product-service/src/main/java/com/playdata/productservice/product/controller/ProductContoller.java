@@ -4,7 +4,11 @@ import com.playdata.productservice.common.dto.CommonResDto;
 import com.playdata.productservice.product.dto.ProductResDto;
 import com.playdata.productservice.product.dto.ProductSaveReqDto;
 import com.playdata.productservice.product.dto.ProductSearchDto;
+import com.playdata.productservice.product.dto.StockChangeReqDto;
+import com.playdata.productservice.product.dto.StockReserveReqDto;
+import com.playdata.productservice.product.dto.StockResultDto;
 import com.playdata.productservice.product.entity.Product;
+import com.playdata.productservice.product.service.HotStockService;
 import com.playdata.productservice.product.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +29,7 @@ import java.util.Map;
 public class ProductContoller {
 
     private final ProductService productService;
+    private final HotStockService hotStockService;
 
     // 상품 등록 요청
     @PreAuthorize("hasRole('ADMIN')")
@@ -104,6 +109,28 @@ public class ProductContoller {
         return ResponseEntity.ok().body(resDto);
     }
 
+    // 재고 변화량 적용 (delta < 0: 차감, delta > 0: 증가)
+    // 재고가 부족하면 변경하지 않고 success: false, failReason: INSUFFICIENT_STOCK 으로 응답.
+    @PutMapping("/stock")
+    public ResponseEntity<?> changeStock(@RequestBody StockChangeReqDto dto) {
+        log.info("/product/stock: PUT, dto: {}", dto);
+        StockResultDto result = productService.changeStock(dto);
+        CommonResDto resDto
+                = new CommonResDto(HttpStatus.OK,
+                result.isSuccess() ? "변경 완료" : "재고 변경 실패", result);
+        return ResponseEntity.ok().body(resDto);
+    }
+
+    // 주문 한 건의 모든 상품 재고를 한 번에 확인 및 차감하는 요청 (라인별 결과 리턴)
+    @PostMapping("/reserve")
+    public ResponseEntity<?> reserveStock(@RequestBody List<StockReserveReqDto> dtoList) {
+        log.info("/product/reserve: POST, dtoList: {}", dtoList);
+        List<StockResultDto> results = productService.reserveStock(dtoList);
+        CommonResDto resDto
+                = new CommonResDto(HttpStatus.OK, "재고 처리 완료", results);
+        return ResponseEntity.ok().body(resDto);
+    }
+
     // 한 사용자의 모든 주문 내역 안에 있는 상품 정보를 리턴하는 메서드
     @PostMapping("/products")
     public ResponseEntity<?> getProducts(@RequestBody List<Long> productIds) {
@@ -119,11 +146,32 @@ public class ProductContoller {
     @PutMapping("/cancel")
     public ResponseEntity<?> cancelProduct(@RequestBody Map<Long, Integer> map) {
         log.info("/product/cancel: PUT, map: {}", map);
-        productService.cancelProduct(map);
+        List<StockResultDto> results = productService.cancelProduct(map);
         CommonResDto resDto
-                = new CommonResDto(HttpStatus.OK, "update completed", map);
+                = new CommonResDto(HttpStatus.OK, "update completed", results);
         return ResponseEntity.ok().body(resDto);
     }
 
+    // 플래시 세일 등 주문이 몰리는 상품의 재고를 Redis에서 관리하도록 전환 (ADMIN 전용)
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/hot-stock/{prodId}")
+    public ResponseEntity<?> enableHotStock(@PathVariable Long prodId) {
+        log.info("/product/hot-stock/{}: PUT", prodId);
+        hotStockService.enable(prodId);
+        CommonResDto resDto
+                = new CommonResDto(HttpStatus.OK, "hot 재고 모드 시작", prodId);
+        return ResponseEntity.ok().body(resDto);
+    }
+
+    // hot 재고 모드 종료 -> 남은 변화량을 DB에 반영하고 다시 DB에서 재고 관리 (ADMIN 전용)
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/hot-stock/{prodId}")
+    public ResponseEntity<?> disableHotStock(@PathVariable Long prodId) {
+        log.info("/product/hot-stock/{}: DELETE", prodId);
+        hotStockService.disable(prodId);
+        CommonResDto resDto
+                = new CommonResDto(HttpStatus.OK, "hot 재고 모드 종료", prodId);
+        return ResponseEntity.ok().body(resDto);
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.playdata.productservice.product.dto;
+
+import lombok.*;
+
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockChangeReqDto {
+
+    private Long productId;
+    // 변경할 재고 수량 (음수: 차감, 양수: 증가) -> 절대값이 아니라 변화량을 전달한다.
+    private int delta;
+    // 주문 라인 id (선택). 있으면 같은 id의 요청은 한 번만 반영한다. (응답 유실 후 재시도 대비)
+    private Long requestId;
+
+}
@@ -0,0 +1,17 @@
+package com.playdata.productservice.product.dto;
+
+import lombok.*;
+
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReserveReqDto {
+
+    // ordering-service의 OrderingSaveReqDto와 필드명을 맞춰서 주문 내역을 그대로 받을 수 있게 함.
+    private Long productId;
+    private int productQuantity;
+    // 주문 라인 id (중복 요청 판별용). 같은 id로 다시 오면 차감하지 않고 이전 결과를 돌려준다.
+    private Long requestId;
+
+}
@@ -25,6 +25,15 @@ public class Product extends BaseTimeEntity {
     @Setter // 이미지 경로를 위해서만 setter 세팅
     private String imagePath;
 
+    // true면 재고를 Redis에서 관리한다. (플래시 세일처럼 주문이 한 상품에 몰리는 경우)
+    // 이 때 DB의 stockQuantity는 Redis의 변화량이 주기적으로 반영되는 사본.
+    @Builder.Default
+    private boolean hotStock = false;
+
+    // Redis 재고 변화량을 DB에 마지막으로 반영한 순번 (같은 변화량이 두 번 반영되지 않도록)
+    @Builder.Default
+    private long stockFlushSeq = 0;
+
     public ProductResDto fromEntity() {
         return ProductResDto.builder()
                 .id(id)
@@ -0,0 +1,61 @@
+package com.playdata.productservice.product.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/*
+ 이미 반영한 재고 변경 요청 기록 (주문 라인 하나당 하나).
+ ordering-service는 응답을 못 받으면 같은 주문 라인을 다시 보낸다. (타임아웃 후 재처리)
+ 재고 변경과 같은 트랜잭션에 기록해 두고, 같은 요청 id가 다시 오면 차감하지 않고 이전 결과를 돌려준다.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "tbl_stock_request_log", indexes = {
+        @Index(name = "idx_stock_request_log_create_time", columnList = "createTime")
+})
+public class StockRequestLog implements Persistable<Long> {
+
+    // ordering-service의 주문 상세(OrderDetail) id
+    @Id
+    private Long requestId;
+
+    private Long productId;
+    private int delta; // 반영한 변화량 (차감이면 음수)
+
+    @CreationTimestamp
+    private LocalDateTime createTime;
+
+    // id를 직접 넣는 엔터티라 save() 시 merge(SELECT 후 INSERT)가 되지 않도록 새 엔터티임을 알려준다.
+    // 같은 요청 id가 동시에 들어오면 INSERT가 PK 충돌로 실패 -> 트랜잭션 롤백으로 중복 차감도 함께 취소된다.
+    @Transient
+    private boolean newEntity = true;
+
+    public StockRequestLog(Long requestId, Long productId, int delta) {
+        this.requestId = requestId;
+        this.productId = productId;
+        this.delta = delta;
+    }
+
+    @Override
+    public Long getId() {
+        return requestId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
+}
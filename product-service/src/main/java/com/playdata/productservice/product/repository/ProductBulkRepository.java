@@ -0,0 +1,44 @@
+package com.playdata.productservice.product.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// 여러 상품의 재고를 한 번에 바꾸는 JDBC 배치 전용 리포지토리.
+// JPA 벌크 쿼리는 상품 하나당 한 문장씩 따로 보내야 해서, 여기서는 JdbcTemplate 배치로 한 번에 보낸다.
+// (JPA와 같은 트랜잭션/커넥션을 사용하므로 ProductService의 트랜잭션 안에서 함께 커밋/롤백된다)
+@Repository
+@RequiredArgsConstructor
+public class ProductBulkRepository {
+
+    private static final String INCREASE_STOCK_SQL =
+            "UPDATE tbl_product SET stock_quantity = stock_quantity + ? " +
+            "WHERE id = ? AND hot_stock = false";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 상품별 재고 증가를 배치 한 번으로 처리하고, 상품별로 변경된 행 수(1: 성공, 0: 없는 상품 또는 hot 상품)를 리턴.
+    // id 순으로 보내서 동시에 들어온 취소끼리 행 잠금 순서가 엇갈리지 않도록 한다. (데드락 방지)
+    public Map<Long, Integer> increaseStocks(Map<Long, Integer> quantities) {
+        Map<Long, Integer> results = new LinkedHashMap<>();
+        if (quantities.isEmpty()) return results;
+
+        List<Long> ids = new ArrayList<>(new TreeMap<>(quantities).keySet());
+        int[] counts = jdbcTemplate.batchUpdate(INCREASE_STOCK_SQL, ids, ids.size(), (ps, id) -> {
+            ps.setInt(1, quantities.get(id));
+            ps.setLong(2, id);
+        })[0];
+
+        for (int i = 0; i < ids.size(); i++) {
+            results.put(ids.get(i), counts[i]);
+        }
+        return results;
+    }
+
+}
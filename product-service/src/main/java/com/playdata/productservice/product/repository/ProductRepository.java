@@ -3,8 +3,12 @@ package com.playdata.productservice.product.repository;
 import com.playdata.productservice.product.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -21,4 +25,38 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findByIdIn(List<Long> ids);
 
+    // 재고 일괄 차감용 조회: 트랜잭션이 끝날 때까지 행 잠금(SELECT ... FOR UPDATE)
+    // 여러 주문이 동시에 같은 상품들을 잠그더라도 데드락이 나지 않도록 id 순서로 잠근다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN ?1 ORDER BY p.id")
+    List<Product> findByIdInForUpdate(List<Long> ids);
+
+    // 조건부 재고 차감: 재고가 충분할 때만 DB가 직접 빼도록 한 문장으로 처리 (조회 후 수정 X)
+    // 리턴값은 변경된 행의 수 -> 0이면 재고 부족이거나 없는 상품.
+    // hot 상품은 Redis가 재고 원본이기 때문에 DB에서 직접 차감하지 않는다.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - ?2 " +
+            "WHERE p.id = ?1 AND p.stockQuantity >= ?2 AND p.hotStock = false")
+    int decreaseStock(Long id, int quantity);
+
+    // 재고 증가 (주문 취소 등으로 재고를 되돌릴 때)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + ?2 " +
+            "WHERE p.id = ?1 AND p.hotStock = false")
+    int increaseStock(Long id, int quantity);
+
+    List<Product> findByHotStockTrue();
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.hotStock = ?2 WHERE p.id = ?1")
+    int updateHotStock(Long id, boolean hotStock);
+
+    // Redis에 쌓인 재고 변화량을 DB에 반영 (write-behind)
+    // 순번(seq)이 이미 반영된 것보다 클 때만 적용 -> 같은 변화량을 여러 번 반영해도 한 번만 적용됨.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + ?2, p.stockFlushSeq = ?3 " +
+            "WHERE p.id = ?1 AND p.stockFlushSeq < ?3")
+    int applyHotStockDelta(Long id, int delta, long seq);
+
 }
\ No newline at end of file
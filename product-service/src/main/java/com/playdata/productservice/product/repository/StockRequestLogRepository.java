@@ -0,0 +1,21 @@
+package com.playdata.productservice.product.repository;
+
+import com.playdata.productservice.product.entity.StockRequestLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface StockRequestLogRepository extends JpaRepository<StockRequestLog, Long> {
+
+    List<StockRequestLog> findByRequestIdIn(Collection<Long> requestIds);
+
+    // 보관 기간이 지난 기록 정리 (그 이후에 같은 요청이 다시 올 일은 없다고 본다)
+    @Modifying
+    @Query("DELETE FROM StockRequestLog l WHERE l.createTime < ?1")
+    int deleteOlderThan(LocalDateTime threshold);
+
+}
@@ -0,0 +1,63 @@
+package com.playdata.productservice.product.service;
+
+import com.playdata.productservice.product.entity.Product;
+import com.playdata.productservice.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class HotStockFlushScheduler {
+
+    private final HotStockService hotStockService;
+    private final ProductRepository productRepository;
+
+    // Redis에 쌓인 hot 상품 재고 변화량을 주기적으로 DB에 반영 (상품당 UPDATE 1번으로 묶어서)
+    @Scheduled(fixedDelayString = "${product.hot-stock.flush-interval-ms:1000}")
+    public void flushHotStock() {
+        for (Long prodId : hotStockService.hotProductIds()) {
+            try {
+                hotStockService.flush(prodId);
+            } catch (Exception e) {
+                // 반영 중 상태로 남아 있으니 다음 주기에 같은 순번으로 다시 시도된다.
+                log.error("hot 재고 DB 반영 실패 - 상품 ID: {}, 오류: {}", prodId, e.getMessage());
+            }
+        }
+    }
+
+    // 서버가 뜰 때 Redis와 DB의 hot 재고 상태를 맞춘다.
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        Set<Long> flagged = productRepository.findByHotStockTrue().stream()
+                .map(Product::getId)
+                .collect(Collectors.toSet());
+
+        for (Long prodId : hotStockService.hotProductIds()) {
+            if (!flagged.contains(prodId)) {
+                // hot 모드를 끄던 도중 서버가 종료된 상품 -> 남은 변화량 반영 후 정리
+                runSafely(prodId, () -> hotStockService.disable(prodId));
+            }
+        }
+        for (Long prodId : flagged) {
+            runSafely(prodId, () -> hotStockService.restore(prodId));
+        }
+        log.info("hot 재고 정합성 확인 완료 - 대상 상품 수: {}", flagged.size());
+    }
+
+    private void runSafely(Long prodId, Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("hot 재고 정합성 확인 실패 - 상품 ID: {}, 오류: {}", prodId, e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,284 @@
+package com.playdata.productservice.product.service;
+
+import com.playdata.productservice.product.entity.Product;
+import com.playdata.productservice.product.repository.ProductRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+ 주문이 몰리는 상품(hot 상품)의 재고를 Redis에서 관리하는 서비스.
+ - 차감/증가는 Redis 안에서 Lua 스크립트로 원자적으로 처리 (DB 행 잠금 경합 X)
+ - 변화량은 따로 누적해 두었다가 HotStockFlushScheduler가 주기적으로 DB에 반영 (write-behind)
+ - 반영 중인 변화량은 순번(seq)과 함께 보관 -> 중간에 서버가 죽어도 재시작 시 정확히 한 번만 반영됨.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HotStockService {
+
+    // 스크립트 결과 코드 (0 이상이면 처리 후 남은 재고)
+    public static final long INSUFFICIENT = -1; // 재고 부족
+    public static final long NOT_HOT = -2; // Redis에 재고가 없음 (hot 모드가 아님) -> DB로 처리해야 함
+    public static final long ALREADY_APPLIED = -3; // 같은 요청 id로 이미 반영됨 (재시도) -> 다시 반영하지 않음
+
+    private static final String HOT_SET_KEY = "product:stock:hot";
+
+    // KEYS[1]: 재고, KEYS[2]: 누적 변화량 / ARGV[1]: 차감 수량
+    private static final RedisScript<Long> DECREASE_SCRIPT = RedisScript.of("""
+            local stock = redis.call('GET', KEYS[1])
+            if not stock then return -2 end
+            local quantity = tonumber(ARGV[1])
+            if tonumber(stock) < quantity then return -1 end
+            redis.call('INCRBY', KEYS[2], -quantity)
+            return redis.call('DECRBY', KEYS[1], quantity)
+            """, Long.class);
+
+    // KEYS[1]: 재고, KEYS[2]: 누적 변화량 / ARGV[1]: 증가 수량
+    private static final RedisScript<Long> INCREASE_SCRIPT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return -2 end
+            redis.call('INCRBY', KEYS[2], ARGV[1])
+            return redis.call('INCRBY', KEYS[1], ARGV[1])
+            """, Long.class);
+
+    // 요청 id당 한 번만 반영. 반영한 변화량을 표시 키에 남겨두고, 표시가 있으면 아무것도 하지 않는다.
+    // KEYS[1]: 재고, KEYS[2]: 누적 변화량, KEYS[3]: 요청 표시 / ARGV[1]: 변화량(음수: 차감), ARGV[2]: 표시 유지 시간(초)
+    private static final RedisScript<Long> APPLY_ONCE_SCRIPT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[3]) == 1 then return -3 end
+            local stock = redis.call('GET', KEYS[1])
+            if not stock then return -2 end
+            local delta = tonumber(ARGV[1])
+            if tonumber(stock) + delta < 0 then return -1 end
+            redis.call('INCRBY', KEYS[2], delta)
+            redis.call('SET', KEYS[3], delta, 'EX', ARGV[2])
+            return redis.call('INCRBY', KEYS[1], delta)
+            """, Long.class);
+
+    // APPLY_ONCE_SCRIPT로 반영한 변화량 되돌리기 (표시도 함께 삭제). 표시가 없으면 되돌릴 것도 없음.
+    // KEYS[1]: 재고, KEYS[2]: 누적 변화량, KEYS[3]: 요청 표시
+    private static final RedisScript<Long> UNDO_SCRIPT = RedisScript.of("""
+            local applied = redis.call('GET', KEYS[3])
+            if not applied then return 0 end
+            redis.call('DEL', KEYS[3])
+            if redis.call('EXISTS', KEYS[1]) == 0 then return -2 end
+            redis.call('INCRBY', KEYS[2], -tonumber(applied))
+            return redis.call('INCRBY', KEYS[1], -tonumber(applied))
+            """, Long.class);
+
+    // 누적 변화량을 '반영 중' 상태로 옮기고 순번을 붙인다. 이미 반영 중인 게 있으면 그걸 다시 돌려준다.
+    // KEYS[1]: 누적 변화량, KEYS[2]: 반영 중(hash: delta, seq), KEYS[3]: 순번
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAIN_SCRIPT = RedisScript.of("""
+            local flushing = redis.call('HMGET', KEYS[2], 'delta', 'seq')
+            if flushing[1] then return {tonumber(flushing[1]), tonumber(flushing[2])} end
+            local delta = tonumber(redis.call('GET', KEYS[1]) or '0')
+            if delta == 0 then return {0, 0} end
+            redis.call('DECRBY', KEYS[1], delta)
+            local seq = redis.call('INCR', KEYS[3])
+            redis.call('HSET', KEYS[2], 'delta', delta, 'seq', seq)
+            return {delta, seq}
+            """, List.class);
+
+    // 반영이 끝난 변화량 삭제 (다른 인스턴스가 새로 옮겨둔 변화량을 지우지 않도록 순번 확인)
+    private static final RedisScript<Long> ACK_SCRIPT = RedisScript.of("""
+            if redis.call('HGET', KEYS[1], 'seq') == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ProductRepository productRepository;
+
+    // 요청 표시 유지 기간 (DB의 요청 기록 보관 기간과 맞춘다)
+    @Value("${product.stock-request.retention-days:14}")
+    private long requestRetentionDays;
+
+    public boolean isHot(Long prodId) {
+        return Boolean.TRUE.equals(
+                stringRedisTemplate.opsForSet().isMember(HOT_SET_KEY, String.valueOf(prodId)));
+    }
+
+    // 전달된 상품 중 hot 상품의 id만 골라낸다. (Redis 요청 1번)
+    public Set<Long> filterHot(Collection<Long> prodIds) {
+        if (prodIds.isEmpty()) return new HashSet<>();
+
+        Map<Object, Boolean> members = stringRedisTemplate.opsForSet()
+                .isMember(HOT_SET_KEY, prodIds.stream().map(String::valueOf).toArray());
+
+        return prodIds.stream()
+                .filter(id -> Boolean.TRUE.equals(members.get(String.valueOf(id))))
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    public Set<Long> hotProductIds() {
+        Set<String> members = stringRedisTemplate.opsForSet().members(HOT_SET_KEY);
+        if (members == null) return new HashSet<>();
+        return members.stream().map(Long::valueOf).collect(Collectors.toSet());
+    }
+
+    public long decrease(Long prodId, int quantity) {
+        return stringRedisTemplate.execute(DECREASE_SCRIPT,
+                List.of(stockKey(prodId), deltaKey(prodId)), String.valueOf(quantity));
+    }
+
+    public long increase(Long prodId, int quantity) {
+        return stringRedisTemplate.execute(INCREASE_SCRIPT,
+                List.of(stockKey(prodId), deltaKey(prodId)), String.valueOf(quantity));
+    }
+
+    // 주문 라인(requestId) 하나의 변화량을 한 번만 반영. 재시도로 다시 오면 ALREADY_APPLIED.
+    public long applyOnce(Long prodId, int delta, Long requestId) {
+        return stringRedisTemplate.execute(APPLY_ONCE_SCRIPT,
+                List.of(stockKey(prodId), deltaKey(prodId), requestKey(prodId, requestId)),
+                String.valueOf(delta), String.valueOf(TimeUnit.DAYS.toSeconds(requestRetentionDays)));
+    }
+
+    // applyOnce로 반영한 것을 되돌린다. hot 모드가 꺼진 뒤라면 NOT_HOT (호출한 쪽에서 DB로 되돌려야 함)
+    public long undo(Long prodId, Long requestId) {
+        return stringRedisTemplate.execute(UNDO_SCRIPT,
+                List.of(stockKey(prodId), deltaKey(prodId), requestKey(prodId, requestId)));
+    }
+
+    // hot 상품들의 현재 재고 (Redis에 없는 상품은 결과에서 빠짐)
+    public Map<Long, Integer> getStocks(List<Long> prodIds) {
+        Map<Long, Integer> stocks = new HashMap<>();
+        if (prodIds.isEmpty()) return stocks;
+
+        List<String> values = stringRedisTemplate.opsForValue()
+                .multiGet(prodIds.stream().map(this::stockKey).collect(Collectors.toList()));
+        for (int i = 0; i < prodIds.size(); i++) {
+            if (values != null && values.get(i) != null) {
+                stocks.put(prodIds.get(i), Integer.parseInt(values.get(i)));
+            }
+        }
+        return stocks;
+    }
+
+    // hot 모드 켜기: DB 재고를 Redis로 옮기고, 그 이후로는 Redis가 재고의 원본이 된다.
+    // 재고 키는 행 잠금을 잡은 채로 미리 적재하고 (잠금 때문에 그 사이 DB 경로 차감은 대기),
+    // 요청을 Redis로 보내는 hot 목록 등록은 DB 커밋 후에 한다. 커밋이 실패하면 적재한 키를 지운다.
+    // -> 커밋 실패 시 Redis와 DB가 둘 다 재고의 원본이 되는 일이 없다.
+    @Transactional
+    public void enable(Long prodId) {
+        Product product = lock(prodId);
+        if (product.isHotStock()) return;
+
+        stringRedisTemplate.opsForValue().set(seqKey(prodId), String.valueOf(product.getStockFlushSeq()));
+        stringRedisTemplate.opsForValue().set(stockKey(prodId), String.valueOf(product.getStockQuantity()));
+        productRepository.updateHotStock(prodId, true);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stringRedisTemplate.opsForSet().add(HOT_SET_KEY, String.valueOf(prodId));
+                log.info("hot 재고 모드 시작 - 상품 ID: {}, 재고: {}", prodId, product.getStockQuantity());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) return;
+                stringRedisTemplate.delete(List.of(stockKey(prodId), seqKey(prodId), deltaKey(prodId)));
+                log.warn("hot 재고 모드 전환 실패 -> Redis 키 정리. 상품 ID: {}", prodId);
+            }
+        });
+    }
+
+    // hot 모드 끄기: 남은 변화량을 전부 DB에 반영하고 Redis 키를 정리.
+    // 행 잠금을 잡고 진행하기 때문에, 그 사이 DB 경로로 넘어온 차감 요청은 정리가 끝날 때까지 대기한다.
+    @Transactional
+    public void disable(Long prodId) {
+        lock(prodId);
+
+        // 재고 키를 먼저 지우면 이후 Redis 차감은 전부 NOT_HOT -> 더 이상 변화량이 쌓이지 않음.
+        stringRedisTemplate.delete(stockKey(prodId));
+        stringRedisTemplate.opsForSet().remove(HOT_SET_KEY, String.valueOf(prodId));
+        while (flush(prodId)) {
+            // 남은 변화량이 없을 때까지 반영
+        }
+        stringRedisTemplate.delete(List.of(deltaKey(prodId), flushingKey(prodId), seqKey(prodId)));
+        productRepository.updateHotStock(prodId, false);
+        log.info("hot 재고 모드 종료 - 상품 ID: {}", prodId);
+    }
+
+    // 재시작 시 정합성 맞추기: 반영 중이던 변화량을 마무리하고, Redis 재고가 유실됐다면 DB에서 다시 적재.
+    @Transactional
+    public void restore(Long prodId) {
+        lock(prodId);
+        while (flush(prodId)) {
+            // 남은 변화량이 없을 때까지 반영
+        }
+
+        if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(stockKey(prodId)))) {
+            // 위에서 반영한 뒤라 DB 값이 최신. (잠금을 잡고 있으니 그 사이 바뀌지도 않음)
+            Product product = productRepository.findById(prodId).orElseThrow(
+                    () -> new EntityNotFoundException("Product with id: " + prodId + " not found")
+            );
+            stringRedisTemplate.opsForValue().set(seqKey(prodId), String.valueOf(product.getStockFlushSeq()));
+            stringRedisTemplate.opsForValue().set(stockKey(prodId), String.valueOf(product.getStockQuantity()));
+            log.warn("Redis 재고 유실 -> DB 값으로 재적재. 상품 ID: {}, 재고: {}", prodId, product.getStockQuantity());
+        }
+        stringRedisTemplate.opsForSet().add(HOT_SET_KEY, String.valueOf(prodId));
+    }
+
+    // 누적된 변화량 한 묶음을 DB에 반영. 반영할 게 있었으면 true.
+    @SuppressWarnings("unchecked")
+    public boolean flush(Long prodId) {
+        List<Long> drained = stringRedisTemplate.execute(DRAIN_SCRIPT,
+                List.of(deltaKey(prodId), flushingKey(prodId), seqKey(prodId)));
+        long delta = drained.get(0);
+        long seq = drained.get(1);
+        if (delta == 0) return false;
+
+        // 이미 반영된 순번이면 0건 업데이트 (중복 반영 X)
+        productRepository.applyHotStockDelta(prodId, (int) delta, seq);
+        stringRedisTemplate.execute(ACK_SCRIPT, List.of(flushingKey(prodId)), String.valueOf(seq));
+        return true;
+    }
+
+    private Product lock(Long prodId) {
+        List<Product> locked = productRepository.findByIdInForUpdate(List.of(prodId));
+        if (locked.isEmpty()) {
+            throw new EntityNotFoundException("Product with id: " + prodId + " not found");
+        }
+        return locked.get(0);
+    }
+
+    // {id} 해시 태그: Redis 클러스터에서도 한 상품의 키들이 같은 슬롯에 모이도록 (Lua 스크립트 요구사항)
+    private String stockKey(Long prodId) {
+        return "product:stock:{" + prodId + "}";
+    }
+
+    private String deltaKey(Long prodId) {
+        return "product:stock:{" + prodId + "}:delta";
+    }
+
+    private String flushingKey(Long prodId) {
+        return "product:stock:{" + prodId + "}:flushing";
+    }
+
+    private String seqKey(Long prodId) {
+        return "product:stock:{" + prodId + "}:seq";
+    }
+
+    private String requestKey(Long prodId, Long requestId) {
+        return "product:stock:{" + prodId + "}:req:" + requestId;
+    }
+
+}
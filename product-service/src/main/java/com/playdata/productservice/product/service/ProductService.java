@@ -4,8 +4,14 @@ import com.playdata.productservice.common.configs.AwsS3Config;
 import com.playdata.productservice.product.dto.ProductResDto;
 import com.playdata.productservice.product.dto.ProductSaveReqDto;
 import com.playdata.productservice.product.dto.ProductSearchDto;
+import com.playdata.productservice.product.dto.StockChangeReqDto;
+import com.playdata.productservice.product.dto.StockReserveReqDto;
+import com.playdata.productservice.product.dto.StockResultDto;
 import com.playdata.productservice.product.entity.Product;
+import com.playdata.productservice.product.entity.StockRequestLog;
+import com.playdata.productservice.product.repository.ProductBulkRepository;
 import com.playdata.productservice.product.repository.ProductRepository;
+import com.playdata.productservice.product.repository.StockRequestLogRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,8 +22,15 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -29,6 +42,9 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final AwsS3Config s3Config;
+    private final HotStockService hotStockService;
+    private final ProductBulkRepository productBulkRepository;
+    private final StockRequestLogRepository stockRequestLogRepository;
 
     public Product productCreate(ProductSaveReqDto dto) throws IOException {
 
@@ -74,9 +90,20 @@ public class ProductService {
 
         List<Product> productList = products.getContent();
 
-        return productList.stream()
+        List<ProductResDto> dtoList = productList.stream()
                 .map(Product::fromEntity)
                 .collect(Collectors.toList());
+
+        // hot 상품은 Redis의 재고로 바꿔서 보여준다.
+        Map<Long, Integer> hotStocks = hotStockService.getStocks(productList.stream()
+                .filter(Product::isHotStock)
+                .map(Product::getId)
+                .collect(Collectors.toList()));
+        dtoList.forEach(resDto -> {
+            Integer hotStock = hotStocks.get(resDto.getId());
+            if (hotStock != null) resDto.setStockQuantity(hotStock);
+        });
+        return dtoList;
     }
 
     public void productDelete(Long id) throws Exception {
@@ -84,6 +111,11 @@ public class ProductService {
                 () -> new EntityNotFoundException("Product with id: " + id + " not found")
         );
 
+        if (product.isHotStock()) {
+            // Redis에 남아 있는 재고 키와 변화량 정리
+            hotStockService.disable(id);
+        }
+
         String imageUrl = product.getImagePath();
         s3Config.deleteFromS3Bucket(imageUrl);
 
@@ -95,10 +127,21 @@ public class ProductService {
                 () -> new EntityNotFoundException("Product with id: " + prodId + " not found")
         );
 
-        return product.fromEntity();
+        ProductResDto dto = product.fromEntity();
+        if (product.isHotStock()) {
+            // hot 상품은 Redis 재고가 원본 (DB 값은 주기적으로 반영되는 사본)
+            Integer hotStock = hotStockService.getStocks(List.of(prodId)).get(prodId);
+            if (hotStock != null) dto.setStockQuantity(hotStock);
+        }
+        return dto;
     }
 
     public void updateStockQuantity(Long prodId, int stockQuantity) {
+        if (hotStockService.isHot(prodId)) {
+            // hot 상품에 절대값을 덮어쓰면 Redis 변화량과 어긋나므로 변화량으로 바꿔서 적용.
+            Integer current = hotStockService.getStocks(List.of(prodId)).get(prodId);
+            if (current != null && applyStockDelta(prodId, stockQuantity - current)) return;
+        }
         Product foundProduct = productRepository.findById(prodId).orElseThrow(
                 () -> new EntityNotFoundException("Product with id: " + prodId + " not found")
         );
@@ -106,6 +149,79 @@ public class ProductService {
         productRepository.save(foundProduct);
     }
 
+    // 재고를 변화량만큼 원자적으로 변경 (동시 주문이 들어와도 갱신 손실이 없음)
+    // requestId가 있으면 한 번만 반영한다. 응답을 못 받은 ordering-service가 같은 라인을 다시 보내도 이중 차감 X.
+    public StockResultDto changeStock(StockChangeReqDto dto) {
+        Long prodId = dto.getProductId();
+        int delta = dto.getDelta();
+        Long requestId = dto.getRequestId();
+
+        if (requestId != null && stockRequestLogRepository.existsById(requestId)) {
+            log.info("이미 반영된 재고 변경 요청 -> 이전 결과(성공)로 응답. 요청 ID: {}", requestId);
+            return StockResultDto.builder()
+                    .productId(prodId)
+                    .quantity(Math.abs(delta))
+                    .success(true)
+                    .build();
+        }
+
+        boolean success = applyStockDelta(prodId, delta, requestId);
+        if (success && requestId != null) {
+            // 같은 트랜잭션에 기록 -> 같은 요청이 동시에 들어오면 PK 충돌로 뒤의 요청이 롤백된다.
+            stockRequestLogRepository.save(new StockRequestLog(requestId, prodId, delta));
+        }
+
+        StockResultDto.StockResultDtoBuilder builder = StockResultDto.builder()
+                .productId(prodId)
+                .quantity(Math.abs(delta))
+                .success(success);
+
+        if (!success) {
+            // 실패 원인은 실패했을 때만 한 번 더 확인한다.
+            builder.failReason(productRepository.existsById(prodId)
+                    ? StockResultDto.FailReason.INSUFFICIENT_STOCK
+                    : StockResultDto.FailReason.NOT_FOUND);
+        }
+        return builder.build();
+    }
+
+    private boolean applyStockDelta(Long prodId, int delta) {
+        return applyStockDelta(prodId, delta, null);
+    }
+
+    // 상품 하나의 재고를 변화량만큼 변경. hot 상품은 Redis, 나머지는 DB 조건부 UPDATE로 처리.
+    // requestId가 있으면 hot 상품은 Redis 스크립트 안에서 중복을 걸러낸다. (DB 경로는 호출한 쪽에서 요청 기록으로 확인)
+    private boolean applyStockDelta(Long prodId, int delta, Long requestId) {
+        if (hotStockService.isHot(prodId)) {
+            long result = applyHotStockDelta(prodId, delta, requestId);
+            if (result != HotStockService.NOT_HOT) return isApplied(result);
+            // hot 모드를 끄는 중 -> DB 경로로 처리 (정리가 끝날 때까지 행 잠금에서 대기)
+        }
+
+        int updated = delta < 0
+                ? productRepository.decreaseStock(prodId, -delta)
+                : productRepository.increaseStock(prodId, delta);
+        if (updated > 0) return true;
+
+        // 그 사이에 hot 모드로 전환된 상품이라면 Redis로 한 번 더 시도
+        // (hot 목록 등록은 전환 커밋 후라서 목록 대신 Redis 재고 키가 있는지로 판단)
+        return isApplied(applyHotStockDelta(prodId, delta, requestId)); // NOT_HOT(-2)이면 실패
+    }
+
+    private long applyHotStockDelta(Long prodId, int delta, Long requestId) {
+        if (requestId != null) {
+            return hotStockService.applyOnce(prodId, delta, requestId);
+        }
+        return delta < 0
+                ? hotStockService.decrease(prodId, -delta)
+                : hotStockService.increase(prodId, delta);
+    }
+
+    // 이번에 반영했거나, 같은 요청으로 이미 반영된 경우 성공
+    private boolean isApplied(long hotResult) {
+        return hotResult >= 0 || hotResult == HotStockService.ALREADY_APPLIED;
+    }
+
     public List<ProductResDto> getProductsName(List<Long> productIds) {
         List<Product> products = productRepository.findByIdIn(productIds);
 
@@ -114,14 +230,211 @@ public class ProductService {
                 .collect(Collectors.toList());
     }
 
-    public void cancelProduct(Map<Long, Integer> map) {
-        for (Long key : map.keySet()) {
-            Product foundProd = productRepository.findById(key).orElseThrow(
-                    () -> new EntityNotFoundException("Product with id: " + key + " not found")
-            );
-            int quantity = foundProd.getStockQuantity();
-            foundProd.setStockQuantity(quantity + map.get(key));
-            productRepository.save(foundProd);
+    // 주문 취소 시 재고 원복. 상품 수와 상관없이 일반 상품은 JDBC 배치 한 번, 결과 조회 한 번으로 끝난다.
+    // 조회 후 수정(read-modify-write)이 아니라 DB가 직접 더하므로 동시에 들어온 주문의 차감과 섞여도 유실 X.
+    // 없는 상품이 하나라도 있으면 예외 -> 같은 트랜잭션이라 앞에서 증가시킨 재고도 함께 롤백된다.
+    public List<StockResultDto> cancelProduct(Map<Long, Integer> map) {
+        Set<Long> hotIds = hotStockService.filterHot(map.keySet());
+        Map<Long, Integer> coldQuantities = map.entrySet().stream()
+                .filter(entry -> !hotIds.contains(entry.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        // 0건인 상품: 없는 상품이거나, 확인한 뒤에 hot 모드로 전환된 상품 -> 한 건씩 다시 시도
+        productBulkRepository.increaseStocks(coldQuantities).forEach((prodId, updated) -> {
+            if (updated == 0 && !applyStockDelta(prodId, map.get(prodId))) {
+                throw new EntityNotFoundException("Product with id: " + prodId + " not found");
+            }
+        });
+
+        // Redis는 되돌릴 수 없으니 DB 쪽 처리가 모두 성공한 뒤에 증가시킨다.
+        Set<Long> failedHot = new HashSet<>();
+        for (Long prodId : hotIds) {
+            if (!applyStockDelta(prodId, map.get(prodId))) {
+                log.error("hot 상품 재고 원복 실패! 상품 ID: {}, 수량: {}", prodId, map.get(prodId));
+                failedHot.add(prodId);
+            }
+        }
+
+        Map<Long, Integer> hotStocks = hotStockService.getStocks(new ArrayList<>(hotIds));
+        Map<Long, Product> productMap = productRepository.findByIdIn(new ArrayList<>(map.keySet())).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+
+        return map.keySet().stream()
+                .map(prodId -> {
+                    Product product = productMap.get(prodId);
+                    StockResultDto.StockResultDtoBuilder builder = StockResultDto.builder()
+                            .productId(prodId)
+                            .quantity(map.get(prodId))
+                            .success(!failedHot.contains(prodId));
+                    if (product == null) {
+                        return builder.failReason(StockResultDto.FailReason.NOT_FOUND).build();
+                    }
+                    return builder.productName(product.getName())
+                            .price(product.getPrice())
+                            .stockQuantity(hotStocks.getOrDefault(prodId, product.getStockQuantity()))
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    // 주문 한 건의 모든 라인에 대한 재고를 하나의 트랜잭션에서 확인하고 차감한다.
+    // 한 라인이라도 실패하면 아무것도 차감하지 않고 (all or nothing) 라인별 결과만 리턴.
+    // 이미 반영된 라인(requestId 기록이 있음)은 다시 차감하지 않고 성공으로 응답한다. (응답 유실 후 재시도)
+    public List<StockResultDto> reserveStock(List<StockReserveReqDto> dtoList) {
+        Set<Long> productIds = dtoList.stream()
+                .map(StockReserveReqDto::getProductId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Set<Long> hotIds = hotStockService.filterHot(productIds);
+        Set<Long> coldIds = productIds.stream()
+                .filter(id -> !hotIds.contains(id))
+                .collect(Collectors.toSet());
+
+        // 일반 상품은 행 잠금을 걸어서 조회 (동시 주문에 의한 lost update 방지)
+        // hot 상품은 재고가 Redis에 있으니 잠금 없이 상품 정보만 조회.
+        Map<Long, Product> productMap = new HashMap<>();
+        productRepository.findByIdInForUpdate(new ArrayList<>(coldIds))
+                .forEach(product -> productMap.put(product.getId(), product));
+        if (!hotIds.isEmpty()) {
+            productRepository.findByIdIn(new ArrayList<>(hotIds))
+                    .forEach(product -> productMap.put(product.getId(), product));
+        }
+
+        // 잠금을 기다리는 사이에 hot 모드로 전환된 상품은 hot 상품으로 처리
+        for (Long prodId : List.copyOf(coldIds)) {
+            Product product = productMap.get(prodId);
+            if (product != null && product.isHotStock()) {
+                coldIds.remove(prodId);
+                hotIds.add(prodId);
+            }
+        }
+
+        // 잠금을 잡은 뒤에 확인 -> 같은 요청이 동시에 들어와도 뒤의 요청은 앞 요청이 남긴 기록을 보게 된다.
+        Set<Long> applied = findAppliedRequestIds(dtoList);
+        List<StockReserveReqDto> pending = dtoList.stream()
+                .filter(dto -> !applied.contains(dto.getRequestId()))
+                .collect(Collectors.toList());
+
+        // 같은 상품이 여러 라인에 나눠서 들어올 수 있으니 상품별로 수량을 합산해서 검사한다.
+        Map<Long, Integer> requested = new LinkedHashMap<>();
+        for (StockReserveReqDto dto : pending) {
+            requested.merge(dto.getProductId(), dto.getProductQuantity(), Integer::sum);
+        }
+
+        Map<Long, Integer> remaining = new HashMap<>();
+        Set<Long> failed = new HashSet<>();
+        for (Long prodId : requested.keySet()) {
+            Product product = productMap.get(prodId);
+            if (product == null) {
+                failed.add(prodId);
+            } else if (coldIds.contains(prodId)) {
+                int left = product.getStockQuantity() - requested.get(prodId);
+                if (left < 0) failed.add(prodId);
+                else remaining.put(prodId, left);
+            }
+        }
+
+        if (failed.isEmpty()) {
+            reserveHotStock(pending.stream()
+                    .filter(dto -> hotIds.contains(dto.getProductId()))
+                    .collect(Collectors.toList()), failed);
+        }
+
+        boolean allReserved = failed.isEmpty();
+        if (allReserved) {
+            // 일반 상품은 잠금을 잡고 있으니 조건부 차감이 반드시 성공한다.
+            requested.keySet().stream()
+                    .filter(coldIds::contains)
+                    .forEach(prodId -> productRepository.decreaseStock(prodId, requested.get(prodId)));
+            remaining.putAll(hotStockService.getStocks(new ArrayList<>(hotIds)));
+
+            // 차감과 같은 트랜잭션에 기록. 같은 요청이 동시에 들어와 둘 다 통과했다면 뒤의 요청은 PK 충돌로 롤백.
+            stockRequestLogRepository.saveAll(pending.stream()
+                    .filter(dto -> dto.getRequestId() != null)
+                    .map(dto -> new StockRequestLog(dto.getRequestId(), dto.getProductId(), -dto.getProductQuantity()))
+                    .collect(Collectors.toList()));
+        }
+
+        return dtoList.stream()
+                .map(dto -> {
+                    boolean replayed = applied.contains(dto.getRequestId());
+                    return toStockResult(dto, productMap.get(dto.getProductId()),
+                            remaining.get(dto.getProductId()), allReserved || replayed,
+                            !replayed && failed.contains(dto.getProductId()));
+                })
+                .collect(Collectors.toList());
+    }
+
+    private Set<Long> findAppliedRequestIds(List<StockReserveReqDto> dtoList) {
+        List<Long> requestIds = dtoList.stream()
+                .map(StockReserveReqDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (requestIds.isEmpty()) return new HashSet<>();
+
+        return stockRequestLogRepository.findByRequestIdIn(requestIds).stream()
+                .map(StockRequestLog::getRequestId)
+                .collect(Collectors.toSet());
+    }
+
+    // hot 상품은 라인별로 Redis에서 바로 차감하고, 중간에 하나라도 실패하면 앞에서 차감한 것을 되돌린다.
+    // (라인 단위로 처리해야 requestId로 중복 차감을 걸러낼 수 있다)
+    private void reserveHotStock(List<StockReserveReqDto> hotLines, Set<Long> failed) {
+        List<StockReserveReqDto> deducted = new ArrayList<>();
+        try {
+            for (StockReserveReqDto dto : hotLines) {
+                if (!applyStockDelta(dto.getProductId(), -dto.getProductQuantity(), dto.getRequestId())) {
+                    failed.add(dto.getProductId());
+                    break;
+                }
+                deducted.add(dto);
+            }
+        } catch (RuntimeException e) {
+            rollbackHotStock(deducted);
+            throw e;
+        }
+        if (!failed.isEmpty()) {
+            rollbackHotStock(deducted);
+        }
+    }
+
+    private void rollbackHotStock(List<StockReserveReqDto> deducted) {
+        for (StockReserveReqDto dto : deducted) {
+            Long prodId = dto.getProductId();
+            try {
+                // requestId로 반영한 건 표시까지 함께 지워야 다음 재시도 때 다시 차감할 수 있다.
+                // 그 사이 hot 모드가 꺼졌다면 (NOT_HOT) DB로 되돌린다.
+                if (dto.getRequestId() == null
+                        || hotStockService.undo(prodId, dto.getRequestId()) == HotStockService.NOT_HOT) {
+                    applyStockDelta(prodId, dto.getProductQuantity());
+                }
+            } catch (RuntimeException e) {
+                log.error("hot 재고 복구 실패! 상품 ID: {}, 수량: {}, 오류: {}",
+                        prodId, dto.getProductQuantity(), e.getMessage());
+            }
+        }
+    }
+
+    private StockResultDto toStockResult(StockReserveReqDto dto, Product product,
+                                         Integer remaining, boolean reserved, boolean failed) {
+        StockResultDto.StockResultDtoBuilder builder = StockResultDto.builder()
+                .productId(dto.getProductId())
+                .quantity(dto.getProductQuantity())
+                .success(reserved);
+
+        if (product == null) {
+            return builder.failReason(StockResultDto.FailReason.NOT_FOUND).build();
+        }
+
+        builder.productName(product.getName())
+                .price(product.getPrice())
+                .stockQuantity(remaining != null ? remaining : product.getStockQuantity());
+
+        if (failed) {
+            builder.failReason(StockResultDto.FailReason.INSUFFICIENT_STOCK);
+        } else if (!reserved) {
+            builder.failReason(StockResultDto.FailReason.NOT_ATTEMPTED);
         }
+        return builder.build();
     }
-}
\ No newline at end of file
+}
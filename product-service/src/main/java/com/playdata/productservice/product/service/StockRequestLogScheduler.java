@@ -0,0 +1,33 @@
+package com.playdata.productservice.product.service;
+
+import com.playdata.productservice.product.repository.StockRequestLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class StockRequestLogScheduler {
+
+    private final StockRequestLogRepository stockRequestLogRepository;
+
+    @Value("${product.stock-request.retention-days:14}")
+    private int retentionDays;
+
+    // 재고 변경 요청 기록은 주문 재처리 기간 동안만 필요하므로 오래된 것은 지운다.
+    @Scheduled(fixedDelayString = "${product.stock-request.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purge() {
+        int deleted = stockRequestLogRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("오래된 재고 변경 요청 기록 정리 - {}건", deleted);
+        }
+    }
+
+}
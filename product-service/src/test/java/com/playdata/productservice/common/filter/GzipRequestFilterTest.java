@@ -0,0 +1,107 @@
+package com.playdata.productservice.common.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GzipRequestFilterTest {
+
+    private final GzipRequestFilter filter = new GzipRequestFilter(new ObjectMapper());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "maxInflatedBytes", 1024);
+    }
+
+    @Test
+    void internalRouteGetsTheInflatedBody() throws Exception {
+        String json = "[{\"productId\":1,\"productQuantity\":2,\"requestId\":10}]";
+        MockHttpServletRequest request = gzipRequest("/product/reserve", gzip(json.getBytes(StandardCharsets.UTF_8)));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        HttpServletRequest forwarded = (HttpServletRequest) chain.getRequest();
+        assertThat(forwarded.getInputStream().readAllBytes()).asString(StandardCharsets.UTF_8).isEqualTo(json);
+        assertThat(forwarded.getContentLength()).isEqualTo(json.getBytes(StandardCharsets.UTF_8).length);
+        // 컨트롤러에는 압축되지 않은 요청처럼 보여야 한다.
+        assertThat(forwarded.getHeader("Content-Encoding")).isNull();
+    }
+
+    @Test
+    void bodyInflatingPastTheCapIsRejected() throws Exception {
+        // 몇십 바이트로 압축되지만 풀면 상한(1KB)을 훨씬 넘는 본문
+        MockHttpServletRequest request = gzipRequest("/product/reserve", gzip(new byte[64 * 1024]));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void gzipBodyOnAPublicRouteIsRejected() throws Exception {
+        MockHttpServletRequest request = gzipRequest("/product/list", gzip("{}".getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(415);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void brokenGzipIsABadRequest() throws Exception {
+        MockHttpServletRequest request = gzipRequest("/product/stock", "not gzip".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void uncompressedRequestPassesThroughUntouched() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/product/list");
+        request.setContent("{}".getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    private static MockHttpServletRequest gzipRequest(String uri, byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.addHeader("Content-Encoding", "gzip");
+        request.setContentType("application/json");
+        request.setContent(body);
+        return request;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.playdata.productservice.product.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkRepositoryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ProductBulkRepository productBulkRepository;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendsOneBatchInIdOrder() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), eq(3), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1, 0, 1}});
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(30L, 1);
+        quantities.put(10L, 2);
+        quantities.put(20L, 3);
+
+        Map<Long, Integer> updated = productBulkRepository.increaseStocks(quantities);
+
+        // 동시에 들어온 취소끼리 같은 순서로 행을 잠그도록 id 순으로 보낸다.
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), ids.capture(), eq(3), any(ParameterizedPreparedStatementSetter.class));
+        assertThat(ids.getValue()).containsExactly(10L, 20L, 30L);
+        assertThat(updated).containsExactly(Map.entry(10L, 1), Map.entry(20L, 0), Map.entry(30L, 1));
+    }
+
+    @Test
+    void nothingToRestoreSendsNothing() {
+        assertThat(productBulkRepository.increaseStocks(Map.of())).isEmpty();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+}
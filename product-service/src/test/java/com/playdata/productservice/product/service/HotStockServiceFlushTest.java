@@ -0,0 +1,108 @@
+package com.playdata.productservice.product.service;
+
+import com.playdata.productservice.product.entity.Product;
+import com.playdata.productservice.product.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings({"unchecked", "rawtypes"})
+class HotStockServiceFlushTest {
+
+    private static final List<String> DRAIN_KEYS = List.of(
+            "product:stock:{1}:delta", "product:stock:{1}:flushing", "product:stock:{1}:seq");
+    private static final List<String> FLUSHING_KEY = List.of("product:stock:{1}:flushing");
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @InjectMocks
+    private HotStockService hotStockService;
+
+    @Test
+    void drainedDeltaIsAppliedWithItsSeqAndThenAcked() {
+        when(stringRedisTemplate.execute(isDrain(), eq(DRAIN_KEYS))).thenReturn(List.of(-5L, 7L));
+
+        assertThat(hotStockService.flush(1L)).isTrue();
+
+        // DB 반영(순번으로 중복 방지)이 끝난 뒤에 같은 순번으로 반영 중 상태를 지운다.
+        var order = inOrder(productRepository, stringRedisTemplate);
+        order.verify(productRepository).applyHotStockDelta(1L, -5, 7L);
+        order.verify(stringRedisTemplate).execute(isAck(), eq(FLUSHING_KEY), eq("7"));
+    }
+
+    @Test
+    void nothingDrainedTouchesNoRow() {
+        when(stringRedisTemplate.execute(isDrain(), eq(DRAIN_KEYS))).thenReturn(List.of(0L, 0L));
+
+        assertThat(hotStockService.flush(1L)).isFalse();
+
+        verify(productRepository, never()).applyHotStockDelta(anyLong(), anyInt(), anyLong());
+        verify(stringRedisTemplate, never()).execute(isAck(), anyList(), eq("0"));
+    }
+
+    @Test
+    void failedDbWriteKeepsTheBatchForTheNextRound() {
+        when(stringRedisTemplate.execute(isDrain(), eq(DRAIN_KEYS))).thenReturn(List.of(-5L, 7L));
+        when(productRepository.applyHotStockDelta(1L, -5, 7L)).thenThrow(new IllegalStateException("DB 오류"));
+
+        assertThatThrownBy(() -> hotStockService.flush(1L)).isInstanceOf(IllegalStateException.class);
+
+        // ACK를 하지 않았으니 다음 주기의 DRAIN이 같은 (delta, seq)를 다시 돌려준다.
+        verify(stringRedisTemplate, never()).execute(isAck(), anyList(), eq("7"));
+    }
+
+    @Test
+    void disableFlushesUntilNothingIsLeft() {
+        when(productRepository.findByIdInForUpdate(List.of(1L)))
+                .thenReturn(List.of(Product.builder().id(1L).hotStock(true).build()));
+        when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+        when(stringRedisTemplate.execute(isDrain(), eq(DRAIN_KEYS)))
+                .thenReturn(List.of(-5L, 7L), List.of(3L, 8L), List.of(0L, 0L));
+
+        hotStockService.disable(1L);
+
+        var order = inOrder(stringRedisTemplate, productRepository);
+        // 재고 키부터 지워서 새 변화량이 쌓이지 않게 한 뒤 남은 묶음을 차례로 반영
+        order.verify(stringRedisTemplate).delete("product:stock:{1}");
+        order.verify(productRepository).applyHotStockDelta(1L, -5, 7L);
+        order.verify(productRepository).applyHotStockDelta(1L, 3, 8L);
+        order.verify(productRepository).updateHotStock(1L, false);
+        verify(setOperations).remove("product:stock:hot", "1");
+    }
+
+    private static RedisScript isDrain() {
+        return argThat((RedisScript script) -> script.getResultType() == List.class);
+    }
+
+    private static RedisScript isAck() {
+        return argThat((RedisScript script) -> script != null
+                && script.getResultType() == Long.class
+                && script.getScriptAsString().contains("HGET"));
+    }
+
+}
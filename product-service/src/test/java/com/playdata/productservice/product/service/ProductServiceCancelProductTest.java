@@ -0,0 +1,114 @@
+package com.playdata.productservice.product.service;
+
+import com.playdata.productservice.common.configs.AwsS3Config;
+import com.playdata.productservice.product.dto.StockResultDto;
+import com.playdata.productservice.product.entity.Product;
+import com.playdata.productservice.product.repository.ProductBulkRepository;
+import com.playdata.productservice.product.repository.ProductRepository;
+import com.playdata.productservice.product.repository.StockRequestLogRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductServiceCancelProductTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private AwsS3Config s3Config;
+    @Mock
+    private HotStockService hotStockService;
+    @Mock
+    private ProductBulkRepository productBulkRepository;
+    @Mock
+    private StockRequestLogRepository stockRequestLogRepository;
+
+    @InjectMocks
+    private ProductService productService;
+
+    @Test
+    void coldProductsAreRestoredInOneBatch() {
+        hotProducts();
+        when(productBulkRepository.increaseStocks(Map.of(1L, 3, 2L, 5))).thenReturn(Map.of(1L, 1, 2L, 1));
+        when(productRepository.findByIdIn(anyList())).thenReturn(List.of(product(1L, 13), product(2L, 15)));
+
+        List<StockResultDto> results = productService.cancelProduct(orderedMap(1L, 3, 2L, 5));
+
+        assertThat(results).allMatch(StockResultDto::isSuccess);
+        assertThat(results).extracting(StockResultDto::getStockQuantity).containsExactly(13, 15);
+        // 상품마다 UPDATE를 따로 보내지 않는다.
+        verify(productRepository, never()).increaseStock(anyLong(), anyInt());
+    }
+
+    @Test
+    void unknownProductFailsTheWholeCancel() {
+        hotProducts();
+        when(productBulkRepository.increaseStocks(anyMap())).thenReturn(Map.of(1L, 1, 9L, 0));
+        // 한 건씩 다시 시도해도 DB에도 Redis에도 없는 상품
+        when(productRepository.increaseStock(9L, 2)).thenReturn(0);
+        when(hotStockService.increase(9L, 2)).thenReturn(HotStockService.NOT_HOT);
+
+        assertThatThrownBy(() -> productService.cancelProduct(orderedMap(1L, 3, 9L, 2)))
+                .isInstanceOf(EntityNotFoundException.class);
+        verify(hotStockService, never()).getStocks(anyList());
+    }
+
+    @Test
+    void hotProductsAreRestoredInRedisAfterTheBatch() {
+        hotProducts(2L);
+        when(productBulkRepository.increaseStocks(Map.of(1L, 3))).thenReturn(Map.of(1L, 1));
+        when(hotStockService.increase(2L, 5)).thenReturn(20L);
+        when(hotStockService.getStocks(anyList())).thenReturn(Map.of(2L, 20));
+        when(productRepository.findByIdIn(anyList())).thenReturn(List.of(product(1L, 13), product(2L, 0)));
+
+        List<StockResultDto> results = productService.cancelProduct(orderedMap(1L, 3, 2L, 5));
+
+        var order = inOrder(productBulkRepository, hotStockService);
+        order.verify(productBulkRepository).increaseStocks(Map.of(1L, 3));
+        order.verify(hotStockService).increase(2L, 5);
+        // hot 상품의 남은 재고는 Redis 값
+        assertThat(results).extracting(StockResultDto::getStockQuantity).containsExactly(13, 20);
+    }
+
+    private void hotProducts(Long... ids) {
+        Set<Long> hot = new HashSet<>(List.of(ids));
+        when(hotStockService.filterHot(anyCollection())).thenReturn(hot);
+        for (Long id : ids) {
+            when(hotStockService.isHot(id)).thenReturn(true);
+        }
+    }
+
+    private static Map<Long, Integer> orderedMap(Long id1, int q1, Long id2, int q2) {
+        Map<Long, Integer> map = new LinkedHashMap<>();
+        map.put(id1, q1);
+        map.put(id2, q2);
+        return map;
+    }
+
+    private static Product product(Long id, int stockQuantity) {
+        return Product.builder().id(id).name("상품" + id).price(1000).stockQuantity(stockQuantity).build();
+    }
+
+}
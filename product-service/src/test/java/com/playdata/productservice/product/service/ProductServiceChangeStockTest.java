@@ -0,0 +1,109 @@
+package com.playdata.productservice.product.service;
+
+import com.playdata.productservice.common.configs.AwsS3Config;
+import com.playdata.productservice.product.dto.StockChangeReqDto;
+import com.playdata.productservice.product.dto.StockReserveReqDto;
+import com.playdata.productservice.product.dto.StockResultDto;
+import com.playdata.productservice.product.entity.Product;
+import com.playdata.productservice.product.entity.StockRequestLog;
+import com.playdata.productservice.product.repository.ProductBulkRepository;
+import com.playdata.productservice.product.repository.ProductRepository;
+import com.playdata.productservice.product.repository.StockRequestLogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductServiceChangeStockTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private AwsS3Config s3Config;
+    @Mock
+    private HotStockService hotStockService;
+    @Mock
+    private ProductBulkRepository productBulkRepository;
+    @Mock
+    private StockRequestLogRepository stockRequestLogRepository;
+
+    @InjectMocks
+    private ProductService productService;
+
+    @Test
+    void deductsWithConditionalUpdateAndRecordsRequest() {
+        when(productRepository.decreaseStock(1L, 3)).thenReturn(1);
+
+        StockResultDto result = productService.changeStock(change(1L, -3, 101L));
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getQuantity()).isEqualTo(3);
+        verify(stockRequestLogRepository).save(any(StockRequestLog.class));
+    }
+
+    @Test
+    void insufficientStockIsReportedWithoutRecording() {
+        when(productRepository.decreaseStock(1L, 3)).thenReturn(0);
+        // 조건부 UPDATE가 0건이면 hot 전환 여부를 Redis로 한 번 더 확인한다.
+        when(hotStockService.applyOnce(1L, -3, 101L)).thenReturn(HotStockService.NOT_HOT);
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        StockResultDto result = productService.changeStock(change(1L, -3, 101L));
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getFailReason()).isEqualTo(StockResultDto.FailReason.INSUFFICIENT_STOCK);
+        verify(stockRequestLogRepository, never()).save(any(StockRequestLog.class));
+    }
+
+    @Test
+    void replayedChangeIsNotAppliedTwice() {
+        when(stockRequestLogRepository.existsById(101L)).thenReturn(true);
+
+        StockResultDto result = productService.changeStock(change(1L, -3, 101L));
+
+        assertThat(result.isSuccess()).isTrue();
+        verify(productRepository, never()).decreaseStock(anyLong(), anyInt());
+        verify(hotStockService, never()).applyOnce(anyLong(), anyInt(), anyLong());
+    }
+
+    @Test
+    void replayedReserveLinesAreNotDeductedAgain() {
+        when(hotStockService.filterHot(anyCollection())).thenReturn(new HashSet<>());
+        when(productRepository.findByIdInForUpdate(anyList()))
+                .thenReturn(List.of(product(1L, 7), product(2L, 0)));
+        when(stockRequestLogRepository.findByRequestIdIn(anyCollection())).thenReturn(List.of(
+                new StockRequestLog(101L, 1L, -3), new StockRequestLog(102L, 2L, -5)));
+
+        List<StockResultDto> results = productService.reserveStock(List.of(
+                StockReserveReqDto.builder().productId(1L).productQuantity(3).requestId(101L).build(),
+                StockReserveReqDto.builder().productId(2L).productQuantity(5).requestId(102L).build()));
+
+        assertThat(results).allMatch(StockResultDto::isSuccess);
+        assertThat(results).allMatch(result -> result.getFailReason() == null);
+        verify(productRepository, never()).decreaseStock(anyLong(), anyInt());
+    }
+
+    private static StockChangeReqDto change(Long productId, int delta, Long requestId) {
+        return StockChangeReqDto.builder().productId(productId).delta(delta).requestId(requestId).build();
+    }
+
+    private static Product product(Long id, int stockQuantity) {
+        return Product.builder().id(id).name("상품" + id).price(1000).stockQuantity(stockQuantity).build();
+    }
+
+}
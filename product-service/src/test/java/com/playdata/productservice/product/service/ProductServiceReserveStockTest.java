@@ -0,0 +1,126 @@
+package com.playdata.productservice.product.service;
+
+import com.playdata.productservice.common.configs.AwsS3Config;
+import com.playdata.productservice.product.dto.StockReserveReqDto;
+import com.playdata.productservice.product.dto.StockResultDto;
+import com.playdata.productservice.product.entity.Product;
+import com.playdata.productservice.product.repository.ProductBulkRepository;
+import com.playdata.productservice.product.repository.ProductRepository;
+import com.playdata.productservice.product.repository.StockRequestLogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductServiceReserveStockTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private AwsS3Config s3Config;
+    @Mock
+    private HotStockService hotStockService;
+    @Mock
+    private ProductBulkRepository productBulkRepository;
+    @Mock
+    private StockRequestLogRepository stockRequestLogRepository;
+
+    @InjectMocks
+    private ProductService productService;
+
+    @Test
+    void reservesAllLinesWhenStockIsEnough() {
+        hotProducts();
+        when(productRepository.findByIdInForUpdate(anyList()))
+                .thenReturn(List.of(product(1L, 10), product(2L, 5)));
+
+        List<StockResultDto> results = productService.reserveStock(List.of(
+                line(1L, 3, 101L), line(2L, 5, 102L), line(1L, 2, 103L)));
+
+        assertThat(results).allMatch(StockResultDto::isSuccess);
+        assertThat(results.get(0).getStockQuantity()).isEqualTo(5);
+        // 같은 상품의 라인은 합산해서 한 번에 차감
+        verify(productRepository).decreaseStock(1L, 5);
+        verify(productRepository).decreaseStock(2L, 5);
+        verify(stockRequestLogRepository).saveAll(anyIterable());
+    }
+
+    @Test
+    void oneShortLineReservesNothing() {
+        hotProducts();
+        when(productRepository.findByIdInForUpdate(anyList()))
+                .thenReturn(List.of(product(1L, 10), product(2L, 1)));
+
+        List<StockResultDto> results = productService.reserveStock(List.of(
+                line(1L, 3, 101L), line(2L, 2, 102L)));
+
+        assertThat(results).noneMatch(StockResultDto::isSuccess);
+        assertThat(results.get(0).getFailReason()).isEqualTo(StockResultDto.FailReason.NOT_ATTEMPTED);
+        assertThat(results.get(1).getFailReason()).isEqualTo(StockResultDto.FailReason.INSUFFICIENT_STOCK);
+        verify(productRepository, never()).decreaseStock(anyLong(), anyInt());
+        verify(stockRequestLogRepository, never()).saveAll(anyIterable());
+    }
+
+    @Test
+    void failedHotLineUndoesEarlierHotLines() {
+        hotProducts(1L, 2L);
+        when(productRepository.findByIdIn(anyList()))
+                .thenReturn(List.of(hotProduct(1L), hotProduct(2L)));
+        when(hotStockService.applyOnce(1L, -1, 101L)).thenReturn(9L);
+        when(hotStockService.applyOnce(2L, -2, 102L)).thenReturn(HotStockService.INSUFFICIENT);
+
+        List<StockResultDto> results = productService.reserveStock(List.of(
+                line(1L, 1, 101L), line(2L, 2, 102L)));
+
+        assertThat(results).noneMatch(StockResultDto::isSuccess);
+        assertThat(results.get(0).getFailReason()).isEqualTo(StockResultDto.FailReason.NOT_ATTEMPTED);
+        assertThat(results.get(1).getFailReason()).isEqualTo(StockResultDto.FailReason.INSUFFICIENT_STOCK);
+        verify(hotStockService).undo(1L, 101L);
+        verify(stockRequestLogRepository, never()).saveAll(anyIterable());
+    }
+
+    private void hotProducts(Long... ids) {
+        // reserveStock이 결과 Set을 수정하므로 변경 가능한 Set으로 돌려준다.
+        Set<Long> hot = new HashSet<>(List.of(ids));
+        when(hotStockService.filterHot(anyCollection())).thenReturn(hot);
+        for (Long id : ids) {
+            lenient().when(hotStockService.isHot(id)).thenReturn(true);
+        }
+        lenient().when(hotStockService.getStocks(anyList())).thenReturn(Map.of());
+    }
+
+    private static StockReserveReqDto line(Long productId, int quantity, Long requestId) {
+        return StockReserveReqDto.builder()
+                .productId(productId)
+                .productQuantity(quantity)
+                .requestId(requestId)
+                .build();
+    }
+
+    private static Product product(Long id, int stockQuantity) {
+        return Product.builder().id(id).name("상품" + id).price(1000).stockQuantity(stockQuantity).build();
+    }
+
+    private static Product hotProduct(Long id) {
+        return Product.builder().id(id).name("상품" + id).price(1000).hotStock(true).build();
+    }
+
+}
@@ -82,7 +82,7 @@ public class UserController {
         // 징표를 하나 만들어 주겠다. -> JWT를 발급해서 클라이언트에게 전달해 주겠다!
         // Access Token 발급 -> 수명이 짧습니다. (토큰 탈취 방지)
         String token
-                = jwtTokenProvider.createToken(user.getEmail(), user.getRole().toString());
+                = jwtTokenProvider.createToken(user.getEmail(), user.getRole().toString(), user.getId());
 
         // Refresh Token을 생성해 주겠다.
         // Access Token 수명이 만료되었을 경우 Refresh Token을 확인해서 리프레시가 유효한 경우
@@ -147,7 +147,7 @@ public class UserController {
         // 새로운 access token을 발급
         User user = userService.findById(id);
         String newAccessToken
-                = jwtTokenProvider.createToken(user.getEmail(), user.getRole().toString());
+                = jwtTokenProvider.createToken(user.getEmail(), user.getRole().toString(), user.getId());
 
         Map<String, Object> info = new HashMap<>();
         info.put("token", newAccessToken);